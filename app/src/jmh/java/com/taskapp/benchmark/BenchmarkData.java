@@ -0,0 +1,113 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * ベンチマーク用のusers.csv・tasks.csv・logs.csvを生成します。
+ * 行数ごとに{@code <baseDir>/<rows>/}へ出力し、既に生成済みの場合は再利用します。
+ *
+ * <p>Gradleの{@code generateBenchmarkData}タスクから、出力先と行数を引数にして実行されます。</p>
+ */
+public final class BenchmarkData {
+    /** 生成済みデータの出力先を指定するシステムプロパティ */
+    public static final String DATA_DIR_PROPERTY = "taskapp.benchmark.dataDir";
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baseDir = Paths.get(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            Path dir = prepare(baseDir, Integer.parseInt(args[i]));
+            System.out.println("generated " + dir);
+        }
+    }
+
+    /**
+     * 指定した行数のデータを用意します。
+     * @param rows タスク・ログの行数
+     * @return データを格納したディレクトリ
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static Path prepare(int rows) throws IOException {
+        String baseDir = System.getProperty(DATA_DIR_PROPERTY, "build/jmh-data");
+        return prepare(Paths.get(baseDir), rows);
+    }
+
+    /**
+     * 指定した行数のデータを用意します。
+     * @param baseDir 出力先のディレクトリ
+     * @param rows タスク・ログの行数
+     * @return データを格納したディレクトリ
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static Path prepare(Path baseDir, int rows) throws IOException {
+        Path dir = baseDir.resolve(String.valueOf(rows));
+        Path done = dir.resolve(".complete");
+        if (Files.exists(done)) {
+            return dir;
+        }
+        Files.createDirectories(dir);
+        int users = userCount(rows);
+        writeUsers(dir.resolve("users.csv"), users);
+        writeTasks(dir.resolve("tasks.csv"), rows, users);
+        writeLogs(dir.resolve("logs.csv"), rows, users);
+        Files.createFile(done);
+        return dir;
+    }
+
+    /**
+     * タスクの行数に対応するユーザー数を返します。
+     * @param rows タスクの行数
+     * @return ユーザー数
+     */
+    public static int userCount(int rows) {
+        return Math.max(10, rows / 20);
+    }
+
+    /**
+     * 全タスクを未着手の状態でtasks.csvを書き出します。
+     * @param file 出力先のファイル
+     * @param rows タスクの行数
+     * @param users ユーザー数
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static void writeTasks(Path file, int rows, int users) throws IOException {
+        Random random = new Random(rows);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int code = 1; code <= rows; code++) {
+                writer.write(code + ",task" + code + ",0," + (1 + random.nextInt(users)) + "\n");
+            }
+        }
+    }
+
+    private static void writeUsers(Path file, int users) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int code = 1; code <= users; code++) {
+                writer.write(code + ",ユーザー" + code + ",user" + code + "@example.com,password" + code + "\n");
+            }
+        }
+    }
+
+    private static void writeLogs(Path file, int rows, int users) throws IOException {
+        Random random = new Random(rows * 31L);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Task_Code,Change_User_Code,Status,Change_Date\n");
+            for (int i = 0; i < rows; i++) {
+                int taskCode = 1 + random.nextInt(rows);
+                LocalDate date = START_DATE.plusDays(random.nextInt(730));
+                writer.write(taskCode + "," + (1 + random.nextInt(users)) + "," + random.nextInt(3) + "," + date + "\n");
+            }
+        }
+    }
+}
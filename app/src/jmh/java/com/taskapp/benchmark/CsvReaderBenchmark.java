@@ -0,0 +1,92 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.taskapp.dataaccess.MappedCsvReader;
+
+/**
+ * tasks.csvの解析について、従来のBufferedReaderと{@link String#split(String)}による読み込みと
+ * {@link MappedCsvReader}を比較します。{@code -prof gc}で1行あたりの割り当て量を確認できます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvReaderBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private WorkingCopy workingCopy;
+    private String tasksPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        tasksPath = workingCopy.dir().resolve("tasks.csv").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public void bufferedReaderSplit(Blackhole blackhole) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(tasksPath))) {
+            String line;
+            br.readLine();
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 4) {
+                    blackhole.consume(Integer.parseInt(parts[0].trim()));
+                    blackhole.consume(parts[1].trim());
+                    blackhole.consume(Integer.parseInt(parts[2].trim()));
+                    blackhole.consume(Integer.parseInt(parts[3].trim()));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedReader(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = MappedCsvReader.open(tasksPath)) {
+            reader.next();
+            while (reader.next()) {
+                if (reader.fieldCount() == 4) {
+                    blackhole.consume(reader.getInt(0));
+                    blackhole.consume(reader.getString(1));
+                    blackhole.consume(reader.getInt(2));
+                    blackhole.consume(reader.getInt(3));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedReaderIntColumnsOnly(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = MappedCsvReader.open(tasksPath)) {
+            reader.next();
+            while (reader.next()) {
+                if (reader.fieldCount() == 4) {
+                    blackhole.consume(reader.getInt(0));
+                    blackhole.consume(reader.getInt(2));
+                    blackhole.consume(reader.getInt(3));
+                }
+            }
+        }
+    }
+}
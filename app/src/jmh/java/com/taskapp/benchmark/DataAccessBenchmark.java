@@ -0,0 +1,141 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.BinaryLogDataAccess;
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+/**
+ * 各データアクセスのメソッドを行数ごとに計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataAccessBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private WorkingCopy workingCopy;
+    private UserDataAccess userDataAccess;
+    private TaskDataAccess taskDataAccess;
+    private LogDataAccess logDataAccess;
+    private BinaryLogDataAccess binaryLogDataAccess;
+    private int users;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        Path dir = workingCopy.dir();
+        users = BenchmarkData.userCount(rows);
+        userDataAccess = new UserDataAccess(dir.resolve("users.csv").toString());
+        taskDataAccess = new TaskDataAccess(dir.resolve("tasks.csv").toString(), userDataAccess);
+        logDataAccess = new LogDataAccess(dir.resolve("logs.csv").toString());
+        BinaryLogDataAccess.importCsv(dir.resolve("logs.csv").toString(), dir.resolve("logs.bin").toString());
+        binaryLogDataAccess = new BinaryLogDataAccess(dir.resolve("logs.bin").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public List<Task> taskFindAll() {
+        return taskDataAccess.findAll();
+    }
+
+    @Benchmark
+    public long taskStreamCount() {
+        try (Stream<Task> tasks = taskDataAccess.stream()) {
+            return tasks.count();
+        }
+    }
+
+    @Benchmark
+    public Task taskStreamFirst() {
+        try (Stream<Task> tasks = taskDataAccess.stream()) {
+            return tasks.findFirst().orElse(null);
+        }
+    }
+
+    @Benchmark
+    public Task taskFindByCode() {
+        return taskDataAccess.findByCode(nextTaskCode());
+    }
+
+    @Benchmark
+    public void taskUpdate() {
+        int code = nextTaskCode();
+        taskDataAccess.update(new Task(code, "task" + code, counter & 1, new User(1, "", "", "")));
+    }
+
+    @Benchmark
+    public void taskSave() {
+        int code = rows + (++counter);
+        taskDataAccess.save(new Task(code, "task" + code, 0, new User(1, "", "", "")));
+    }
+
+    @Benchmark
+    public User userFindByCode() {
+        return userDataAccess.findByCode(1 + (++counter % users));
+    }
+
+    @Benchmark
+    public User userFindByEmailAndPassword() {
+        int code = 1 + (++counter % users);
+        return userDataAccess.findByEmailAndPassword("user" + code + "@example.com", "password" + code);
+    }
+
+    @Benchmark
+    public List<Log> logFindAll() {
+        return logDataAccess.findAll();
+    }
+
+    @Benchmark
+    public long logStreamCount() {
+        try (Stream<Log> logs = logDataAccess.stream()) {
+            return logs.count();
+        }
+    }
+
+    @Benchmark
+    public List<Log> logFindByTaskCode() {
+        return logDataAccess.findByTaskCode(nextTaskCode());
+    }
+
+    @Benchmark
+    public List<Log> binaryLogFindAll() {
+        return binaryLogDataAccess.findAll();
+    }
+
+    @Benchmark
+    public void logSave() {
+        logDataAccess.save(new Log(nextTaskCode(), 1, 1, LocalDate.of(2024, 1, 1)));
+    }
+
+    private int nextTaskCode() {
+        return 1 + (++counter % rows);
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.LogWriter;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.exception.AppException;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.model.User;
+
+/**
+ * ログの書き込み完了を待つ登録・ステータス変更を、記録の方式ごとに計測します。
+ * {@code journal}はタスクをジャーナルに、ログを書き込みサービスで同期して追記する従来の方式、
+ * {@code writeAhead}はタスクとログを1つの先行書き込みログに1回の同期で記録する方式です。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DurableWriteBenchmark {
+    @Param({ "100000" })
+    public int rows;
+
+    @Param({ "journal", "writeAhead" })
+    public String mode;
+
+    private WorkingCopy workingCopy;
+    private LogDataAccess logDataAccess;
+    private TaskLogic taskLogic;
+    private User loginUser;
+    private int users;
+    private int saved;
+    private int transitions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        Path dir = workingCopy.dir();
+        users = BenchmarkData.userCount(rows);
+        String tasksPath = dir.resolve("tasks.csv").toString();
+        String logsPath = dir.resolve("logs.csv").toString();
+        UserDataAccess userDataAccess = new UserDataAccess(dir.resolve("users.csv").toString());
+        TaskDataAccess taskDataAccess;
+        if (mode.equals("writeAhead")) {
+            logDataAccess = new LogDataAccess(logsPath);
+            taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess, logDataAccess);
+        } else {
+            logDataAccess = new LogDataAccess(logsPath,
+                new LogWriter(logsPath, LogWriter.Durability.PER_BATCH, 0, 4096));
+            taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess, true);
+        }
+        taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess, true);
+        loginUser = userDataAccess.findByCode(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        logDataAccess.close();
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public void save() throws AppException {
+        saved++;
+        taskLogic.save(rows + saved, "bench" + saved, 1 + saved % users, loginUser);
+    }
+
+    /**
+     * 未着手のタスクを順に着手中・完了へ進めます。
+     */
+    @Benchmark
+    public void changeStatus() throws AppException {
+        int code = 1 + (transitions / 2) % rows;
+        int status = transitions % 2 == 0 ? 1 : 2;
+        transitions++;
+        taskLogic.changeStatus(code, status, loginUser);
+    }
+}
@@ -0,0 +1,138 @@
+package com.taskapp.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.taskapp.model.Task;
+import com.taskapp.util.IntObjectMap;
+
+/**
+ * タスクコードをキーとした表について、{@code HashMap<Integer, Task>}と{@link IntObjectMap}を比較します。
+ * build系は表を作成する時間と、{@code -prof gc}の{@code gc.alloc.rate.norm}で1回あたりの割り当て量を計測します。
+ * lookup系は作成済みの表から{@value #LOOKUPS}件をランダムな順に参照する時間を計測します。
+ * {@link #main(String[])}は作成した表が保持し続けるヒープの量を出力します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntMapBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private Task[] tasks;
+    private int[] probes;
+    private Map<Integer, Task> hashMap;
+    private IntObjectMap<Task> intMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = createTasks(rows);
+        hashMap = buildHashMap(tasks);
+        intMap = buildIntMap(tasks);
+        probes = new int[LOOKUPS];
+        Random random = new Random(1);
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = 1 + random.nextInt(rows);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Task> buildHashMap() {
+        return buildHashMap(tasks);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntObjectMap<Task> buildIntObjectMap() {
+        return buildIntMap(tasks);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int lookupHashMap() {
+        int sum = 0;
+        for (int code : probes) {
+            sum += hashMap.get(code).getStatus();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int lookupIntObjectMap() {
+        int sum = 0;
+        for (int code : probes) {
+            sum += intMap.get(code).getStatus();
+        }
+        return sum;
+    }
+
+    private static Task[] createTasks(int rows) {
+        Task[] tasks = new Task[rows];
+        for (int i = 0; i < rows; i++) {
+            tasks[i] = new Task(i + 1, "task" + (i + 1), i % 3, null);
+        }
+        return tasks;
+    }
+
+    private static Map<Integer, Task> buildHashMap(Task[] tasks) {
+        Map<Integer, Task> map = new HashMap<>();
+        for (Task task : tasks) {
+            map.put(task.getCode(), task);
+        }
+        return map;
+    }
+
+    private static IntObjectMap<Task> buildIntMap(Task[] tasks) {
+        IntObjectMap<Task> map = new IntObjectMap<>();
+        for (Task task : tasks) {
+            map.put(task.getCode(), task);
+        }
+        return map;
+    }
+
+    /**
+     * タスク本体を除いた、表そのものが保持するヒープの量を出力します。
+     *
+     * @param args 件数（省略時は1000000）
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Task[] tasks = createTasks(rows);
+        long base = usedHeap();
+        Map<Integer, Task> hashMap = buildHashMap(tasks);
+        long hashMapBytes = usedHeap() - base;
+        IntObjectMap<Task> intMap = buildIntMap(tasks);
+        long intMapBytes = usedHeap() - base - hashMapBytes;
+        System.out.printf("rows=%d HashMap=%.1f MB (%.1f B/entry) IntObjectMap=%.1f MB (%.1f B/entry)%n",
+            rows, hashMapBytes / 1e6, hashMapBytes / (double) rows, intMapBytes / 1e6, intMapBytes / (double) rows);
+        // 計測が終わるまで表を回収させない
+        if (hashMap.size() + intMap.size() < 0) {
+            System.out.println();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
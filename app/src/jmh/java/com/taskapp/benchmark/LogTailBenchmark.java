@@ -0,0 +1,65 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.model.Log;
+
+/**
+ * ログを1件追記するたびに全てのログを取得する場合を計測します。
+ * {@code findAllAfterAppend}は追記された行のみを読み足し、{@code fullScanAfterAppend}は毎回ファイル全体を解析します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogTailBenchmark {
+    @Param({ "100000", "1000000" })
+    public int rows;
+
+    private WorkingCopy workingCopy;
+    private LogDataAccess logDataAccess;
+    private Log log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        logDataAccess = new LogDataAccess(workingCopy.dir().resolve("logs.csv").toString());
+        log = new Log(1, 1, 1, LocalDate.of(2024, 1, 10));
+        logDataAccess.findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public List<Log> findAllAfterAppend() {
+        logDataAccess.save(log);
+        return logDataAccess.findAll();
+    }
+
+    @Benchmark
+    public List<Log> fullScanAfterAppend() {
+        logDataAccess.save(log);
+        try (Stream<Log> logs = logDataAccess.stream()) {
+            return logs.collect(Collectors.toList());
+        }
+    }
+}
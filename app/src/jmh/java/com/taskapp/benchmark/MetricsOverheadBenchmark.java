@@ -0,0 +1,45 @@
+package com.taskapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
+
+/**
+ * 1回の計測（{@link OperationMetrics#start()}から{@link OperationMetrics#stop(long)}まで）にかかる時間を計測します。
+ * {@code -prof gc}の{@code gc.alloc.rate.norm}で、計測のたびに割り当てが発生しないことも確認できます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsOverheadBenchmark {
+    private final OperationMetrics metrics = Metrics.operation("MetricsOverheadBenchmark.record");
+
+    @Benchmark
+    public long nanoTimeOnly() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void record() {
+        long start = metrics.start();
+        metrics.addRows(1);
+        metrics.stop(start);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        long start = metrics.start();
+        metrics.addRows(1);
+        metrics.stop(start);
+    }
+}
@@ -0,0 +1,85 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.ParallelCsvLoader;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+
+/**
+ * {@link TaskDataAccess#findAll()}と{@link LogDataAccess#findAll()}を、並列に読み込むスレッド数ごとに計測します。
+ * {@code threads=0}は並列の読み込みを使わず、1行ずつ順に読み込む場合です。
+ * スレッド数ごとのプールを作成し、ファイルの大きさにかかわらず並列に読み込みます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelLoadBenchmark {
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "0", "1", "2", "4", "8", "16", "32" })
+    public int threads;
+
+    private WorkingCopy workingCopy;
+    private ForkJoinPool pool;
+    private TaskDataAccess taskDataAccess;
+    private String logsFile;
+    private ParallelCsvLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        Path dir = workingCopy.dir();
+        UserDataAccess userDataAccess = new UserDataAccess(dir.resolve("users.csv").toString());
+        taskDataAccess = new TaskDataAccess(dir.resolve("tasks.csv").toString(), userDataAccess);
+        logsFile = dir.resolve("logs.csv").toString();
+        if (threads == 0) {
+            loader = new ParallelCsvLoader(ForkJoinPool.commonPool(), Long.MAX_VALUE,
+                ParallelCsvLoader.DEFAULT_CHUNK_SIZE);
+        } else {
+            pool = new ForkJoinPool(threads);
+            loader = new ParallelCsvLoader(pool, 0, ParallelCsvLoader.DEFAULT_CHUNK_SIZE);
+        }
+        taskDataAccess.setParallelLoader(loader);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public List<Task> findAllTasks() {
+        return taskDataAccess.findAll();
+    }
+
+    @Benchmark
+    public List<Log> findAllLogs() {
+        // 読み込んだログを保持しないよう、毎回新しいインスタンスで全体を解析する
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile);
+        logDataAccess.setParallelLoader(loader);
+        return logDataAccess.findAll();
+    }
+}
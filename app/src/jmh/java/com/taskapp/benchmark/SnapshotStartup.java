@@ -0,0 +1,84 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.taskapp.dataaccess.DataSnapshot;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.User;
+
+/**
+ * 起動直後にログインし、最初のページと列形式の表を読み込むまでの時間を、
+ * CSVから読み込む場合と{@link DataSnapshot}から復元する場合とで比較して出力します。
+ * 各回は新しいデータアクセスを作成して計測します。
+ *
+ * <p>引数はタスク数、ユーザー数、繰り返し回数です（省略時は1000000、1000、5）。</p>
+ */
+public final class SnapshotStartup {
+    private SnapshotStartup() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Path dir = Files.createTempDirectory("snapshot-startup");
+        try {
+            Path usersPath = dir.resolve("users.csv");
+            Path tasksPath = dir.resolve("tasks.csv");
+            Path snapshotPath = dir.resolve("taskapp.snapshot");
+            try (BufferedWriter writer = Files.newBufferedWriter(usersPath)) {
+                writer.write("Code,Name,Email,Password\n");
+                for (int i = 1; i <= userCount; i++) {
+                    writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+                }
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tasksPath)) {
+                writer.write("code,name,status,repUserCode\n");
+                for (int i = 1; i <= taskCount; i++) {
+                    writer.write(i + ",task" + (i % 5000) + "," + (i % 3) + "," + (1 + i % userCount) + "\n");
+                }
+            }
+            UserDataAccess users = new UserDataAccess(usersPath.toString());
+            long start = System.nanoTime();
+            new DataSnapshot(snapshotPath.toString(), users, new TaskDataAccess(tasksPath.toString(), users)).write();
+            System.out.printf("snapshot written in %.1f ms (%.1f MB)%n", (System.nanoTime() - start) / 1e6,
+                Files.size(snapshotPath) / 1e6);
+
+            for (int round = 0; round < rounds; round++) {
+                double csv = startup(usersPath, tasksPath, null);
+                double snapshot = startup(usersPath, tasksPath, snapshotPath);
+                System.out.printf("round %d: csv=%.1f ms snapshot=%.1f ms%n", round + 1, csv, snapshot);
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static double startup(Path usersPath, Path tasksPath, Path snapshotPath) {
+        long start = System.nanoTime();
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath.toString());
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath.toString(), userDataAccess);
+        if (snapshotPath != null
+                && new DataSnapshot(snapshotPath.toString(), userDataAccess, taskDataAccess).restore()
+                    != DataSnapshot.Result.RESTORED) {
+            throw new IllegalStateException("スナップショットを復元できません");
+        }
+        User user = userDataAccess.findByEmailAndPassword("user1@example.com", "password1");
+        int rows = taskDataAccess.findPage(0, 20).getTasks().size() + taskDataAccess.loadTable().size()
+            + (user == null ? 0 : 1);
+        double millis = (System.nanoTime() - start) / 1e6;
+        if (rows < 0) {
+            System.out.println();
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,100 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.exception.AppException;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.model.TaskPage;
+import com.taskapp.model.User;
+
+/**
+ * TaskLogicの一覧表示・登録・ステータス変更をCSVの読み書きまで含めて計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskLogicBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private WorkingCopy workingCopy;
+    private TaskLogic taskLogic;
+    private User loginUser;
+    private PrintStream originalOut;
+    private int users;
+    private int saved;
+    private int transitions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        Path dir = workingCopy.dir();
+        users = BenchmarkData.userCount(rows);
+        UserDataAccess userDataAccess = new UserDataAccess(dir.resolve("users.csv").toString());
+        TaskDataAccess taskDataAccess = new TaskDataAccess(dir.resolve("tasks.csv").toString(), userDataAccess);
+        LogDataAccess logDataAccess = new LogDataAccess(dir.resolve("logs.csv").toString());
+        taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess);
+        loginUser = userDataAccess.findByCode(1);
+
+        // 一覧表示の出力はコンソールではなく破棄する
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public void showAll() {
+        taskLogic.showAll(loginUser);
+    }
+
+    @Benchmark
+    public TaskPage showPage() {
+        // ファイルの中ほどのページを表示する
+        return taskLogic.showPage(loginUser, rows / 2, 20, rows / 2 + 1);
+    }
+
+    @Benchmark
+    public void save() throws AppException {
+        saved++;
+        taskLogic.save(rows + saved, "bench" + saved, 1 + saved % users, loginUser);
+    }
+
+    /**
+     * 未着手のタスクを順に着手中・完了へ進めます。
+     * 全タスクが完了になった時点でtasks.csvを未着手の状態に戻します。
+     */
+    @Benchmark
+    public void changeStatus() throws AppException, IOException {
+        if (transitions == rows * 2) {
+            BenchmarkData.writeTasks(workingCopy.dir().resolve("tasks.csv"), rows, users);
+            transitions = 0;
+        }
+        int code = 1 + transitions / 2;
+        int status = transitions % 2 == 0 ? 1 : 2;
+        transitions++;
+        taskLogic.changeStatus(code, status, loginUser);
+    }
+}
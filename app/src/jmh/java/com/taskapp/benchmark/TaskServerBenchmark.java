@@ -0,0 +1,105 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.LogWriter;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.logic.UserLogic;
+import com.taskapp.ui.TaskServer;
+
+/**
+ * 多数のクライアントが同時に{@link TaskServer}へ接続し、ログイン・タスクの登録・
+ * ステータスの2回の変更を行う1回のセッションを計測します。
+ * スループットと、応答時間の分布（99パーセンタイルを含む）を出力します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class TaskServerBenchmark {
+    @Param({ "1000" })
+    public int rows;
+
+    private WorkingCopy workingCopy;
+    private LogDataAccess logDataAccess;
+    private TaskServer server;
+    private int users;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(rows);
+        Path dir = workingCopy.dir();
+        users = BenchmarkData.userCount(rows);
+        String logsPath = dir.resolve("logs.csv").toString();
+        UserDataAccess userDataAccess = new UserDataAccess(dir.resolve("users.csv").toString());
+        TaskDataAccess taskDataAccess = new TaskDataAccess(dir.resolve("tasks.csv").toString(), userDataAccess, true);
+        logDataAccess = new LogDataAccess(logsPath, new LogWriter(logsPath, LogWriter.Durability.PER_BATCH, 0, 4096));
+        TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess, true);
+        server = new TaskServer(0, new UserLogic(userDataAccess), taskLogic);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        logDataAccess.close();
+        workingCopy.close();
+    }
+
+    /**
+     * 新しく接続したクライアントで、登録したタスクを未着手から完了まで進めます。
+     */
+    @Benchmark
+    public String session() throws IOException {
+        int n = created.incrementAndGet();
+        int code = rows + n;
+        int user = 1 + n % users;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            PrintWriter out = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String[] commands = {
+                "LOGIN user" + user + "@example.com password" + user,
+                "CREATE " + code + " " + user + " t" + n,
+                "STATUS " + code + " 1",
+                "STATUS " + code + " 2",
+            };
+            String response = null;
+            for (String command : commands) {
+                out.println(command);
+                response = in.readLine();
+                if (response == null || !response.startsWith("OK")) {
+                    throw new IllegalStateException(command + " -> " + response);
+                }
+            }
+            return response;
+        }
+    }
+}
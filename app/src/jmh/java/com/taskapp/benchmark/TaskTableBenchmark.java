@@ -0,0 +1,110 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.TaskTable;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.Task;
+
+/**
+ * タスクの集計と絞り込みについて、{@link TaskDataAccess#findAll()}の結果をストリームで処理する場合と、
+ * {@link TaskTable}の列を走査する場合とを比較します。
+ * load系は読み込みの時間を、scan系は読み込み済みのデータに対する処理の時間を計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskTableBenchmark {
+    private static final int USERS = 1_000;
+
+    @Param({ "100000", "1000000" })
+    public int rows;
+
+    private Path dir;
+    private TaskDataAccess taskDataAccess;
+    private List<Task> tasks;
+    private TaskTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("task-table");
+        Path usersPath = dir.resolve("users.csv");
+        Path tasksPath = dir.resolve("tasks.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(usersPath)) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= USERS; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(tasksPath)) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= rows; i++) {
+                writer.write(i + ",task" + (i % 50) + "," + (i % 3) + "," + (1 + i % USERS) + "\n");
+            }
+        }
+        taskDataAccess = new TaskDataAccess(tasksPath.toString(), new UserDataAccess(usersPath.toString()));
+        tasks = taskDataAccess.findAll();
+        table = taskDataAccess.loadTable();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public List<Task> loadFindAll() {
+        return taskDataAccess.findAll();
+    }
+
+    @Benchmark
+    public TaskTable loadTable() {
+        return taskDataAccess.loadTable();
+    }
+
+    @Benchmark
+    public long scanCountByStatusStream() {
+        return tasks.stream().filter(task -> task.getStatus() == 1).count();
+    }
+
+    @Benchmark
+    public int scanCountByStatusTable() {
+        return table.countByStatus(1);
+    }
+
+    @Benchmark
+    public int scanFilterByRepUserStream() {
+        return tasks.stream().filter(task -> task.getRepUser().getCode() == 7).mapToInt(Task::getCode).sum();
+    }
+
+    @Benchmark
+    public int scanFilterByRepUserTable() {
+        int sum = 0;
+        for (int row : table.filterByRepUser(7)) {
+            sum += table.code(row);
+        }
+        return sum;
+    }
+}
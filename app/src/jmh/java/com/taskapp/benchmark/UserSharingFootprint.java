@@ -0,0 +1,85 @@
+package com.taskapp.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+/**
+ * {@link TaskDataAccess#findAll()}の結果が保持するヒープの量を、
+ * 担当ユーザーを共有する場合と、行ごとにユーザーを作成した場合とで比較して出力します。
+ * 行ごとの作成は、タスクとユーザーの各項目を行ごとに別のインスタンスとして持つことで再現します。
+ *
+ * <p>引数はタスク数とユーザー数です（省略時は1000000と1000）。</p>
+ */
+public final class UserSharingFootprint {
+    private UserSharingFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Path dir = Files.createTempDirectory("user-sharing");
+        try {
+            Path usersPath = dir.resolve("users.csv");
+            Path tasksPath = dir.resolve("tasks.csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(usersPath)) {
+                writer.write("Code,Name,Email,Password\n");
+                for (int i = 1; i <= userCount; i++) {
+                    writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+                }
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tasksPath)) {
+                writer.write("code,name,status,repUserCode\n");
+                for (int i = 1; i <= taskCount; i++) {
+                    writer.write(i + ",task" + i + "," + (i % 3) + "," + (1 + i % userCount) + "\n");
+                }
+            }
+            TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath.toString(),
+                new UserDataAccess(usersPath.toString()));
+
+            long base = usedHeap();
+            List<Task> shared = taskDataAccess.findAll();
+            long sharedBytes = usedHeap() - base;
+
+            List<Task> perRow = new ArrayList<>(shared.size());
+            for (Task task : shared) {
+                User user = task.getRepUser();
+                perRow.add(new Task(task.getCode(), new String(task.getName()), task.getStatus(),
+                    new User(user.getCode(), new String(user.getName()), new String(user.getEmail()),
+                        new String(user.getPassword()))));
+            }
+            long perRowBytes = usedHeap() - base - sharedBytes;
+
+            System.out.printf("tasks=%d users=%d shared=%.1f MB per-row=%.1f MB (reduction %.1f MB, %.0f%%)%n",
+                taskCount, userCount, sharedBytes / 1e6, perRowBytes / 1e6, (perRowBytes - sharedBytes) / 1e6,
+                100.0 * (perRowBytes - sharedBytes) / perRowBytes);
+            // 計測が終わるまで結果を回収させない
+            if (shared.size() + perRow.size() < 0) {
+                System.out.println();
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
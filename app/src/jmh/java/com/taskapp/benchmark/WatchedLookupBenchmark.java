@@ -0,0 +1,61 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.taskapp.dataaccess.DataFileWatcher;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.User;
+
+/**
+ * ユーザーの検索を、ファイルを監視している場合と参照のたびにファイルの属性を読む場合で比較します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WatchedLookupBenchmark {
+    @Param({ "false", "true" })
+    public boolean watched;
+
+    private WorkingCopy workingCopy;
+    private DataFileWatcher watcher;
+    private UserDataAccess userDataAccess;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workingCopy = WorkingCopy.of(10_000);
+        userDataAccess = new UserDataAccess(workingCopy.dir().resolve("users.csv").toString());
+        TaskDataAccess taskDataAccess = new TaskDataAccess(workingCopy.dir().resolve("tasks.csv").toString(),
+            userDataAccess);
+        if (watched) {
+            watcher = new DataFileWatcher(userDataAccess, taskDataAccess, DataFileWatcher.DEFAULT_DEBOUNCE_MILLIS);
+            watcher.start();
+        }
+        userDataAccess.findByCode(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+        workingCopy.close();
+    }
+
+    @Benchmark
+    public User findByCode() {
+        return userDataAccess.findByCode(1);
+    }
+}
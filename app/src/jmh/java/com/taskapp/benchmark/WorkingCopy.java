@@ -0,0 +1,46 @@
+package com.taskapp.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 生成済みのデータを一時ディレクトリへ複製し、ベンチマーク中の書き込みが元データに残らないようにします。
+ */
+final class WorkingCopy implements AutoCloseable {
+    private final Path dir;
+
+    private WorkingCopy(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * 指定した行数のデータを複製します。
+     * @param rows タスク・ログの行数
+     * @return 複製したデータ
+     * @throws IOException 複製に失敗した場合
+     */
+    static WorkingCopy of(int rows) throws IOException {
+        Path source = BenchmarkData.prepare(rows);
+        Path dir = Files.createTempDirectory("taskapp-bench-" + rows + "-");
+        for (String name : new String[] { "users.csv", "tasks.csv", "logs.csv" }) {
+            Files.copy(source.resolve(name), dir.resolve(name));
+        }
+        return new WorkingCopy(dir);
+    }
+
+    Path dir() {
+        return dir;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -1,12 +1,143 @@
 package com.taskapp;
 
+import java.io.IOException;
+
+import com.taskapp.dataaccess.DataFileWatcher;
+import com.taskapp.dataaccess.DataSnapshot;
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.exception.AppException;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.logic.UserLogic;
+import com.taskapp.model.User;
+import com.taskapp.ui.TaskServer;
 import com.taskapp.ui.TaskUI;
 
 
 public class App {
+    private static final String TASKS_FILE = "app/src/main/resources/tasks.csv";
+    private static final String LOGS_FILE = "app/src/main/resources/logs.csv";
+    private static final String SNAPSHOT_FILE = "app/src/main/resources/taskapp.snapshot";
+    private static final int DEFAULT_PORT = 5000;
 
+    /**
+     * 引数がない場合はコンソールで1人のユーザーの操作を受け付けます。
+     * {@code server [port]}を指定した場合は、複数の接続を受け付けるサーバーとして起動します。
+     * {@code import <csv> <email> <password>}を指定した場合は、CSVファイルのタスクをまとめて登録します。
+     * コンソールとサーバーでは、起動時にスナップショットが有効であれば復元し、終了時に書き出します。
+     *
+     * @param args 起動引数
+     */
     public static void main(String[] args) {
-        TaskUI ui = new TaskUI();
+        if (args.length > 0 && args[0].equals("server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            startServer(port);
+            return;
+        }
+        if (args.length == 4 && args[0].equals("import")) {
+            importTasks(args[1], args[2], args[3]);
+            return;
+        }
+        UserDataAccess userDataAccess = new UserDataAccess();
+        TaskDataAccess taskDataAccess = new TaskDataAccess(TASKS_FILE, userDataAccess);
+        DataSnapshot snapshot = new DataSnapshot(SNAPSHOT_FILE, userDataAccess, taskDataAccess);
+        restoreSnapshot(snapshot);
+        TaskUI ui = new TaskUI(new UserLogic(userDataAccess),
+            new TaskLogic(taskDataAccess, new LogDataAccess(LOGS_FILE), userDataAccess));
         ui.displayMenu();
+        writeSnapshot(snapshot);
+    }
+
+    /**
+     * スナップショットを復元します。
+     * 壊れている場合や読み込めない場合はその旨を表示し、CSVから読み込みます。
+     *
+     * @param snapshot 復元するスナップショット
+     */
+    private static void restoreSnapshot(DataSnapshot snapshot) {
+        DataSnapshot.Result result = snapshot.restore();
+        if (result == DataSnapshot.Result.INVALID) {
+            System.out.println("スナップショットが壊れているため、CSVファイルから読み込みます");
+        } else if (result == DataSnapshot.Result.FAILED) {
+            System.out.println("スナップショットを読み込めないため、CSVファイルから読み込みます");
+        }
+    }
+
+    /**
+     * スナップショットを書き出します。書き出せなかった場合はその旨を表示します。
+     *
+     * @param snapshot 書き出すスナップショット
+     */
+    private static void writeSnapshot(DataSnapshot snapshot) {
+        if (snapshot.write() == DataSnapshot.Result.FAILED) {
+            System.out.println("スナップショットを書き出せませんでした。次回の起動時はCSVファイルから読み込みます");
+        }
+    }
+
+    /**
+     * 指定したユーザーでログインし、CSVファイルのタスクをまとめて登録します。
+     *
+     * @param filePath 取り込むCSVファイルのパス
+     * @param email メールアドレス
+     * @param password パスワード
+     */
+    private static void importTasks(String filePath, String email, String password) {
+        UserDataAccess userDataAccess = new UserDataAccess();
+        TaskLogic taskLogic = new TaskLogic(new TaskDataAccess(TASKS_FILE, userDataAccess),
+            new LogDataAccess(LOGS_FILE), userDataAccess);
+        try {
+            // ログインに失敗した場合はUserLogicがメッセージを表示する
+            User loginUser = new UserLogic(userDataAccess).login(email, password);
+            if (loginUser == null) {
+                return;
+            }
+            int count = taskLogic.importCsv(filePath, loginUser);
+            System.out.println(count + "件のタスクを登録しました");
+        } catch (AppException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * サーバーを起動し、プロセスが終了するまで接続を受け付けます。
+     * タスクとログの変更は1つの先行書き込みログに記録し、変更ごとに1回だけ同期します。
+     * CSVファイルへは溜まった記録をまとめて反映します。
+     * ユーザーとタスクのファイルは監視し、稼働中に手作業で修正された内容も反映します。
+     *
+     * @param port 待ち受けるポート番号
+     */
+    private static void startServer(int port) {
+        try {
+            UserDataAccess userDataAccess = new UserDataAccess();
+            LogDataAccess logDataAccess = new LogDataAccess(LOGS_FILE);
+            TaskDataAccess taskDataAccess = new TaskDataAccess(TASKS_FILE, userDataAccess, logDataAccess);
+            DataSnapshot snapshot = new DataSnapshot(SNAPSHOT_FILE, userDataAccess, taskDataAccess);
+            restoreSnapshot(snapshot);
+            DataFileWatcher watcher = new DataFileWatcher(userDataAccess, taskDataAccess,
+                DataFileWatcher.DEFAULT_DEBOUNCE_MILLIS);
+            watcher.start();
+            TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess, true);
+
+            taskLogic.loadStatistics();
+
+            TaskServer server = new TaskServer(port, new UserLogic(userDataAccess), taskLogic);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    System.out.println("ファイルの監視を正常に終了できませんでした：" + e.getMessage());
+                }
+                logDataAccess.close();
+                taskDataAccess.compact();
+                taskLogic.saveStatistics();
+                writeSnapshot(snapshot);
+            }));
+            server.start();
+            System.out.println("ポート" + server.getPort() + "で接続を受け付けています");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
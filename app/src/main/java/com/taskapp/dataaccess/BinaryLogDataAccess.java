@@ -0,0 +1,308 @@
+package com.taskapp.dataaccess;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.taskapp.model.Log;
+import com.taskapp.util.LogAppendEvent;
+
+/**
+ * ログを固定長のバイナリ形式で保存するデータアクセスです。
+ *
+ * <p>ファイルの先頭に8バイトのヘッダー（マジックナンバー{@code TLOG}とバージョン番号）を持ち、
+ * その後に1件13バイトのレコードが続きます。</p>
+ * <ul>
+ *   <li>taskCode: int（4バイト）</li>
+ *   <li>changeUserCode: int（4バイト）</li>
+ *   <li>status: byte（1バイト）</li>
+ *   <li>changeDate: エポック日数のint（4バイト）</li>
+ * </ul>
+ */
+public class BinaryLogDataAccess extends LogDataAccess {
+    static final int MAGIC = 0x544C4F47; // "TLOG"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 13;
+
+    /** 一度に読み込むレコード数 */
+    private static final int READ_BATCH = 8192;
+
+    private final Path path;
+
+    public BinaryLogDataAccess(String filePath) {
+        super(filePath, null, null, null);
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * ログを1件のレコードとして追記します。ファイルが存在しない場合はヘッダーを書き込んで作成します。
+     *
+     * @param log 保存するログ
+     * @return 書き込みが完了したハンドル
+     */
+    @Override
+    public CompletableFuture<Void> save(Log log) {
+        long start = SAVE.start();
+        LogAppendEvent event = new LogAppendEvent();
+        event.begin();
+        try (FileChannel channel = openForAppend(path)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            putRecord(record, log);
+            record.flip();
+            writeFully(channel, record);
+            SAVE.addRows(1);
+            SAVE.addBytesWritten(RECORD_SIZE);
+            if (event.shouldCommit()) {
+                event.set("save", path.toString(), 1, RECORD_SIZE);
+                event.commit();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            SAVE.stop(start);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 複数のログをレコードとしてまとめて追記します。
+     *
+     * @param logs 保存するログ
+     * @return 書き込みが完了したハンドル
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Iterable<Log> logs) {
+        long start = SAVE_ALL.start();
+        LogAppendEvent event = new LogAppendEvent();
+        event.begin();
+        long rows = 0;
+        try (FileChannel channel = openForAppend(path)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * READ_BATCH);
+            for (Log log : logs) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                putRecord(buffer, log);
+                SAVE_ALL.addRows(1);
+                SAVE_ALL.addBytesWritten(RECORD_SIZE);
+                rows++;
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+            if (event.shouldCommit()) {
+                event.set("saveAll", path.toString(), rows, rows * RECORD_SIZE);
+                event.commit();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            SAVE_ALL.stop(start);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * ログファイルを開き、レコードをまとめてバッファに読み込みながら1件ずつ復元するストリームを作成します。
+     *
+     * @return ログのストリーム
+     * @throws IOException ファイルを開けない場合、またはヘッダーが不正な場合
+     */
+    @Override
+    protected Stream<Log> openStream() throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        long records;
+        try {
+            readHeader(channel);
+            records = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        Spliterator<Log> logs = new Spliterators.AbstractSpliterator<Log>(records,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * READ_BATCH).limit(0);
+            private long position = HEADER_SIZE;
+            private long remaining = records;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Log> action) {
+                if (!buffer.hasRemaining()) {
+                    if (remaining == 0) {
+                        return false;
+                    }
+                    fill();
+                }
+                action.accept(getRecord(buffer));
+                return true;
+            }
+
+            private void fill() {
+                int batch = (int) Math.min(remaining, READ_BATCH);
+                buffer.clear().limit(batch * RECORD_SIZE);
+                try {
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, position + buffer.position()) < 0) {
+                            throw new IOException("ログファイルが途中で終わっています: " + path);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer.flip();
+                position += (long) batch * RECORD_SIZE;
+                remaining -= batch;
+            }
+        };
+        return StreamSupport.stream(logs, false).onClose(() -> closeQuietly(channel));
+    }
+
+    /**
+     * 指定したタスクコードのログを記録順に取得します。
+     * バイナリ形式では索引を持たず、全レコードを順に読み込んで絞り込みます。
+     *
+     * @param taskCode タスクコード
+     * @return 該当するログのリスト
+     */
+    @Override
+    public List<Log> findByTaskCode(int taskCode) {
+        long start = FIND_BY_TASK_CODE.start();
+        try (Stream<Log> logs = stream()) {
+            List<Log> result = logs.filter(log -> log.getTaskCode() == taskCode)
+                .collect(Collectors.toCollection(ArrayList::new));
+            FIND_BY_TASK_CODE.addRows(result.size());
+            return result;
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_BY_TASK_CODE.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * CSV形式のログファイルをバイナリ形式に変換します。出力先は上書きされます。
+     *
+     * @param csvFilePath 変換元のCSVファイルのパス
+     * @param binaryFilePath 出力先のバイナリファイルのパス
+     */
+    public static void importCsv(String csvFilePath, String binaryFilePath) {
+        Path binaryPath = Paths.get(binaryFilePath);
+        try (MappedCsvReader reader = MappedCsvReader.open(csvFilePath);
+                FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * READ_BATCH);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            reader.next();
+
+            while (reader.next()) {
+                if (reader.fieldCount() == 4) {
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        buffer.flip();
+                        writeFully(channel, buffer);
+                        buffer.clear();
+                    }
+                    buffer.putInt(reader.getInt(0))
+                        .putInt(reader.getInt(1))
+                        .put((byte) reader.getInt(2))
+                        .putInt((int) reader.getDate(3).toEpochDay());
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * バイナリ形式のログファイルをCSV形式に変換します。出力先は上書きされます。
+     *
+     * @param binaryFilePath 変換元のバイナリファイルのパス
+     * @param csvFilePath 出力先のCSVファイルのパス
+     */
+    public static void exportCsv(String binaryFilePath, String csvFilePath) {
+        List<Log> logs = new BinaryLogDataAccess(binaryFilePath).findAll();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvFilePath, StandardCharsets.UTF_8))) {
+            writer.write("Task_Code,Change_User_Code,Status,Change_Date");
+            writer.newLine();
+            for (Log log : logs) {
+                writer.write(log.getTaskCode() + "," + log.getChangeUserCode() + ","
+                    + log.getStatus() + "," + log.getChangeDate());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static FileChannel openForAppend(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            writeFully(channel, header);
+        }
+        return channel;
+    }
+
+    private static void readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("ログファイルのヘッダーが不正です");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("バイナリ形式のログファイルではありません");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("対応していないログファイルのバージョンです: " + version);
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, Log log) {
+        buffer.putInt(log.getTaskCode())
+            .putInt(log.getChangeUserCode())
+            .put((byte) log.getStatus())
+            .putInt((int) log.getChangeDate().toEpochDay());
+    }
+
+    private static Log getRecord(ByteBuffer buffer) {
+        int taskCode = buffer.getInt();
+        int changeUserCode = buffer.getInt();
+        int status = buffer.get();
+        LocalDate changeDate = LocalDate.ofEpochDay(buffer.getInt());
+        return new Log(taskCode, changeUserCode, status, changeDate);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.taskapp.dataaccess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ユーザーとタスクのCSVがあるディレクトリを{@link WatchService}で監視し、
+ * 外部から変更されたファイルに対応するデータアクセスのキャッシュを無効にします。
+ *
+ * <p>監視している間、{@link UserDataAccess}のユーザーの索引と{@link TaskDataAccess}の行の位置の索引・
+ * 復元した表は、参照のたびにファイルの属性を読まずに保持している内容を返します。
+ * 変更の通知を受けると、次の参照で一度だけファイルの状態を確認し、変わっていれば読み込み直します。
+ * 連続した書き込みでは通知が続くため、最後の通知から一定時間経ってから無効にします。
+ * ただし通知が続く場合でも、最初の通知から待ち時間の10倍を超えては待ちません。</p>
+ *
+ * <p>タスクのデータアクセス自身の書き込みは通知を待たずに反映します。
+ * 監視しているディレクトリが削除された場合や監視を終了した場合は、参照のたびに確認する動作に戻ります。</p>
+ */
+public class DataFileWatcher implements Closeable {
+    /** 最後の通知からキャッシュを無効にするまでの待ち時間の既定値（ミリ秒） */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    /** 監視するファイルの絶対パスと、そのファイルのキャッシュ */
+    private final Map<Path, Target> targets = new HashMap<>();
+
+    private WatchService service;
+    private Thread thread;
+
+    /**
+     * @param userDataAccess ユーザーのファイルを監視するデータアクセス
+     * @param taskDataAccess タスクのファイルを監視するデータアクセス
+     * @param debounceMillis 最後の通知からキャッシュを無効にするまでの待ち時間（ミリ秒）
+     */
+    public DataFileWatcher(UserDataAccess userDataAccess, TaskDataAccess taskDataAccess, long debounceMillis) {
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(debounceMillis, 0));
+        this.maxDelayNanos = debounceNanos * 10;
+        UserDirectory directory = userDataAccess.directory();
+        addTarget(userDataAccess.filePath(), directory::invalidate, directory::watch);
+        addTarget(taskDataAccess.filePath(), taskDataAccess::invalidate, taskDataAccess::watch);
+    }
+
+    private void addTarget(String filePath, Runnable invalidate, Consumer<Boolean> watch) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        targets.put(path, new Target(path, invalidate, watch));
+    }
+
+    /**
+     * 監視を開始します。
+     * ディレクトリを登録してからキャッシュを監視中に切り替えるため、開始前の変更も次の参照で確認されます。
+     *
+     * @throws IOException ディレクトリを監視できない場合
+     * @throws IllegalStateException すでに開始している場合
+     */
+    public synchronized void start() throws IOException {
+        if (service != null) {
+            throw new IllegalStateException("ファイルの監視はすでに開始しています");
+        }
+        service = FileSystems.getDefault().newWatchService();
+        try {
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Target target : targets.values()) {
+                directories.add(target.path.getParent());
+            }
+            for (Path directory : directories) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            service.close();
+            service = null;
+            throw e;
+        }
+        for (Target target : targets.values()) {
+            target.watch.accept(true);
+        }
+        WatchService watching = service;
+        thread = new Thread(() -> run(watching), "data-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 監視を終了し、各キャッシュを参照のたびにファイルの状態を確認する動作に戻します。
+     * 監視サービスを閉じられなかった場合も、キャッシュの動作を戻して監視のスレッドを終了させてから例外を投げます。
+     *
+     * @throws IOException 監視サービスを閉じられなかった場合
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (service == null) {
+            return;
+        }
+        for (Target target : targets.values()) {
+            target.watch.accept(false);
+        }
+        IOException failure = null;
+        try {
+            service.close();
+        } catch (IOException e) {
+            // 閉じられなかった監視サービスで待ち続けないよう、スレッドに割り込む
+            failure = e;
+            thread.interrupt();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        service = null;
+        thread = null;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 通知を受け取り、待ち時間が経過したファイルのキャッシュを無効にします。
+     */
+    private void run(WatchService watching) {
+        Set<Target> pending = new LinkedHashSet<>();
+        long first = 0;
+        long last = 0;
+        try {
+            while (true) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watching.take();
+                } else {
+                    long wait = Math.min(last + debounceNanos, first + maxDelayNanos) - System.nanoTime();
+                    key = wait > 0 ? watching.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (key == null) {
+                        for (Target target : pending) {
+                            target.invalidate.run();
+                        }
+                        pending.clear();
+                        continue;
+                    }
+                }
+                Path directory = (Path) key.watchable();
+                List<Target> changed = changedTargets(directory, key.pollEvents());
+                if (!changed.isEmpty()) {
+                    last = System.nanoTime();
+                    if (pending.isEmpty()) {
+                        first = last;
+                    }
+                    pending.addAll(changed);
+                }
+                if (!key.reset()) {
+                    // ディレクトリを監視できなくなったため、参照のたびに確認する動作に戻す
+                    for (Target target : targets.values()) {
+                        if (target.path.getParent().equals(directory)) {
+                            target.watch.accept(false);
+                            pending.remove(target);
+                        }
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closeで監視を終了した
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 通知の内容から、変更されたファイルのキャッシュを求めます。
+     * 通知が溢れた場合は、ディレクトリ内の全てのファイルが変更されたものとします。
+     */
+    private List<Target> changedTargets(Path directory, List<WatchEvent<?>> events) {
+        List<Target> changed = new ArrayList<>();
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                for (Target target : targets.values()) {
+                    if (target.path.getParent().equals(directory)) {
+                        changed.add(target);
+                    }
+                }
+                continue;
+            }
+            Target target = targets.get(directory.resolve((Path) event.context()));
+            if (target != null) {
+                changed.add(target);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 監視するファイルと、そのファイルを保持しているキャッシュです。
+     */
+    private static final class Target {
+        private final Path path;
+        private final Runnable invalidate;
+        private final Consumer<Boolean> watch;
+
+        private Target(Path path, Runnable invalidate, Consumer<Boolean> watch) {
+            this.path = path;
+            this.invalidate = invalidate;
+            this.watch = watch;
+        }
+    }
+}
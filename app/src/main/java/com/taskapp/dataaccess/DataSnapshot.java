@@ -0,0 +1,237 @@
+package com.taskapp.dataaccess;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+
+/**
+ * ユーザーの索引、タスクの行位置の索引、タスクの列形式の表を1つのバイナリファイルに書き出し、
+ * 起動時にCSVを解析せずに復元するためのスナップショットです。
+ *
+ * <p>ファイルは24バイトのヘッダー（識別子、版、本体の長さ、本体のCRC32C）と本体からなります。
+ * 本体の先頭には書き出したときのユーザーとタスクのファイルのサイズと更新日時を記録し、
+ * 復元時にいずれかが異なる場合や、ヘッダーの検証に失敗した場合はスナップショットを利用しません。
+ * その場合は各クラスが通常どおりCSVから読み込みます。
+ * 書き出し・復元の結果は{@link Result}で返すため、呼び出し側はスナップショットが壊れている場合などを区別できます。</p>
+ *
+ * <p>ログの索引は{@link LogIndex}が独自の索引ファイルとして保存しているため、ここには含めません。</p>
+ */
+public class DataSnapshot {
+    /** ファイルの識別子（"TSNP"） */
+    static final int MAGIC = 0x54534E50;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * スナップショットの書き出し・復元の結果です。
+     */
+    public enum Result {
+        /** 書き出した */
+        WRITTEN,
+        /** 復元した */
+        RESTORED,
+        /** スナップショットのファイルがないため復元しなかった */
+        MISSING,
+        /** ユーザーまたはタスクのファイルがスナップショットと異なる、または書き出している間に変更された */
+        STALE,
+        /** スナップショットが壊れている、途中までしか書かれていない、または版が異なる */
+        INVALID,
+        /** ファイルの読み書きに失敗した */
+        FAILED
+    }
+
+    private final Path path;
+    private final UserDataAccess userDataAccess;
+    private final TaskDataAccess taskDataAccess;
+
+    /**
+     * @param snapshotPath スナップショットのファイルのパス
+     * @param userDataAccess 書き出し・復元の対象とするユーザーのデータアクセス
+     * @param taskDataAccess 書き出し・復元の対象とするタスクのデータアクセス
+     */
+    public DataSnapshot(String snapshotPath, UserDataAccess userDataAccess, TaskDataAccess taskDataAccess) {
+        this.path = Paths.get(snapshotPath);
+        this.userDataAccess = userDataAccess;
+        this.taskDataAccess = taskDataAccess;
+    }
+
+    /**
+     * 現在のデータをスナップショットに書き出します。
+     * 一時ファイルに書き出してから置き換えるため、途中で失敗しても既存のスナップショットは壊れません。
+     * 書き出している間にユーザーまたはタスクのファイルが変更された場合は、置き換えずに終了します。
+     *
+     * @return 書き出した場合は{@link Result#WRITTEN}、変更されたため置き換えなかった場合は{@link Result#STALE}、
+     *         書き込みに失敗した場合は{@link Result#FAILED}
+     */
+    public Result write() {
+        Path tmp = Paths.get(path + ".tmp");
+        try {
+            Sources before = Sources.current(userDataAccess, taskDataAccess);
+            long bodyLength;
+            CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.position(HEADER_SIZE);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+                before.writeTo(out);
+                userDataAccess.directory().writeTo(out);
+                taskDataAccess.rowIndex().writeTo(out);
+                taskDataAccess.loadTable().writeTo(out);
+                out.flush();
+                bodyLength = out.size();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(bodyLength).putLong(crc.getValue()).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            if (!before.equals(Sources.current(userDataAccess, taskDataAccess))) {
+                Files.delete(tmp);
+                return Result.STALE;
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Result.WRITTEN;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Result.FAILED;
+        }
+    }
+
+    /**
+     * スナップショットを検証し、ユーザーとタスクのファイルが書き出したときのままであれば復元します。
+     * 復元した内容は、以降の読み込みでファイルが変更されていないことを確認できる間だけ利用されます。
+     * 復元しなかった場合は何も変更しないため、各クラスは通常どおりCSVから読み込みます。
+     *
+     * @return 復元した場合は{@link Result#RESTORED}。ファイルがない場合は{@link Result#MISSING}、
+     *         ユーザーまたはタスクのファイルが変更されている場合は{@link Result#STALE}、
+     *         検証に失敗した場合は{@link Result#INVALID}、読み込みに失敗した場合は{@link Result#FAILED}
+     */
+    public Result restore() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return Result.INVALID;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Result.INVALID;
+            }
+            long bodyLength = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (bodyLength != fileSize - HEADER_SIZE) {
+                return Result.INVALID;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                return Result.INVALID;
+            }
+
+            Sources sources = Sources.readFrom(buffer);
+            if (!sources.equals(Sources.current(userDataAccess, taskDataAccess))) {
+                return Result.STALE;
+            }
+            UserDirectory directory = userDataAccess.directory();
+            directory.restore(buffer, sources.usersSize, sources.usersModified);
+            taskDataAccess.rowIndex().restore(buffer, sources.tasksSize, sources.tasksModified);
+            IntObjectMap<User> users = userDataAccess.findAllAsTable();
+            taskDataAccess.restoreTable(TaskTable.readFrom(buffer, users), sources.taskVersion);
+            return Result.RESTORED;
+        } catch (NoSuchFileException e) {
+            return Result.MISSING;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Result.FAILED;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return Result.INVALID;
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * スナップショットの元になったファイルの状態です。
+     */
+    private static final class Sources {
+        private final long usersSize;
+        private final long usersModified;
+        private final long tasksSize;
+        private final long tasksModified;
+        /** ジャーナルを含めたタスクのファイルの状態 */
+        private final String taskVersion;
+
+        private Sources(long usersSize, long usersModified, long tasksSize, long tasksModified,
+                String taskVersion) {
+            this.usersSize = usersSize;
+            this.usersModified = usersModified;
+            this.tasksSize = tasksSize;
+            this.tasksModified = tasksModified;
+            this.taskVersion = taskVersion;
+        }
+
+        static Sources current(UserDataAccess userDataAccess, TaskDataAccess taskDataAccess) throws IOException {
+            Path users = Paths.get(userDataAccess.filePath());
+            Path tasks = Paths.get(taskDataAccess.filePath());
+            return new Sources(Files.size(users), Files.getLastModifiedTime(users).toMillis(),
+                Files.size(tasks), Files.getLastModifiedTime(tasks).toMillis(), taskDataAccess.version());
+        }
+
+        static Sources readFrom(ByteBuffer in) {
+            return new Sources(in.getLong(), in.getLong(), in.getLong(), in.getLong(), readString(in));
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(usersSize);
+            out.writeLong(usersModified);
+            out.writeLong(tasksSize);
+            out.writeLong(tasksModified);
+            writeString(out, taskVersion);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Sources)) {
+                return false;
+            }
+            Sources other = (Sources) obj;
+            return usersSize == other.usersSize && usersModified == other.usersModified
+                && tasksSize == other.tasksSize && tasksModified == other.tasksModified
+                && taskVersion.equals(other.taskVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(usersSize ^ tasksSize) ^ taskVersion.hashCode();
+        }
+    }
+}
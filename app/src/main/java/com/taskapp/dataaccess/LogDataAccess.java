@@ -1,22 +1,51 @@
 package com.taskapp.dataaccess;
 import com.taskapp.model.Log;
+import com.taskapp.util.LogAppendEvent;
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
+import java.io.Closeable;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class LogDataAccess {
+    // 形式ごとのサブクラスも同じ計測値に記録する
+    static final OperationMetrics SAVE = Metrics.operation("LogDataAccess.save");
+    static final OperationMetrics SAVE_ALL = Metrics.operation("LogDataAccess.saveAll");
+    static final OperationMetrics FIND_ALL = Metrics.operation("LogDataAccess.findAll");
+    static final OperationMetrics FIND_BY_TASK_CODE = Metrics.operation("LogDataAccess.findByTaskCode");
+    static final OperationMetrics FIND_BY_DATE_RANGE = Metrics.operation("LogDataAccess.findByDateRange");
+
     private final String filePath;
+    private final LogWriter logWriter;
+    /** タスクコードごとの行の位置の索引。1つのCSVファイルに保存する場合のみ利用する */
+    private final LogIndex index;
+    /** 読み込んだ全てのログ。追記された分だけを読み足す。1つのCSVファイルに保存する場合のみ利用する */
+    private final LogTail tail;
+    /** タスクと共有する先行書き込みログ。設定されている場合はログのファイルへ直接追記しない */
+    private volatile TaskJournal journal;
+    private volatile ParallelCsvLoader loader = ParallelCsvLoader.DEFAULT;
 
 
     public LogDataAccess() {
-        filePath = "app/src/main/resources/logs.csv";
+        this("app/src/main/resources/logs.csv");
     }
 
     /**
@@ -24,57 +53,414 @@ public class LogDataAccess {
      * @param filePath
      */
     public LogDataAccess(String filePath) {
+        this(filePath, null, new LogIndex(filePath), new LogTail(filePath));
+    }
+
+    /**
+     * 追記を書き込みサービスに任せるインスタンスを作成します。
+     * 書き込みサービスは{@code filePath}と同じファイルに追記するよう作成してください。
+     *
+     * @param filePath ログのCSVファイルのパス
+     * @param logWriter 追記をまとめて行う書き込みサービス
+     */
+    public LogDataAccess(String filePath, LogWriter logWriter) {
+        this(filePath, logWriter, new LogIndex(filePath), new LogTail(filePath));
+    }
+
+    /**
+     * 索引と読み込んだログの保持を指定してインスタンスを作成します。
+     * 形式ごとのサブクラスは、CSVファイル用の索引と保持を持たないよう{@code null}を渡します。
+     *
+     * @param filePath ログのファイルのパス
+     * @param logWriter 追記をまとめて行う書き込みサービス、利用しない場合は{@code null}
+     * @param index タスクコードごとの行の位置の索引、利用しない場合は{@code null}
+     * @param tail 読み込んだログの保持、利用しない場合は{@code null}
+     */
+    LogDataAccess(String filePath, LogWriter logWriter, LogIndex index, LogTail tail) {
         this.filePath = filePath;
+        this.logWriter = logWriter;
+        this.index = index;
+        this.tail = tail;
     }
 
     /**
      * ログをCSVファイルに保存します。
+     * 書き込みサービスを利用する場合は追記を要求するだけで、書き込みの完了を待ちません。
+     * タスクコードごとの索引は、書き込みサービスを利用しない場合は追記の直後に、
+     * 利用する場合は次回の{@link #findByTaskCode(int)}で更新されます。
      *
      * @param log 保存するログ
+     * @return 書き込みサービスの耐久性設定に従って書き込みが完了したときに完了するハンドル
      */
-    public void save(Log log) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
-            // ログをCSV形式で書き込む
-            String line = createLine(log);
-            writer.write(line);
-            writer.newLine();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public CompletableFuture<Void> save(Log log) {
+        long start = SAVE.start();
+        String line = createLine(log);
+        try {
+            if (journal != null) {
+                try {
+                    journal.appendLogs(List.of(line));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return CompletableFuture.failedFuture(e);
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            if (logWriter != null) {
+                return logWriter.append(line);
+            }
+            LogAppendEvent event = new LogAppendEvent();
+            event.begin();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, StandardCharsets.UTF_8, true))) {
+                // ログをCSV形式で書き込む
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return CompletableFuture.failedFuture(e);
+            }
+            if (event.shouldCommit()) {
+                event.set("save", filePath, 1, OperationMetrics.utf8Length(line) + 1);
+                event.commit();
+            }
+            refreshIndex();
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            SAVE.addRows(1);
+            SAVE.addBytesWritten(line, 1);
+            SAVE.stop(start);
+        }
+    }
+
+    /**
+     * 複数のログを1回の書き込みでCSVに追記します。
+     * ログは順に取り出しながら書き込むため、呼び出し側はファイルから読み込みながら渡せます。
+     *
+     * @param logs 保存するログ
+     * @return すべてのログの書き込みが完了したときに完了するハンドル
+     */
+    public CompletableFuture<Void> saveAll(Iterable<Log> logs) {
+        long start = SAVE_ALL.start();
+        Iterable<String> lines = () -> StreamSupport.stream(logs.spliterator(), false)
+            .map(this::createCountedLine)
+            .iterator();
+        try {
+            if (journal != null) {
+                try {
+                    journal.appendLogs(lines);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return CompletableFuture.failedFuture(e);
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            if (logWriter != null) {
+                return logWriter.appendAll(lines);
+            }
+            LogAppendEvent event = new LogAppendEvent();
+            event.begin();
+            boolean traced = event.isEnabled();
+            long rows = 0;
+            long bytes = 0;
+            try (BufferedWriter writer = new BufferedWriter(
+                    new FileWriter(filePath, StandardCharsets.UTF_8, true), 64 * 1024)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                    if (traced) {
+                        rows++;
+                        bytes += OperationMetrics.utf8Length(line) + 1;
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                return CompletableFuture.failedFuture(e);
+            }
+            if (event.shouldCommit()) {
+                event.set("saveAll", filePath, rows, bytes);
+                event.commit();
+            }
+            refreshIndex();
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            SAVE_ALL.stop(start);
+        }
+    }
+
+    /**
+     * タスクと共有する先行書き込みログを設定します。
+     * 以降の保存は先行書き込みログへの追記になり、検索はまだファイルに反映されていないログを含めて行います。
+     *
+     * @param journal ログのファイルへ変更ログを畳み込む先行書き込みログ
+     * @throws IllegalArgumentException 書き込みサービスを利用している場合、または読み込んだログを保持していない場合
+     */
+    void attach(TaskJournal journal) {
+        requireJournalable();
+        this.journal = journal;
+    }
+
+    /**
+     * 先行書き込みログを共有できるかどうかを確認します。
+     * 先行書き込みログは作成時にログのファイルを復旧するため、作成する前に呼び出してください。
+     *
+     * @throws IllegalArgumentException 書き込みサービスを利用している場合、または読み込んだログを保持していない場合
+     */
+    void requireJournalable() {
+        if (logWriter != null || tail == null) {
+            throw new IllegalArgumentException("先行書き込みログはCSVに直接追記するログでのみ利用できます");
+        }
+    }
+
+    TaskJournal journal() {
+        return journal;
+    }
+
+    String filePath() {
+        return filePath;
+    }
+
+    /**
+     * 書き込みサービスを利用している場合は、残っているログを書き込んでから停止します。
+     */
+    public void close() {
+        if (logWriter != null) {
+            logWriter.close();
         }
     }
 
     /**
      * すべてのログを取得します。
+     * 読み込んだログを保持しておき、前回の読み込み以降にCSVへ追記された行のみを解析して加えます。
+     * ファイルが短くなった場合や差し替えられた場合は、先頭から読み直します。
+     * 読み足す範囲が並列に読み込む大きさの場合は、{@link ParallelCsvLoader}で範囲ごとに並列に解析します。
+     * 読み込んだログを保持していない形式ごとのサブクラスでは、毎回ファイル全体を読み込みます。
      *
-     * @return すべてのログのリスト
+     * @see #setParallelLoader(ParallelCsvLoader)
+     * @return すべてのログの変更できないリスト
      */
     public List<Log> findAll() {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            List<Log> logs = new ArrayList<>();
-            String line;
-            br.readLine();
-
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    int taskCode = Integer.parseInt(parts[0].trim());
-                    int changeUserCode = Integer.parseInt(parts[1].trim());
-                    int status = Integer.parseInt(parts[2].trim());
-                    
-                    String[] dateParts = parts[3].trim().split("-");
-                    int year = Integer.parseInt(dateParts[0]);
-                    int month = Integer.parseInt(dateParts[1]);
-                    int day = Integer.parseInt(dateParts[2]);
-                    LocalDate changeDate = LocalDate.of(year, month, day);
-
-                    Log log = new Log(taskCode, changeUserCode, status, changeDate);
-                    logs.add(log);
+        long start = FIND_ALL.start();
+        try {
+            List<Log> result;
+            if (tail != null) {
+                result = readAll();
+            } else {
+                try (Stream<Log> logs = openStream()) {
+                    result = logs.collect(Collectors.toCollection(ArrayList::new));
                 }
             }
+            FIND_ALL.addRows(result.size());
+            return result;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_ALL.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 保持しているログに追記された行を読み足し、まだファイルに反映されていないログを続けます。
+     */
+    private List<Log> readAll() throws IOException {
+        TaskJournal journal = this.journal;
+        if (journal == null) {
+            return tail.read(Long.MAX_VALUE, loader, List.of());
+        }
+        return journal.read(state -> {
+            List<Log> pending = new ArrayList<>(state.logs().size());
+            for (String[] row : state.logs()) {
+                pending.add(toLog(row));
+            }
+            return tail.read(Long.MAX_VALUE, loader, pending);
+        });
+    }
+
+    /**
+     * {@link #findAll()}で大きなファイルを並列に読み込む方法を設定します。
+     * 形式ごとのサブクラスでは利用しません。
+     *
+     * @param loader 並列の読み込み
+     */
+    public void setParallelLoader(ParallelCsvLoader loader) {
+        this.loader = loader;
+    }
+
+    private void refreshIndex() {
+        if (index != null) {
+            index.refreshIfLoaded();
+        }
+    }
+
+    /**
+     * 指定したタスクコードのログを記録順に取得します。
+     * タスクコードごとの行の位置を保存した索引を使い、該当する行のみを読み込みます。
+     * 索引がない場合やログファイルと一致しない場合は、ログファイル全体から作り直します。
+     * 索引を持たないインスタンスでは、全てのログから絞り込みます。
+     *
+     * @param taskCode タスクコード
+     * @return 該当するログのリスト
+     */
+    public List<Log> findByTaskCode(int taskCode) {
+        long start = FIND_BY_TASK_CODE.start();
+        try {
+            if (index == null) {
+                try (Stream<Log> logs = openStream()) {
+                    List<Log> result = logs.filter(log -> log.getTaskCode() == taskCode)
+                        .collect(Collectors.toCollection(ArrayList::new));
+                    FIND_BY_TASK_CODE.addRows(result.size());
+                    return result;
+                }
+            }
+            TaskJournal journal = this.journal;
+            List<Log> result = journal == null ? index.find(taskCode) : journal.read(state -> {
+                List<Log> logs = new ArrayList<>(index.find(taskCode));
+                for (String[] row : state.logs()) {
+                    if (Integer.parseInt(row[0]) == taskCode) {
+                        logs.add(toLog(row));
+                    }
+                }
+                return logs;
+            });
+            FIND_BY_TASK_CODE.addRows(result.size());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_BY_TASK_CODE.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 変更日が指定した期間に含まれるログを記録順に取得します。
+     * 1つのファイルに全期間のログを保存しているため、{@link #findAll()}と同じく保持している全てのログから絞り込みます。
+     *
+     * @param from 期間の開始日（この日を含みます）
+     * @param to 期間の終了日（この日を含みます）
+     * @return 該当するログのリスト
+     */
+    public List<Log> findByDateRange(LocalDate from, LocalDate to) {
+        long start = FIND_BY_DATE_RANGE.start();
+        try (Stream<Log> logs = tail != null ? readAll().stream() : openStream()) {
+            List<Log> result = logs
+                .filter(log -> !log.getChangeDate().isBefore(from) && !log.getChangeDate().isAfter(to))
+                .collect(Collectors.toCollection(ArrayList::new));
+            FIND_BY_DATE_RANGE.addRows(result.size());
+            return result;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_BY_DATE_RANGE.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * ログを1行ずつ読み込むストリームを取得します。
+     * 行は要素が要求されたときに解析されるため、{@code limit}や{@code findFirst}で途中で打ち切れます。
+     * 利用後は必ずストリームを閉じてファイルを解放してください。
+     *
+     * @see #findAll()
+     * @return ログのストリーム、ファイルを開けない場合は空のストリーム
+     */
+    public Stream<Log> stream() {
+        try {
+            return openStream();
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return null;
+        return Stream.empty();
+    }
+
+    /**
+     * ログファイルを開き、1件ずつ解析するストリームを作成します。
+     * 先行書き込みログを共有している場合は、その時点のファイルの末尾までを読み、
+     * まだファイルに反映されていないログを続けます。
+     *
+     * @return ログのストリーム
+     * @throws IOException ファイルを開けない場合
+     */
+    protected Stream<Log> openStream() throws IOException {
+        TaskJournal journal = this.journal;
+        if (journal == null) {
+            return openCsvStream(filePath);
+        }
+        return journal.read(state -> {
+            Stream<Log> pending = state.logs().stream().map(LogDataAccess::toLog);
+            Path path = Paths.get(filePath);
+            if (!Files.exists(path)) {
+                return pending;
+            }
+            return Stream.concat(logStream(MappedCsvReader.open(path, 0, Files.size(path))), pending);
+        });
+    }
+
+    /**
+     * 指定したCSVファイルを開き、ログを1件ずつ解析するストリームを作成します。
+     *
+     * @param filePath ログのCSVファイルのパス
+     * @return ログのストリーム
+     * @throws IOException ファイルを開けない場合
+     */
+    static Stream<Log> openCsvStream(String filePath) throws IOException {
+        return logStream(MappedCsvReader.open(filePath));
+    }
+
+    private static Stream<Log> logStream(MappedCsvReader reader) throws IOException {
+        try {
+            reader.next(); // ヘッダー行をスキップ
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        Spliterator<Log> logs = new Spliterators.AbstractSpliterator<Log>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Log> action) {
+                try {
+                    while (reader.next()) {
+                        if (reader.fieldCount() == 4) {
+                            int taskCode = reader.getInt(0);
+                            int changeUserCode = reader.getInt(1);
+                            int status = reader.getInt(2);
+                            LocalDate changeDate = reader.getDate(3);
+
+                            action.accept(new Log(taskCode, changeUserCode, status, changeDate));
+                            return true;
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(logs, false).onClose(() -> closeQuietly(reader));
+    }
+
+    static Log toLog(MappedCsvReader reader) {
+        if (reader.fieldCount() != 4) {
+            return null;
+        }
+        return new Log(reader.getInt(0), reader.getInt(1), reader.getInt(2), reader.getDate(3));
+    }
+
+    static Log toLog(String[] row) {
+        return new Log(Integer.parseInt(row[0]), Integer.parseInt(row[1]), Integer.parseInt(row[2]),
+            LocalDate.parse(row[3]));
+    }
+
+    /**
+     * ストリームの終了時にファイルを閉じます。
+     *
+     * @param closeable 閉じる対象
+     */
+    static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -97,11 +483,20 @@ public class LogDataAccess {
      * @param log フォーマットを作成するログ
      * @return CSVファイルに書き込むためのフォーマット
      */
-    private String createLine(Log log) {
+    String createLine(Log log) {
         return log.getTaskCode() + "," +
             log.getChangeUserCode() + "," +
             log.getStatus() + "," +
             log.getChangeDate();
     }
 
+    /**
+     * 一括保存する行を作成し、件数と書き込むバイト数を記録します。
+     */
+    private String createCountedLine(Log log) {
+        String line = createLine(log);
+        SAVE_ALL.addRows(1);
+        SAVE_ALL.addBytesWritten(line, 1);
+        return line;
+    }
 }
\ No newline at end of file
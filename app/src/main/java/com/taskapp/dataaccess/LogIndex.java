@@ -0,0 +1,372 @@
+package com.taskapp.dataaccess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.taskapp.model.Log;
+import com.taskapp.util.IntObjectMap;
+
+/**
+ * logs.csvの行の位置をタスクコードごとにまとめた索引です。
+ * 索引は{@code <logs.csv>.idx}に保存し、ログファイルが伸びた分だけを読み足して更新します。
+ * ログファイルが短くなっていたり、索引の内容と一致しない場合は全体を読み直して作り直します。
+ *
+ * <p>索引ファイルは16バイトのヘッダー（マジックナンバー{@code TIDX}、バージョン番号、
+ * 索引に含めたログファイルの長さ）と、1件12バイトのエントリ（タスクコードのintと
+ * 行の先頭位置のlong）からなります。改行で終わっていない末尾の行は索引に含めず、
+ * 検索のたびに直接読み込みます。</p>
+ */
+class LogIndex {
+    static final int MAGIC = 0x54494458; // "TIDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 12;
+
+    private static final int WRITE_BATCH = 4096;
+
+    private final Path logPath;
+    private final Path indexPath;
+
+    private IntObjectMap<Offsets> offsets;
+    private long indexedLength;
+    private long entryCount;
+    private int lastTaskCode;
+    private long lastOffset = -1;
+
+    LogIndex(String logFilePath) {
+        this.logPath = Paths.get(logFilePath);
+        this.indexPath = Paths.get(logFilePath + ".idx");
+    }
+
+    /**
+     * 指定したタスクコードのログを記録順に読み込みます。
+     * 読み込む前に、索引を作成した後に追記された行を索引に加えます。
+     *
+     * @param taskCode タスクコード
+     * @return 該当するログのリスト
+     * @throws IOException ファイルの読み書きに失敗した場合
+     */
+    synchronized List<Log> find(int taskCode) throws IOException {
+        List<Log> logs = new ArrayList<>();
+        if (!Files.exists(logPath)) {
+            return logs;
+        }
+        long complete = refresh();
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            Offsets found = offsets.get(taskCode);
+            if (found != null) {
+                ByteBuffer buffer = ByteBuffer.allocate(128);
+                for (int i = 0; i < found.size; i++) {
+                    buffer = readRow(channel, found.values[i], buffer);
+                    String[] values = decode(buffer).split(",");
+                    logs.add(toLog(values));
+                }
+            }
+        }
+        if (complete < Files.size(logPath)) {
+            // 改行で終わっていない末尾の行は索引に含めていないため直接読む
+            // 改行が1つもない場合はヘッダー行のみのため読まない
+            if (complete > 0) {
+                try (MappedCsvReader reader = MappedCsvReader.open(logPath, complete, Long.MAX_VALUE)) {
+                    while (reader.next()) {
+                        Log log = toLog(reader, taskCode);
+                        if (log != null) {
+                            logs.add(log);
+                        }
+                    }
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * 索引を読み込み済みの場合に限り、追記された行を索引に加えます。
+     */
+    synchronized void refreshIfLoaded() {
+        if (offsets == null || !Files.exists(logPath)) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 索引をログファイルの現在の内容に合わせます。
+     *
+     * @return 索引に含めたログファイルの長さ
+     */
+    private long refresh() throws IOException {
+        if (offsets == null && !load()) {
+            rebuild();
+        }
+        long size = Files.size(logPath);
+        if (size < indexedLength || !lastEntryMatches()) {
+            rebuild();
+        }
+        long complete = completeLength(size);
+        if (complete > indexedLength) {
+            append(complete);
+        }
+        return indexedLength;
+    }
+
+    /**
+     * 保存されている索引を読み込みます。
+     *
+     * @return 読み込めた場合はtrue、索引ファイルがないか壊れている場合はfalse
+     */
+    private boolean load() throws IOException {
+        offsets = new IntObjectMap<>();
+        indexedLength = 0;
+        entryCount = 0;
+        lastOffset = -1;
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return false;
+            }
+            long length = header.getLong();
+
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * WRITE_BATCH);
+            long position = HEADER_SIZE;
+            long valid = HEADER_SIZE;
+            boolean torn = false;
+            while (!torn && position < channel.size()) {
+                buffer.clear();
+                readFully(channel, buffer, position);
+                buffer.flip();
+                position += buffer.limit();
+                while (buffer.remaining() >= ENTRY_SIZE) {
+                    int taskCode = buffer.getInt();
+                    long offset = buffer.getLong();
+                    // ヘッダーを更新する前に中断された場合の余分なエントリは捨てる
+                    if (offset >= length) {
+                        torn = true;
+                        break;
+                    }
+                    add(taskCode, offset);
+                    valid += ENTRY_SIZE;
+                }
+            }
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+            }
+            indexedLength = length;
+        }
+        return true;
+    }
+
+    /**
+     * ログファイル全体を読み直して索引を作り直します。
+     */
+    private void rebuild() throws IOException {
+        offsets = new IntObjectMap<>();
+        indexedLength = 0;
+        entryCount = 0;
+        lastOffset = -1;
+
+        Path tmpPath = Paths.get(indexPath + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(channel, 0);
+        }
+        Files.move(tmpPath, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        append(completeLength(Files.size(logPath)));
+    }
+
+    /**
+     * 索引に含めた位置から指定した位置までの行を索引に加え、索引ファイルに追記します。
+     *
+     * @param end 索引に含める範囲の終端（改行の直後）
+     */
+    private void append(long end) throws IOException {
+        long start = indexedLength;
+        try (MappedCsvReader reader = MappedCsvReader.open(logPath, start, end);
+                FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * WRITE_BATCH);
+            long position = HEADER_SIZE + entryCount * ENTRY_SIZE;
+            boolean header = start == 0;
+            while (reader.next()) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                if (reader.fieldCount() != 4) {
+                    continue;
+                }
+                int taskCode;
+                try {
+                    taskCode = reader.getInt(0);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                add(taskCode, reader.rowOffset());
+                buffer.putInt(taskCode).putLong(reader.rowOffset());
+                if (!buffer.hasRemaining()) {
+                    position += flush(channel, buffer, position);
+                }
+            }
+            flush(channel, buffer, position);
+            writeHeader(channel, end);
+        }
+        indexedLength = end;
+    }
+
+    private void add(int taskCode, long offset) {
+        offsets.computeIfAbsent(taskCode, code -> new Offsets()).add(offset);
+        entryCount++;
+        lastTaskCode = taskCode;
+        lastOffset = offset;
+    }
+
+    /**
+     * 索引の最後のエントリが、ログファイルの同じ位置の行と一致するかを確認します。
+     * ログファイルが同じ長さ以上で書き換えられた場合を検出するためのものです。
+     */
+    private boolean lastEntryMatches() throws IOException {
+        if (lastOffset < 0) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            String[] values = decode(readRow(channel, lastOffset, ByteBuffer.allocate(128))).split(",");
+            return values.length == 4 && Integer.parseInt(values[0].trim()) == lastTaskCode;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * ログファイルのうち、最後の改行までの長さを求めます。
+     */
+    private long completeLength(long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            long end = size;
+            while (end > indexedLength) {
+                long start = Math.max(indexedLength, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                readFully(channel, buffer, start);
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+        }
+        return indexedLength;
+    }
+
+    /**
+     * 指定した位置から1行を読み込みます。バッファに収まらない場合は大きくして読み直します。
+     *
+     * @return 行の内容を位置0から限界までに持つバッファ
+     */
+    private static ByteBuffer readRow(FileChannel channel, long offset, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            readFully(channel, buffer, offset);
+            int length = buffer.position();
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    buffer.flip().limit(i);
+                    return buffer;
+                }
+            }
+            if (length < buffer.capacity()) {
+                buffer.flip();
+                return buffer;
+            }
+            buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+        }
+    }
+
+    private static String decode(ByteBuffer row) {
+        int limit = row.limit();
+        if (limit > 0 && row.get(limit - 1) == '\r') {
+            row.limit(limit - 1);
+        }
+        return StandardCharsets.UTF_8.decode(row).toString();
+    }
+
+    private static Log toLog(String[] values) {
+        int taskCode = Integer.parseInt(values[0].trim());
+        int changeUserCode = Integer.parseInt(values[1].trim());
+        int status = Integer.parseInt(values[2].trim());
+        LocalDate changeDate = LocalDate.parse(values[3].trim());
+        return new Log(taskCode, changeUserCode, status, changeDate);
+    }
+
+    private static Log toLog(MappedCsvReader reader, int taskCode) {
+        try {
+            if (reader.fieldCount() != 4 || reader.getInt(0) != taskCode) {
+                return null;
+            }
+            return new Log(taskCode, reader.getInt(1), reader.getInt(2), reader.getDate(3));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, long length) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(length);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int written = buffer.limit();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 1つのタスクコードに対応する行の位置を記録順に保持します。
+     */
+    private static final class Offsets {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.taskapp.dataaccess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.taskapp.model.Log;
+
+/**
+ * logs.csvから読み込んだ全てのログを保持し、ファイルが伸びた分だけを読み足します。
+ * 読み込んだ長さと行数に加えて、ファイルの識別子と最後に読み込んだ行の内容を記録し、
+ * ファイルが短くなった場合や差し替えられた場合は先頭から読み直します。
+ *
+ * <p>改行で終わっていない末尾の行は書き込み中の可能性があるため保持せず、読み込むたびに直接解析します。
+ * 返すリストは読み込んだ時点の行数で固定した変更できないビューで、後から読み足した行は含みません。</p>
+ */
+class LogTail {
+    /** 改行を探すときに1回で読み込むバイト数 */
+    private static final int SCAN_SIZE = 256;
+
+    private final Path path;
+
+    private Object fileKey;
+    /** 読み込んだ範囲の終端（改行の直後） */
+    private long consumed;
+    /** 最後に読み込んだ行の先頭位置と内容。差し替えの検出に利用する */
+    private long lastRowOffset = -1;
+    private byte[] lastRow;
+    private Log[] logs = new Log[0];
+    private int size;
+
+    LogTail(String logFilePath) {
+        this.path = Paths.get(logFilePath);
+    }
+
+    /**
+     * ファイルの先頭から指定した位置までのログを取得します。
+     * 前回読み込んだ位置より後の行のみを解析し、保持しているログに加えます。
+     *
+     * @param end 読み込む範囲の終端
+     * @param loader 読み足す範囲が大きい場合に利用する並列の読み込み
+     * @param pending 末尾に続けるログ（ファイルに反映されていないもの）
+     * @return ログのリスト
+     * @throws IOException ファイルの読み込みに失敗した場合
+     */
+    synchronized List<Log> read(long end, ParallelCsvLoader loader, List<Log> pending) throws IOException {
+        if (!Files.exists(path)) {
+            reset(null);
+            return pending.isEmpty() ? Collections.emptyList() : new View(logs, 0, pending);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            end = Math.min(end, channel.size());
+            Object key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            if (!Objects.equals(key, fileKey) || end < consumed || !lastRowMatches(channel)) {
+                reset(key);
+            }
+            long complete = completeLength(channel, end);
+            if (complete > consumed) {
+                append(channel, complete, loader);
+            }
+            if (complete == end) {
+                return new View(logs, size, pending);
+            }
+            // 改行で終わっていない末尾の行は保持せずに続ける
+            List<Log> tail = new ArrayList<>();
+            if (complete > 0) {
+                try (MappedCsvReader reader = MappedCsvReader.open(channel, path.toString(), complete, end)) {
+                    while (reader.next()) {
+                        Log log = LogDataAccess.toLog(reader);
+                        if (log != null) {
+                            tail.add(log);
+                        }
+                    }
+                }
+            }
+            tail.addAll(pending);
+            return new View(logs, size, tail);
+        }
+    }
+
+    private void reset(Object key) {
+        fileKey = key;
+        consumed = 0;
+        lastRowOffset = -1;
+        lastRow = null;
+        logs = new Log[0];
+        size = 0;
+    }
+
+    /**
+     * 読み込んだ範囲の終端から指定した位置までの行を解析し、保持しているログに加えます。
+     */
+    private void append(FileChannel channel, long complete, ParallelCsvLoader loader) throws IOException {
+        List<Log> added;
+        if (loader.accepts(complete - consumed)) {
+            added = loader.load(channel, path.toString(), consumed, complete, LogDataAccess::toLog);
+        } else {
+            added = new ArrayList<>();
+            try (MappedCsvReader reader = MappedCsvReader.open(channel, path.toString(), consumed, complete)) {
+                if (consumed == 0) {
+                    reader.next(); // ヘッダー行をスキップ
+                }
+                while (reader.next()) {
+                    Log log = LogDataAccess.toLog(reader);
+                    if (log != null) {
+                        added.add(log);
+                    }
+                }
+            }
+        }
+        if (size + added.size() > logs.length) {
+            // 返したビューが参照している配列は書き換えず、新しい配列に移す
+            logs = Arrays.copyOf(logs, Math.max(size + added.size(), logs.length + (logs.length >> 1)));
+        }
+        for (Log log : added) {
+            logs[size++] = log;
+        }
+        lastRowOffset = lastRowStart(channel, complete);
+        lastRow = readBytes(channel, lastRowOffset, complete);
+        consumed = complete;
+    }
+
+    /**
+     * 最後に読み込んだ行が、ファイルの同じ位置にそのまま残っているかを確認します。
+     */
+    private boolean lastRowMatches(FileChannel channel) throws IOException {
+        if (lastRow == null) {
+            return true;
+        }
+        if (channel.size() < lastRowOffset + lastRow.length) {
+            return false;
+        }
+        return Arrays.equals(readBytes(channel, lastRowOffset, lastRowOffset + lastRow.length), lastRow);
+    }
+
+    /**
+     * 読み込んだ範囲の終端から指定した位置までのうち、最後の改行までの長さを求めます。
+     */
+    private long completeLength(FileChannel channel, long end) throws IOException {
+        long limit = end;
+        while (limit > consumed) {
+            long start = Math.max(consumed, limit - SCAN_SIZE);
+            byte[] bytes = readBytes(channel, start, limit);
+            for (int i = bytes.length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    return start + i + 1;
+                }
+            }
+            limit = start;
+        }
+        return consumed;
+    }
+
+    /**
+     * 改行の直後を指す位置から、その直前の行の先頭位置を求めます。
+     */
+    private static long lastRowStart(FileChannel channel, long complete) throws IOException {
+        long limit = complete - 1;
+        while (limit > 0) {
+            long start = Math.max(0, limit - SCAN_SIZE);
+            byte[] bytes = readBytes(channel, start, limit);
+            for (int i = bytes.length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    return start + i + 1;
+                }
+            }
+            limit = start;
+        }
+        return 0;
+    }
+
+    private static byte[] readBytes(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+            // 指定範囲を読み切るまで続ける
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 保持している配列の先頭から指定した行数と、続くログを並べた変更できないリストです。
+     */
+    private static final class View extends AbstractList<Log> implements RandomAccess {
+        private final Log[] logs;
+        private final int size;
+        private final List<Log> rest;
+
+        private View(Log[] logs, int size, List<Log> rest) {
+            this.logs = logs;
+            this.size = size;
+            this.rest = rest;
+        }
+
+        @Override
+        public Log get(int index) {
+            if (index < size) {
+                return logs[index];
+            }
+            return rest.get(index - size);
+        }
+
+        @Override
+        public int size() {
+            return size + rest.size();
+        }
+    }
+}
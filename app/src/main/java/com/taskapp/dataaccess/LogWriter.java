@@ -0,0 +1,272 @@
+package com.taskapp.dataaccess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.taskapp.util.LogAppendEvent;
+
+/**
+ * ログファイルへの追記をまとめて行う書き込みサービスです。
+ *
+ * <p>追記要求は上限付きのキューに溜め、専用のスレッドが開いたままの{@link FileChannel}へ
+ * 溜まった分を1回の書き込みでまとめて出力します。書き込んだ内容をディスクへ同期する
+ * タイミングは{@link Durability}で指定します。</p>
+ *
+ * <p>停止後の追記要求と、停止までに受け付けたが書き込めなかった要求は、例外で完了します。
+ * 追記要求が完了しないまま残ることはありません。</p>
+ */
+public class LogWriter implements Closeable {
+    /**
+     * 書き込んだログをディスクへ同期するタイミングです。
+     */
+    public enum Durability {
+        /** 同期しません。書き込みが完了した時点で完了とします */
+        NONE,
+        /** まとめて書き込むたびに同期します */
+        PER_BATCH,
+        /** 一定間隔ごとに同期し、同期した時点で完了とします */
+        INTERVAL
+    }
+
+    private static final int MAX_BATCH = 1024;
+    /** {@link #appendAll(Iterable)}で1件の要求にまとめる大きさ（文字数） */
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long IDLE_WAIT_MILLIS = 100;
+
+    private final String filePath;
+    private final FileChannel channel;
+    private final Durability durability;
+    private final long intervalMillis;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writerThread;
+
+    private final List<Pending> batch = new ArrayList<>();
+    private final List<Pending> unsynced = new ArrayList<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long lastForce = System.currentTimeMillis();
+    private volatile boolean running = true;
+    /**
+     * 追記要求は停止の確認とキューへの追加を読み込みロック内で行い、
+     * 書き込み用のスレッドは停止後に書き込みロックを取得して、確認を終えた要求が全てキューに入るのを待つ
+     */
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    /**
+     * 書き込みサービスを作成し、書き込み用のスレッドを開始します。
+     *
+     * @param filePath 追記するファイルのパス
+     * @param durability ディスクへ同期するタイミング
+     * @param intervalMillis {@link Durability#INTERVAL}の場合の同期間隔（ミリ秒）
+     * @param capacity キューに溜められる追記要求の上限
+     * @throws IOException ファイルを開けない場合
+     */
+    public LogWriter(String filePath, Durability durability, long intervalMillis, int capacity) throws IOException {
+        this.filePath = filePath;
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        this.durability = durability;
+        this.intervalMillis = intervalMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::run, "log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 1行を追記するよう要求します。キューが満杯の場合は空きができるか停止するまで待ちます。
+     *
+     * @param line 追記する行（改行は含みません）
+     * @return 指定した耐久性で書き込みが完了したときに完了するハンドル
+     */
+    public CompletableFuture<Void> append(String line) {
+        return enqueue((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<Void> enqueue(byte[] bytes) {
+        Pending pending = new Pending(bytes);
+        stateLock.readLock().lock();
+        try {
+            // 書き込み用のスレッドが止まった後に満杯のキューで待ち続けないよう、一定時間ごとに確認する
+            while (running && writerThread.isAlive()) {
+                if (queue.offer(pending, IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return pending.future;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        pending.future.completeExceptionally(stopped());
+        return pending.future;
+    }
+
+    /**
+     * 複数行をまとめて追記するよう要求します。
+     * 行は一定の大きさごとにまとめて1件の要求にするため、行数が多くてもキューを埋め尽くしません。
+     *
+     * @param lines 追記する行（改行は含みません）
+     * @return すべての行の書き込みが指定した耐久性で完了したときに完了するハンドル
+     */
+    public CompletableFuture<Void> appendAll(Iterable<String> lines) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (String line : lines) {
+            chunk.append(line).append('\n');
+            if (chunk.length() >= CHUNK_SIZE) {
+                futures.add(enqueue(chunk.toString().getBytes(StandardCharsets.UTF_8)));
+                chunk.setLength(0);
+            }
+        }
+        if (chunk.length() > 0) {
+            futures.add(enqueue(chunk.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * キューに残っている要求を書き込み、同期してからファイルを閉じます。
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long waitMillis = durability == Durability.INTERVAL ? intervalMillis : IDLE_WAIT_MILLIS;
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    writeBatch();
+                }
+                if (!unsynced.isEmpty() && System.currentTimeMillis() - lastForce >= intervalMillis) {
+                    force();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            // 停止を確認する前に受け付けた要求が全てキューに入るまで待ち、残りを書き込む。
+            // 以降はキューに追加されないため、書き込めなかった要求はwriteBatchとforceが例外で完了する
+            stateLock.writeLock().lock();
+            stateLock.writeLock().unlock();
+            while (queue.drainTo(batch, MAX_BATCH) > 0) {
+                writeBatch();
+            }
+            force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static IOException stopped() {
+        return new IOException("ログの書き込みサービスは停止しています");
+    }
+
+    private void writeBatch() {
+        int size = 0;
+        for (Pending pending : batch) {
+            size += pending.bytes.length;
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        for (Pending pending : batch) {
+            buffer.put(pending.bytes);
+        }
+        buffer.flip();
+
+        LogAppendEvent event = new LogAppendEvent();
+        event.begin();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            switch (durability) {
+                case NONE -> complete(batch);
+                case PER_BATCH -> {
+                    channel.force(false);
+                    complete(batch);
+                }
+                case INTERVAL -> unsynced.addAll(batch);
+            }
+            if (event.shouldCommit()) {
+                event.set("writeBatch", filePath, countLines(buffer), size);
+                event.commit();
+            }
+        } catch (IOException e) {
+            for (Pending pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+        batch.clear();
+    }
+
+    private void force() {
+        if (unsynced.isEmpty()) {
+            return;
+        }
+        try {
+            channel.force(false);
+            complete(unsynced);
+        } catch (IOException e) {
+            for (Pending pending : unsynced) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+        unsynced.clear();
+        lastForce = System.currentTimeMillis();
+    }
+
+    private static int countLines(ByteBuffer written) {
+        int lines = 0;
+        for (int i = 0; i < written.limit(); i++) {
+            if (written.get(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static void complete(List<Pending> pendings) {
+        for (Pending pending : pendings) {
+            pending.future.complete(null);
+        }
+    }
+
+    private static final class Pending {
+        private final byte[] bytes;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Pending(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.taskapp.dataaccess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
+import com.taskapp.util.StorageEvent;
+
+/**
+ * CSVファイルをバイト列のまま1行ずつ読み進めるリーダーです。
+ * 大きなファイルは{@link FileChannel#map}でメモリにマップし、行やフィールドの区切りを
+ * 文字列を作らずに探します。整数の列はバイト列から直接変換し、文字列は呼び出し側が
+ * 必要とした列に対してのみ作成します。
+ *
+ * <p>各行は{@link String#split(String)}と同じく末尾の空フィールドを数えず、
+ * 値の前後の空白は{@link String#trim()}と同じく取り除きます。</p>
+ *
+ * <p>ファイルはUTF-8として解釈します。CSVに書き込む側も同じ文字コードを指定してください。
+ * 1行はマップする範囲（64MB）に収まる必要があり、超える行は{@link #next()}で例外になります。</p>
+ *
+ * <p>閉じたときに、開いていた時間と読み進めた行数・バイト数を{@code MappedCsvReader.read}として記録します。</p>
+ */
+public final class MappedCsvReader implements Closeable {
+    /** これより小さいファイルはマップせずにヒープへ読み込みます */
+    private static final long MAP_THRESHOLD = 1L << 20;
+    /** 一度にマップする最大サイズ */
+    private static final long WINDOW_SIZE = 64L << 20;
+    private static final OperationMetrics READ = Metrics.operation("MappedCsvReader.read");
+
+    private final FileChannel channel;
+    /** 閉じるときにチャンネルも閉じる場合はtrue */
+    private final boolean ownsChannel;
+    private final String path;
+    private final long start;
+    private final long end;
+    private final long windowSize;
+    private final long openedAt;
+    private int rows;
+    private boolean closed;
+    private StorageEvent event;
+    private String operation;
+
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private int position;
+
+    private int rowStart;
+    private int fieldCount;
+    private int[] fieldStarts = new int[8];
+    private int[] fieldEnds = new int[8];
+    private byte[] scratch = new byte[64];
+
+    private MappedCsvReader(FileChannel channel, String path, long start, long end) throws IOException {
+        this(channel, true, path, start, end, WINDOW_SIZE);
+    }
+
+    private MappedCsvReader(FileChannel channel, boolean ownsChannel, String path, long start, long end,
+            long windowSize) throws IOException {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.path = path;
+        this.start = start;
+        this.end = end;
+        this.windowSize = windowSize;
+        this.openedAt = READ.start();
+        load(start);
+    }
+
+    /**
+     * ファイル全体を読み込むリーダーを作成します。ヘッダー行は読み飛ばしません。
+     * @param filePath CSVファイルのパス
+     * @return 作成したリーダー
+     * @throws IOException ファイルを開けない場合
+     */
+    public static MappedCsvReader open(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        try {
+            return new MappedCsvReader(channel, filePath, 0, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * ファイルの指定範囲のみを読み込むリーダーを作成します。
+     * {@code start}は行の先頭を指している必要があります。
+     *
+     * @param path CSVファイルのパス
+     * @param start 読み込みを開始するバイト位置
+     * @param end 読み込みを終了するバイト位置（この位置は含みません）
+     * @return 作成したリーダー
+     * @throws IOException ファイルを開けない場合
+     */
+    public static MappedCsvReader open(Path path, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedCsvReader(channel, path.toString(), start, Math.min(end, channel.size()));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 開いているチャンネルの指定範囲を読み込むリーダーを作成します。
+     * 複数のリーダーで同じファイルの異なる範囲を並行して読み込む場合に利用し、リーダーを閉じてもチャンネルは閉じません。
+     *
+     * @param channel 読み込むファイルのチャンネル
+     * @param path イベントに記録するパス
+     * @param start 読み込みを開始するバイト位置。行の先頭を指している必要があります
+     * @param end 読み込みを終了するバイト位置（この位置は含みません）
+     * @return 作成したリーダー
+     * @throws IOException ファイルの読み込みに失敗した場合
+     */
+    static MappedCsvReader open(FileChannel channel, String path, long start, long end) throws IOException {
+        return new MappedCsvReader(channel, false, path, start, end, WINDOW_SIZE);
+    }
+
+    /**
+     * 一度に読み込む範囲の大きさを指定して、開いているチャンネルを読み込むリーダーを作成します。
+     * @see #open(FileChannel, String, long, long)
+     */
+    static MappedCsvReader open(FileChannel channel, String path, long start, long end, long windowSize)
+            throws IOException {
+        return new MappedCsvReader(channel, false, path, start, end, windowSize);
+    }
+
+    /**
+     * 閉じたときに、読み進めた行数・バイト数を指定したJFRイベントとして記録します。
+     * イベントの期間はこのメソッドを呼び出してから閉じるまでです。
+     *
+     * @param event 記録するイベント
+     * @param operation イベントに記録する操作名
+     * @return このリーダー
+     */
+    MappedCsvReader traced(StorageEvent event, String operation) {
+        event.begin();
+        this.event = event;
+        this.operation = operation;
+        return this;
+    }
+
+    /**
+     * 次の行へ進み、フィールドの区切り位置を求めます。
+     * @return 行があればtrue、ファイルの終端に達した場合はfalse
+     * @throws IOException ファイルの読み込みに失敗した場合、または1行がマップする範囲より長い場合
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (bufferStart + position >= end) {
+                return false;
+            }
+            int lineEnd = indexOfNewline(position);
+            if (lineEnd < 0) {
+                if (bufferStart + buffer.limit() < end) {
+                    if (position == 0) {
+                        // 行頭からマップしても改行が見つからないため、マップし直しても進まない
+                        throw new IOException("1行の長さが読み込める上限（" + windowSize + "バイト）を超えています："
+                            + path + "の" + bufferStart + "バイト目");
+                    }
+                    // 行がマップした範囲をまたぐ場合は行頭からマップし直す
+                    load(bufferStart + position);
+                    continue;
+                }
+                lineEnd = buffer.limit();
+            }
+            rowStart = position;
+            position = lineEnd + 1;
+
+            int contentEnd = lineEnd;
+            if (contentEnd > rowStart && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            splitFields(rowStart, contentEnd);
+            rows++;
+            return true;
+        }
+    }
+
+    /**
+     * これまでに読み進めた行数を取得します。閉じた後も取得できます。
+     * @return 行数
+     */
+    public int rowsRead() {
+        return rows;
+    }
+
+    /**
+     * これまでに読み進めたバイト数を取得します。閉じた後も取得できます。
+     * @return バイト数
+     */
+    public long bytesRead() {
+        return Math.min(bufferStart + position, end) - start;
+    }
+
+    /**
+     * 現在の行のフィールド数を取得します。末尾の空フィールドは数えません。
+     * @return フィールド数
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * 現在の行の先頭のバイト位置を取得します。
+     * @return ファイル先頭からのバイト位置
+     */
+    public long rowOffset() {
+        return bufferStart + rowStart;
+    }
+
+    /**
+     * 現在の行の次の行の先頭のバイト位置を取得します。
+     * @return ファイル先頭からのバイト位置
+     */
+    public long nextRowOffset() {
+        return Math.min(bufferStart + position, end);
+    }
+
+    /**
+     * 指定したフィールドを整数として取得します。
+     * @param field フィールドの番号（0始まり）
+     * @return フィールドの値
+     * @throws NumberFormatException 整数として解釈できない場合
+     */
+    public int getInt(int field) {
+        return parseInt(trimStart(field), trimEnd(field));
+    }
+
+    /**
+     * 指定したフィールドを文字列として取得します。
+     * @param field フィールドの番号（0始まり）
+     * @return 前後の空白を取り除いたフィールドの値
+     */
+    public String getString(int field) {
+        int from = trimStart(field);
+        int length = trimEnd(field) - from;
+        if (length <= 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 指定したフィールドのバイト列のハッシュ値を、文字列を作らずに求めます。
+     * 前後の空白は含めません。値は{@link java.util.Arrays#hashCode(byte[])}と同じです。
+     *
+     * @param field フィールドの番号（0始まり）
+     * @return ハッシュ値
+     */
+    public int hashField(int field) {
+        int from = trimStart(field);
+        int to = trimEnd(field);
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * 指定したフィールドのバイト列が、UTF-8のバイト列と等しいかを文字列を作らずに確認します。
+     * 前後の空白は比較に含めません。
+     *
+     * @param field フィールドの番号（0始まり）
+     * @param bytes 比較するバイト列
+     * @return 等しい場合はtrue
+     */
+    public boolean fieldEquals(int field, byte[] bytes) {
+        int from = trimStart(field);
+        int to = trimEnd(field);
+        if (to - from != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(from + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 指定したフィールドのバイト列を取得します。
+     * @param field フィールドの番号（0始まり）
+     * @return 前後の空白を取り除いたフィールドのバイト列
+     */
+    public byte[] getBytes(int field) {
+        int from = trimStart(field);
+        byte[] bytes = new byte[Math.max(0, trimEnd(field) - from)];
+        buffer.get(from, bytes);
+        return bytes;
+    }
+
+    /**
+     * 指定したフィールドを{@code yyyy-MM-dd}形式の日付として取得します。
+     * @param field フィールドの番号（0始まり）
+     * @return フィールドの日付
+     * @throws NumberFormatException 日付として解釈できない場合
+     */
+    public LocalDate getDate(int field) {
+        int from = trimStart(field);
+        int to = trimEnd(field);
+        int firstDash = indexOf((byte) '-', from, to);
+        int secondDash = firstDash < 0 ? -1 : indexOf((byte) '-', firstDash + 1, to);
+        if (secondDash < 0) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        int year = parseInt(from, firstDash);
+        int month = parseInt(firstDash + 1, secondDash);
+        int day = parseInt(secondDash + 1, to);
+        return LocalDate.of(year, month, day);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            READ.addRows(rows);
+            READ.addBytesRead(bytesRead());
+            READ.stop(openedAt);
+            if (event != null && event.shouldCommit()) {
+                event.set(operation, path, rows, bytesRead());
+                event.commit();
+            }
+        }
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+
+    private void load(long start) throws IOException {
+        long size = Math.min(end - start, windowSize);
+        if (end <= MAP_THRESHOLD) {
+            ByteBuffer heap = ByteBuffer.allocate((int) size);
+            while (heap.hasRemaining() && channel.read(heap, start + heap.position()) >= 0) {
+                // 指定サイズを読み切るまで続ける
+            }
+            heap.flip();
+            buffer = heap;
+        } else {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        }
+        bufferStart = start;
+        position = 0;
+    }
+
+    private int indexOfNewline(int from) {
+        int limit = buffer.limit();
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void splitFields(int from, int to) {
+        int count = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buffer.get(i) == ',') {
+                if (count == fieldStarts.length) {
+                    fieldStarts = Arrays.copyOf(fieldStarts, count * 2);
+                    fieldEnds = Arrays.copyOf(fieldEnds, count * 2);
+                }
+                fieldStarts[count] = start;
+                fieldEnds[count] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+        // String#splitと同様に末尾の空フィールドは数えない
+        while (count > 0 && fieldStarts[count - 1] == fieldEnds[count - 1]) {
+            count--;
+        }
+        fieldCount = count;
+    }
+
+    private int trimStart(int field) {
+        int from = fieldStarts[field];
+        int to = fieldEnds[field];
+        while (from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int field) {
+        int from = fieldStarts[field];
+        int to = fieldEnds[field];
+        while (to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        // String#trimと同じく制御文字と半角スペースを対象とする（UTF-8の多バイト文字は負の値になる）
+        return b >= 0 && b <= ' ';
+    }
+
+    private int parseInt(int from, int to) {
+        if (from >= to) {
+            throw numberFormatException(from, to);
+        }
+        boolean negative = false;
+        int i = from;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == to) {
+                throw numberFormatException(from, to);
+            }
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(from, to);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormatException(from, to);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormatException(from, to);
+        }
+        return (int) value;
+    }
+
+    private NumberFormatException numberFormatException(int from, int to) {
+        byte[] bytes = new byte[Math.max(0, to - from)];
+        buffer.get(from, bytes);
+        return new NumberFormatException("For input string: \"" + new String(bytes, StandardCharsets.UTF_8) + "\"");
+    }
+}
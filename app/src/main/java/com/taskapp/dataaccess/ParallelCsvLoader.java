@@ -0,0 +1,223 @@
+package com.taskapp.dataaccess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 大きなCSVファイルを行の境界で区切った範囲に分け、{@link ForkJoinPool}で並列に解析します。
+ * 各範囲の解析結果はファイル内の順に連結するため、1行ずつ読み込んだ場合と同じ順序になります。
+ *
+ * <p>範囲の区切りは、目安の位置から次の改行までを読んで決めます。
+ * 各範囲は独立した{@link MappedCsvReader}で読み込むため、解析処理は共有する状態を変更しないでください。</p>
+ */
+public final class ParallelCsvLoader {
+    /** 並列に読み込むファイルサイズの下限の既定値 */
+    public static final long DEFAULT_THRESHOLD = 32L << 20;
+    /** 1つのタスクが解析する範囲の大きさの既定値 */
+    public static final long DEFAULT_CHUNK_SIZE = 4L << 20;
+    /** 共通プールを利用する既定の読み込み。1コアの環境では並列に読み込みません */
+    static final ParallelCsvLoader DEFAULT = new ParallelCsvLoader(ForkJoinPool.commonPool(),
+        Runtime.getRuntime().availableProcessors() > 1 ? DEFAULT_THRESHOLD : Long.MAX_VALUE, DEFAULT_CHUNK_SIZE);
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+    private final long chunkSize;
+
+    /**
+     * @param pool 解析を実行するプール
+     * @param threshold 並列に読み込むファイルサイズの下限（バイト）
+     * @param chunkSize 1つのタスクが解析する範囲の大きさの目安（バイト）
+     */
+    public ParallelCsvLoader(ForkJoinPool pool, long threshold, long chunkSize) {
+        this.pool = pool;
+        this.threshold = threshold;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /**
+     * ファイルを並列に読み込む大きさかどうかを判定します。
+     *
+     * @param size ファイルのサイズ
+     * @return 下限以上の場合はtrue
+     */
+    boolean accepts(long size) {
+        return size >= threshold;
+    }
+
+    /**
+     * ファイルの先頭から指定した位置までを、ヘッダー行を除いて並列に解析します。
+     *
+     * @param path CSVファイルのパス
+     * @param end 読み込みを終了するバイト位置（この位置は含みません）
+     * @param parser 1行を解析する処理
+     * @return 解析結果をファイル内の順に並べたリスト
+     * @throws IOException ファイルを読み込めない場合
+     */
+    <T> List<T> load(Path path, long end, RowParser<T> parser) throws IOException {
+        // 全ての範囲を同じチャンネルから読み、途中でファイルが差し替えられても同じ内容を読む
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return load(channel, path.toString(), 0, Math.min(end, channel.size()), parser);
+        }
+    }
+
+    /**
+     * 開いているファイルの指定した範囲を並列に解析します。
+     * 開始位置が先頭の場合はヘッダー行を除きます。それ以外の場合は行の先頭を指定してください。
+     *
+     * @param channel 読み込むファイルのチャンネル。閉じずに返します
+     * @param path エラーメッセージに利用するファイルのパス
+     * @param start 読み込みを開始するバイト位置
+     * @param end 読み込みを終了するバイト位置（この位置は含みません）
+     * @param parser 1行を解析する処理
+     * @return 解析結果をファイル内の順に並べたリスト
+     * @throws IOException ファイルを読み込めない場合
+     */
+    <T> List<T> load(FileChannel channel, String path, long start, long end, RowParser<T> parser)
+            throws IOException {
+        List<List<T>> results;
+        try {
+            long[] bounds = split(channel, start, end);
+            if (bounds.length == 1) {
+                return new ArrayList<>();
+            }
+            results = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                results.add(null);
+            }
+            pool.invoke(new Chunks<>(channel, path, bounds, parser, results, 0, bounds.length - 1));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        int size = 0;
+        for (List<T> chunk : results) {
+            size += chunk.size();
+        }
+        List<T> merged = new ArrayList<>(size);
+        for (List<T> chunk : results) {
+            merged.addAll(chunk);
+        }
+        return merged;
+    }
+
+    /**
+     * @see #load(Path, long, RowParser)
+     */
+    <T> List<T> load(Path path, RowParser<T> parser) throws IOException {
+        return load(path, Files.size(path), parser);
+    }
+
+    /**
+     * 開始位置（先頭の場合はヘッダー行の直後）から終了位置までを、行の先頭で始まる範囲に区切ります。
+     *
+     * @return 各範囲の開始位置と、最後に終了位置を並べた配列
+     */
+    private long[] split(FileChannel channel, long start, long end) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = start == 0 ? lineStartAfter(channel, buffer, 0, end) : start;
+        while (position < end) {
+            bounds.add(position);
+            position = lineStartAfter(channel, buffer, position + chunkSize - 1, end);
+        }
+        bounds.add(end);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 指定した位置以降で最初に現れる改行の次の位置を探します。
+     * @return 改行の次の位置、改行がない場合は終了位置
+     */
+    private static long lineStartAfter(FileChannel channel, ByteBuffer buffer, long from, long end)
+            throws IOException {
+        long position = from;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * 1行を解析する処理です。
+     */
+    @FunctionalInterface
+    interface RowParser<T> {
+        /**
+         * リーダーが指している行を解析します。
+         * @param reader 行を読み込んだリーダー
+         * @return 解析結果、結果に含めない行の場合はnull
+         */
+        T parse(MappedCsvReader reader);
+    }
+
+    /**
+     * 範囲の並びを半分ずつに分けて並列に解析し、範囲ごとの結果を格納します。
+     * {@link FileChannel}の位置を指定した読み込みとマップは、複数のスレッドから同時に行えます。
+     */
+    private static final class Chunks<T> extends RecursiveAction {
+        private final FileChannel channel;
+        private final String path;
+        private final long[] bounds;
+        private final RowParser<T> parser;
+        private final List<List<T>> results;
+        private final int from;
+        private final int to;
+
+        private Chunks(FileChannel channel, String path, long[] bounds, RowParser<T> parser,
+                List<List<T>> results, int from, int to) {
+            this.channel = channel;
+            this.path = path;
+            this.bounds = bounds;
+            this.parser = parser;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Chunks<>(channel, path, bounds, parser, results, from, middle),
+                    new Chunks<>(channel, path, bounds, parser, results, middle, to));
+                return;
+            }
+            List<T> rows = new ArrayList<>();
+            try (MappedCsvReader reader = MappedCsvReader.open(channel, path, bounds[from], bounds[from + 1])) {
+                while (reader.next()) {
+                    T row = parser.parse(reader);
+                    if (row != null) {
+                        rows.add(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // 各要素には1つのタスクのみが書き込み、invokeの完了後に読み込む
+            results.set(from, rows);
+        }
+    }
+}
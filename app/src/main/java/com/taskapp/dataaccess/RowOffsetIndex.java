@@ -0,0 +1,182 @@
+package com.taskapp.dataaccess;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * CSVのデータ行の位置を一定行数ごとに記録した疎な索引です。
+ * 任意の行番号から読み始める場合に、直前の記録位置へ移動してから数行だけ読み飛ばします。
+ * ファイルのサイズまたは更新日時が変わった場合にのみ作り直します。
+ * ファイルを監視している間は、変更の通知を受けるまでファイルの属性を読みません。
+ */
+class RowOffsetIndex {
+    /** 位置を記録する間隔（行数） */
+    static final int STRIDE = 256;
+
+    private final Path path;
+    private volatile Snapshot snapshot;
+    /** ファイルの監視が有効な間は、変更が通知されるまでファイルの属性を読まずに索引を返す */
+    private volatile boolean watched;
+    private volatile boolean stale = true;
+
+    RowOffsetIndex(String filePath) {
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * 指定した行番号から読み始めるリーダーを作成します。
+     * 返したリーダーは次の{@link MappedCsvReader#next()}で指定した行を指します。
+     *
+     * @param row ヘッダーを除いたデータ行の番号（0始まり）
+     * @return 作成したリーダー、行番号がデータ行の数以上の場合はnull
+     * @throws IOException ファイルを読めない場合
+     */
+    MappedCsvReader openAt(int row) throws IOException {
+        Snapshot current = current();
+        if (row >= current.rowCount) {
+            return null;
+        }
+        MappedCsvReader reader = MappedCsvReader.open(path, current.offsets[row / STRIDE], Long.MAX_VALUE);
+        try {
+            for (int i = 0; i < row % STRIDE; i++) {
+                reader.next();
+            }
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * ヘッダーを除いたデータ行の数を取得します。
+     * @return データ行の数
+     * @throws IOException ファイルを読めない場合
+     */
+    int rowCount() throws IOException {
+        return current().rowCount;
+    }
+
+    /**
+     * 現在の索引をバイナリ形式で書き出します。
+     *
+     * @see #restore(ByteBuffer, long, long)
+     * @param out 書き出し先
+     * @throws IOException ファイルを読めない場合、または書き込みに失敗した場合
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        Snapshot current = current();
+        int slots = (current.rowCount + STRIDE - 1) / STRIDE;
+        out.writeInt(current.rowCount);
+        out.writeInt(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            out.writeLong(current.offsets[slot]);
+        }
+    }
+
+    /**
+     * {@link #writeTo(DataOutputStream)}で書き出した索引を、指定したファイルの状態のものとして復元します。
+     *
+     * @param in 索引の先頭を指しているバッファ。読み込んだ分だけ位置を進めます
+     * @param size 書き出したときのファイルのサイズ
+     * @param lastModified 書き出したときのファイルの更新日時
+     */
+    void restore(ByteBuffer in, long size, long lastModified) {
+        int rowCount = in.getInt();
+        int slots = in.getInt();
+        long[] offsets = new long[Math.max(slots, 1)];
+        in.asLongBuffer().get(offsets, 0, slots);
+        in.position(in.position() + slots * Long.BYTES);
+        snapshot = new Snapshot(size, lastModified, offsets, rowCount);
+    }
+
+    /**
+     * ファイルの監視を開始または終了します。
+     * @see UserDirectory#watch(boolean)
+     * @param watched 監視している場合はtrue
+     */
+    void watch(boolean watched) {
+        this.watched = watched;
+        stale = true;
+    }
+
+    /**
+     * ファイルが変更されたことを通知し、次の参照でファイルの状態を確認させます。
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    private Snapshot current() throws IOException {
+        Snapshot cached = snapshot;
+        if (watched && !stale && cached != null) {
+            return cached;
+        }
+        stale = false;
+        try {
+            return validate();
+        } catch (IOException e) {
+            stale = true;
+            throw e;
+        }
+    }
+
+    private Snapshot validate() throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+
+        Snapshot loaded = snapshot;
+        if (loaded != null && loaded.size == size && loaded.lastModified == lastModified) {
+            return loaded;
+        }
+        synchronized (this) {
+            loaded = snapshot;
+            if (loaded == null || loaded.size != size || loaded.lastModified != lastModified) {
+                loaded = load(size, lastModified);
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Snapshot load(long size, long lastModified) throws IOException {
+        long[] offsets = new long[16];
+        int rows = 0;
+        try (MappedCsvReader reader = MappedCsvReader.open(path, 0, Long.MAX_VALUE)) {
+            reader.next(); // ヘッダー行をスキップ
+
+            while (reader.next()) {
+                if (rows % STRIDE == 0) {
+                    int slot = rows / STRIDE;
+                    if (slot == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, slot * 2);
+                    }
+                    offsets[slot] = reader.rowOffset();
+                }
+                rows++;
+            }
+        }
+        return new Snapshot(size, lastModified, offsets, rows);
+    }
+
+    private static final class Snapshot {
+        private final long size;
+        private final long lastModified;
+        private final long[] offsets;
+        private final int rowCount;
+
+        private Snapshot(long size, long lastModified, long[] offsets, int rowCount) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.offsets = offsets;
+            this.rowCount = rowCount;
+        }
+    }
+}
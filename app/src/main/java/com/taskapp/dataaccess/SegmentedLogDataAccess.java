@@ -0,0 +1,314 @@
+package com.taskapp.dataaccess;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.taskapp.model.Log;
+import com.taskapp.util.LogAppendEvent;
+import com.taskapp.util.OperationMetrics;
+
+/**
+ * ログを変更日の月ごとのCSVファイル（セグメント）に分けて保存するデータアクセスです。
+ *
+ * <p>セグメントはディレクトリ内の{@code logs-YYYY-MM.csv}というファイルで、
+ * 形式は{@code logs.csv}と同じです。ファイル名の月がそのセグメントに含まれるログの変更日の範囲を表すため、
+ * 期間を指定した検索では期間と重なるセグメントのみを開きます。
+ * 古いセグメントはファイルごと移動または削除でき、他のセグメントは書き換えません。</p>
+ */
+public class SegmentedLogDataAccess extends LogDataAccess {
+    private static final String PREFIX = "logs-";
+    private static final String SUFFIX = ".csv";
+    private static final String HEADER = "Task_Code,Change_User_Code,Status,Change_Date";
+
+    private final Path directory;
+    /** セグメントごとのタスクコードの索引 */
+    private final Map<Path, LogIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory セグメントを保存するディレクトリのパス
+     */
+    public SegmentedLogDataAccess(String directory) {
+        super(directory, null, null, null);
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * ログを変更日の月のセグメントに追記します。セグメントが存在しない場合はヘッダーを書き込んで作成します。
+     *
+     * @param log 保存するログ
+     * @return 書き込みが完了したハンドル
+     */
+    @Override
+    public CompletableFuture<Void> save(Log log) {
+        long start = SAVE.start();
+        try {
+            return writeSegments(List.of(log), SAVE, "save");
+        } finally {
+            SAVE.stop(start);
+        }
+    }
+
+    /**
+     * 複数のログを変更日の月ごとのセグメントに追記します。
+     * 書き込み先のセグメントはすべて開いたまま順に書き込み、最後にまとめて閉じます。
+     *
+     * @param logs 保存するログ
+     * @return 書き込みが完了したハンドル
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Iterable<Log> logs) {
+        long start = SAVE_ALL.start();
+        try {
+            return writeSegments(logs, SAVE_ALL, "saveAll");
+        } finally {
+            SAVE_ALL.stop(start);
+        }
+    }
+
+    private CompletableFuture<Void> writeSegments(Iterable<Log> logs, OperationMetrics metrics, String operation) {
+        LogAppendEvent event = new LogAppendEvent();
+        event.begin();
+        long rows = 0;
+        long bytes = 0;
+        Map<YearMonth, BufferedWriter> writers = new TreeMap<>();
+        IOException failure = null;
+        try {
+            for (Log log : logs) {
+                YearMonth month = YearMonth.from(log.getChangeDate());
+                BufferedWriter writer = writers.get(month);
+                if (writer == null) {
+                    writer = openForAppend(segmentPath(month));
+                    writers.put(month, writer);
+                }
+                String line = createLine(log);
+                writer.write(line);
+                writer.newLine();
+                long lineBytes = OperationMetrics.utf8Length(line) + 1;
+                metrics.addRows(1);
+                metrics.addBytesWritten(lineBytes);
+                rows++;
+                bytes += lineBytes;
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (Map.Entry<YearMonth, BufferedWriter> entry : writers.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            }
+            LogIndex index = indexes.get(segmentPath(entry.getKey()));
+            if (index != null) {
+                index.refreshIfLoaded();
+            }
+        }
+        if (failure != null) {
+            failure.printStackTrace();
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (event.shouldCommit()) {
+            // 複数のセグメントに書き込む場合があるため、パスにはディレクトリを記録する
+            event.set(operation, directory.toString(), rows, bytes);
+            event.commit();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * すべてのセグメントを古い月から順に読み込むストリームを作成します。
+     *
+     * @return ログのストリーム
+     * @throws IOException ディレクトリを読めない場合
+     */
+    @Override
+    protected Stream<Log> openStream() throws IOException {
+        return openSegments(listSegments().values());
+    }
+
+    /**
+     * 変更日が指定した期間に含まれるログを記録順に取得します。
+     * 期間と重なる月のセグメントのみを開き、期間の両端の月のセグメントだけを変更日で絞り込みます。
+     *
+     * @param from 期間の開始日（この日を含みます）
+     * @param to 期間の終了日（この日を含みます）
+     * @return 該当するログのリスト
+     */
+    @Override
+    public List<Log> findByDateRange(LocalDate from, LocalDate to) {
+        long start = FIND_BY_DATE_RANGE.start();
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        try {
+            List<Path> segments = new ArrayList<>(listSegments().subMap(first, true, last, true).values());
+            try (Stream<Log> logs = openSegments(segments)) {
+                List<Log> result = logs
+                    .filter(log -> !log.getChangeDate().isBefore(from) && !log.getChangeDate().isAfter(to))
+                    .collect(Collectors.toCollection(ArrayList::new));
+                FIND_BY_DATE_RANGE.addRows(result.size());
+                return result;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_BY_DATE_RANGE.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 指定したタスクコードのログを記録順に取得します。
+     * セグメントごとにタスクコードの索引を持ち、古い月のセグメントから順に該当する行のみを読み込みます。
+     *
+     * @param taskCode タスクコード
+     * @return 該当するログのリスト
+     */
+    @Override
+    public List<Log> findByTaskCode(int taskCode) {
+        long start = FIND_BY_TASK_CODE.start();
+        List<Log> result = new ArrayList<>();
+        try {
+            for (Path segment : listSegments().values()) {
+                result.addAll(indexes.computeIfAbsent(segment, path -> new LogIndex(path.toString())).find(taskCode));
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_BY_TASK_CODE.addRows(result.size());
+            FIND_BY_TASK_CODE.stop(start);
+        }
+        return result;
+    }
+
+    /**
+     * 指定した月より前のセグメントを、ファイルごと保管用のディレクトリへ移動します。
+     * 移動したセグメントは以降の検索の対象になりません。
+     *
+     * @param keepFrom 残す最も古い月
+     * @param archiveDirectory 保管用のディレクトリのパス
+     * @return 移動したセグメントの数
+     */
+    public int archiveBefore(YearMonth keepFrom, String archiveDirectory) {
+        Path archive = Paths.get(archiveDirectory);
+        int moved = 0;
+        try {
+            Files.createDirectories(archive);
+            for (Path segment : listSegments().headMap(keepFrom).values()) {
+                indexes.remove(segment);
+                Files.move(segment, archive.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                Files.deleteIfExists(Paths.get(segment + ".idx"));
+                moved++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return moved;
+    }
+
+    /**
+     * 指定した月より前のセグメントを、ファイルごと削除します。
+     *
+     * @param keepFrom 残す最も古い月
+     * @return 削除したセグメントの数
+     */
+    public int dropBefore(YearMonth keepFrom) {
+        int dropped = 0;
+        try {
+            for (Path segment : listSegments().headMap(keepFrom).values()) {
+                indexes.remove(segment);
+                Files.delete(segment);
+                Files.deleteIfExists(Paths.get(segment + ".idx"));
+                dropped++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return dropped;
+    }
+
+    /**
+     * 1つのCSVファイルに保存したログを、月ごとのセグメントに分けて追記します。
+     *
+     * @param csvFilePath 変換元のCSVファイルのパス
+     * @param directory セグメントを保存するディレクトリのパス
+     */
+    public static void importCsv(String csvFilePath, String directory) {
+        try (Stream<Log> logs = openCsvStream(csvFilePath)) {
+            new SegmentedLogDataAccess(directory).saveAll(logs::iterator).join();
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Stream<Log> openSegments(Iterable<Path> segments) {
+        List<Path> paths = new ArrayList<>();
+        segments.forEach(paths::add);
+        // セグメントは要素が要求されたときに1つずつ開き、読み終えたものから閉じる
+        return paths.stream().flatMap(segment -> {
+            try {
+                return openCsvStream(segment.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * ディレクトリ内のセグメントを月の順に一覧します。
+     * @return 月をキーとしたセグメントのパス
+     * @throws IOException ディレクトリを読めない場合
+     */
+    private TreeMap<YearMonth, Path> listSegments() throws IOException {
+        TreeMap<YearMonth, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    try {
+                        segments.put(YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length())),
+                            file);
+                    } catch (DateTimeParseException e) {
+                        // セグメントではないファイルは無視する
+                    }
+                }
+            });
+        }
+        return segments;
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+
+    private static BufferedWriter openForAppend(Path segment) throws IOException {
+        Files.createDirectories(segment.getParent());
+        boolean created = !Files.exists(segment);
+        BufferedWriter writer = new BufferedWriter(new FileWriter(segment.toFile(), StandardCharsets.UTF_8, true));
+        if (created) {
+            writer.write(HEADER);
+            writer.newLine();
+        }
+        return writer;
+    }
+}
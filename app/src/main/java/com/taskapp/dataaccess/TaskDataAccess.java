@@ -1,24 +1,65 @@
 package com.taskapp.dataaccess;
 
+import com.taskapp.model.Log;
 import com.taskapp.model.Task;
+import com.taskapp.model.TaskPage;
 import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
+import com.taskapp.util.TaskFileRewriteEvent;
+import com.taskapp.util.TaskFileScanEvent;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class TaskDataAccess {
+    private static final OperationMetrics FIND_ALL = Metrics.operation("TaskDataAccess.findAll");
+    private static final OperationMetrics LOAD_TABLE = Metrics.operation("TaskDataAccess.loadTable");
+    private static final OperationMetrics FIND_PAGE = Metrics.operation("TaskDataAccess.findPage");
+    private static final OperationMetrics FIND_BY_CODE = Metrics.operation("TaskDataAccess.findByCode");
+    private static final OperationMetrics SAVE = Metrics.operation("TaskDataAccess.save");
+    private static final OperationMetrics SAVE_ALL = Metrics.operation("TaskDataAccess.saveAll");
+    private static final OperationMetrics UPDATE = Metrics.operation("TaskDataAccess.update");
 
     private final String filePath;
     private final UserDataAccess userDataAccess;
+    private final TaskJournal journal;
+    private final RowOffsetIndex rowIndex;
+    /** ジャーナルモードでない場合に、追記と全体の書き直しが重ならないようにするロック */
+    private final Object writeLock = new Object();
+    /** スナップショットから復元した表。タスクのファイルが復元時の状態のままである間のみ利用する */
+    private volatile RestoredTable restoredTable;
+    private volatile ParallelCsvLoader loader = ParallelCsvLoader.DEFAULT;
+    /** ファイルを監視している間は、復元した表の検証でファイルの属性を読まない */
+    private volatile boolean watched;
 
     public TaskDataAccess() {
         filePath = "app/src/main/resources/tasks.csv";
         this.userDataAccess = new UserDataAccess();
+        this.journal = null;
+        this.rowIndex = new RowOffsetIndex(filePath);
     }
 
     /**
@@ -27,109 +68,583 @@ public class TaskDataAccess {
      * @param userDataAccess
      */
     public TaskDataAccess(String filePath, UserDataAccess userDataAccess) {
+        this(filePath, userDataAccess, false);
+    }
+
+    /**
+     * ジャーナルモードを指定してインスタンスを作成します。
+     * ジャーナルモードでは追加・更新を{@code <filePath>.journal}への追記として記録し、
+     * 読み込み時にCSVと合成します。溜まったジャーナルはバックグラウンドでCSVへ畳み込まれます。
+     *
+     * @param filePath タスクのCSVファイルのパス
+     * @param userDataAccess 担当ユーザーの解決に利用するデータアクセス
+     * @param journaled ジャーナルモードを有効にする場合はtrue
+     */
+    public TaskDataAccess(String filePath, UserDataAccess userDataAccess, boolean journaled) {
         this.filePath = filePath;
         this.userDataAccess = userDataAccess;
+        this.journal = journaled ? new TaskJournal(filePath, TaskJournal.DEFAULT_COMPACT_THRESHOLD) : null;
+        this.rowIndex = new RowOffsetIndex(filePath);
+        if (journal != null) {
+            journal.onBaseReplaced(this::invalidate);
+        }
+    }
+
+    /**
+     * タスクとログの変更を1つの先行書き込みログに記録するインスタンスを作成します。
+     * ジャーナルモードに加えて、{@link #save(Task, Log, LogDataAccess)}と
+     * {@link #update(Task, Log, LogDataAccess)}はタスクの変更と変更ログを1行にまとめ、1回の同期で記録します。
+     * ログのファイルへは、溜まったジャーナルをタスクのCSVへ畳み込むときにまとめて追記します。
+     * 起動時には前回の終了時に残っていた記録を読み込み、途中で終わったコンパクションをやり直します。
+     *
+     * @param filePath タスクのCSVファイルのパス
+     * @param userDataAccess 担当ユーザーの解決に利用するデータアクセス
+     * @param logDataAccess 変更ログを保存するデータアクセス。CSVに直接追記するものを指定してください
+     * @throws IllegalArgumentException ログのデータアクセスが書き込みサービスを利用している場合、または形式ごとのサブクラスの場合
+     */
+    public TaskDataAccess(String filePath, UserDataAccess userDataAccess, LogDataAccess logDataAccess) {
+        logDataAccess.requireJournalable();
+        this.filePath = filePath;
+        this.userDataAccess = userDataAccess;
+        this.journal = new TaskJournal(filePath, TaskJournal.DEFAULT_COMPACT_THRESHOLD, logDataAccess.filePath());
+        this.rowIndex = new RowOffsetIndex(filePath);
+        journal.onBaseReplaced(this::invalidate);
+        logDataAccess.attach(journal);
     }
 
     /**
      * CSVから全てのタスクデータを取得します。
+     * 担当ユーザーは読み込み前に一度だけ取得したユーザー表から解決します。
+     * 同じ担当ユーザーのタスクは1つの{@link User}インスタンスを共有し、行ごとにユーザーを作成しません。
+     * 担当ユーザーが存在しないタスクは結果に含めません。
+     * ファイルが並列に読み込む大きさの場合は、{@link ParallelCsvLoader}で範囲ごとに並列に解析します。
      *
-     * @see com.taskapp.dataaccess.UserDataAccess#findByCode(int)
+     * @see com.taskapp.dataaccess.UserDataAccess#findAllAsTable()
+     * @see #setParallelLoader(ParallelCsvLoader)
      * @return タスクのリスト
      */
     public List<Task> findAll() {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            List<Task> tasks = new ArrayList<>();
-            String line;
-            br.readLine();
-    
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    int code = Integer.parseInt(parts[0].trim());
-                    String name = parts[1].trim();
-                    int status = Integer.parseInt(parts[2].trim());
-                    int repUserCode = Integer.parseInt(parts[3].trim());
-                    User repUser = userDataAccess.findByCode(repUserCode);
-
-                    if (repUser != null) {
-                        tasks.add(new Task(code, name, status, repUser));
-                    }
+        long start = FIND_ALL.start();
+        IntObjectMap<User> users = userDataAccess.findAllAsTable();
+        try {
+            List<Task> result;
+            if (loader.accepts(Files.size(Paths.get(filePath)))) {
+                result = journal != null
+                    ? journal.read(state -> loadParallel(users, state))
+                    : loadParallel(users, null);
+            } else {
+                try (Stream<Task> tasks = openStream(users, "findAll")) {
+                    result = tasks.collect(Collectors.toCollection(ArrayList::new));
                 }
             }
-            return tasks;
-        } catch (IOException e) {
+            FIND_ALL.addRows(result.size());
+            return result;
+        } catch (IOException | UncheckedIOException e) {
             e.printStackTrace();
+        } finally {
+            FIND_ALL.stop(start);
         }
         return null;
     }
 
+    /**
+     * CSVのタスクデータを1行ずつ読み込むストリームを取得します。
+     * 行は要素が要求されたときに解析されるため、{@code limit}や{@code findFirst}で途中で打ち切れます。
+     * 利用後は必ずストリームを閉じてファイルを解放してください。
+     * 担当ユーザーが存在しないタスクは{@link #findAll()}と同様に含めません。
+     *
+     * @see #findAll()
+     * @return タスクのストリーム、ファイルを開けない場合は空のストリーム
+     */
+    public Stream<Task> stream() {
+        try {
+            return openStream(userDataAccess.findAllAsTable(), "stream");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * 全てのタスクを列ごとの配列に読み込んだ表を取得します。
+     * 集計や絞り込みのように多くの行を走査する場合に利用し、{@link Task}は必要な行に対してのみ作成します。
+     * ジャーナルモードではジャーナルの更新・追加を反映した内容を読み込みます。
+     * スナップショットから復元した表がある場合は、タスクとユーザーのファイルが復元時から変わっていなければ
+     * ファイルを読まずにその表を返します。
+     *
+     * @see TaskTable
+     * @see DataSnapshot#restore()
+     * @return 読み込んだ表、読み込めない場合は空の表
+     */
+    public TaskTable loadTable() {
+        long start = LOAD_TABLE.start();
+        IntObjectMap<User> users = userDataAccess.findAllAsTable();
+        try {
+            RestoredTable restored = restoredTable;
+            TaskTable table;
+            if (restored != null && restored.users == users && (watched || restored.version.equals(version()))) {
+                table = restored.table;
+            } else {
+                restoredTable = null;
+                table = journal != null
+                    ? journal.read(state -> readTable(users, state))
+                    : readTable(users, null);
+            }
+            LOAD_TABLE.addRows(table.size());
+            return table;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            LOAD_TABLE.stop(start);
+        }
+        return new TaskTable.Builder(users).build();
+    }
+
+    /**
+     * カーソルの位置から1ページ分のタスクを取得します。
+     * 行の位置の索引を使って読み始める位置へ移動し、ページに含める行のみを解析します。
+     * 担当ユーザーが存在しないタスクは{@link #findAll()}と同様に含めず、その分だけ先の行まで読みます。
+     *
+     * @param cursor 読み始めるデータ行の番号（最初のページは0）
+     * @param pageSize 1ページのタスク数
+     * @return 取得したページ、読み込めない場合は空のページ
+     */
+    public TaskPage findPage(int cursor, int pageSize) {
+        long start = FIND_PAGE.start();
+        IntObjectMap<User> users = userDataAccess.findAllAsTable();
+        try {
+            TaskPage page = journal != null
+                ? journal.read(state -> readPage(cursor, pageSize, users, state))
+                : readPage(cursor, pageSize, users, null);
+            FIND_PAGE.addRows(page.getTasks().size());
+            return page;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            FIND_PAGE.stop(start);
+        }
+        return new TaskPage(new ArrayList<>(), cursor, -1);
+    }
+
     /**
      * タスクをCSVに保存します。
+     * ジャーナルモードではジャーナルへの追記のみを行います。
+     *
      * @param task 保存するタスク
+     * @throws UncheckedIOException 書き込みに失敗した場合
      */
     public void save(Task task) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
-            // タスクデータをCSV形式で追記
-            String line = createLine(task);
-            writer.write(line);
-            writer.newLine();
+        long start = SAVE.start();
+        String line = createLine(task);
+        try {
+            if (journal != null) {
+                journal.appendInsert(line);
+                return;
+            }
+            synchronized (writeLock) {
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, StandardCharsets.UTF_8, true))) {
+                    // タスクデータをCSV形式で追記
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            invalidate();
+            SAVE.addRows(1);
+            SAVE.addBytesWritten(line, 1);
+            SAVE.stop(start);
+        }
+    }
+
+    /**
+     * タスクとその作成ログを1行の記録として、1回の同期で先行書き込みログに追記します。
+     *
+     * @see #sharesJournal(LogDataAccess)
+     * @param task 保存するタスク
+     * @param log 作成ログ
+     * @param logDataAccess ジャーナルを共有しているログのデータアクセス
+     * @return 記録と同期が完了したハンドル。失敗した場合は例外で完了したハンドルで、タスクとログはどちらも記録されません
+     * @throws IllegalStateException ログのデータアクセスとジャーナルを共有していない場合
+     */
+    public CompletableFuture<Void> save(Task task, Log log, LogDataAccess logDataAccess) {
+        requireSharedJournal(logDataAccess);
+        long start = SAVE.start();
+        String line = createLine(task);
+        try {
+            journal.appendInsert(line, logDataAccess.createLine(log));
+            return CompletableFuture.completedFuture(null);
         } catch (IOException e) {
             e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            invalidate();
+            SAVE.addRows(1);
+            SAVE.addBytesWritten(line, 1);
+            SAVE.stop(start);
+        }
+    }
+
+    /**
+     * 複数のタスクを1回の書き込みでCSVに追記します。
+     * タスクは順に取り出しながら書き込むため、呼び出し側はファイルから読み込みながら渡せます。
+     * ジャーナルモードではジャーナルへの1回の追記になります。
+     *
+     * @param tasks 保存するタスク
+     * @throws UncheckedIOException 書き込みに失敗した場合
+     */
+    public void saveAll(Iterable<Task> tasks) {
+        long start = SAVE_ALL.start();
+        try {
+            if (journal != null) {
+                journal.appendInserts(() -> StreamSupport.stream(tasks.spliterator(), false)
+                    .map(this::createCountedLine)
+                    .iterator());
+                return;
+            }
+            synchronized (writeLock) {
+                try (BufferedWriter writer = new BufferedWriter(
+                    new FileWriter(filePath, StandardCharsets.UTF_8, true), 64 * 1024)) {
+                    for (Task task : tasks) {
+                        writer.write(createCountedLine(task));
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            invalidate();
+            SAVE_ALL.stop(start);
         }
     }
 
+    /**
+     * 取り込み用のCSVを1行ずつ読み込むストリームを取得します。
+     * 先頭のヘッダー行と空行は含めず、各行は前後の空白を取り除いた項目の配列として返します。
+     * 利用後は必ずストリームを閉じてファイルを解放してください。
+     *
+     * @param importFilePath 取り込むCSVファイルのパス
+     * @return 項目の配列のストリーム
+     * @throws IOException ファイルを開けない場合
+     */
+    public Stream<String[]> openImport(String importFilePath) throws IOException {
+        MappedCsvReader reader = MappedCsvReader.open(importFilePath);
+        try {
+            reader.next(); // ヘッダー行をスキップ
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        Spliterator<String[]> rows = new Spliterators.AbstractSpliterator<String[]>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String[]> action) {
+                try {
+                    while (reader.next()) {
+                        if (reader.fieldCount() > 0) {
+                            String[] fields = new String[reader.fieldCount()];
+                            for (int i = 0; i < fields.length; i++) {
+                                fields[i] = reader.getString(i);
+                            }
+                            action.accept(fields);
+                            return true;
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> LogDataAccess.closeQuietly(reader));
+    }
+
     /**
      * コードを基にタスクデータを1件取得します。
+     *
+     * @see com.taskapp.dataaccess.UserDataAccess#findAllAsTable()
      * @param code 取得するタスクのコード
      * @return 取得したタスク
      */
-    
     public Task findByCode(int code) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            br.readLine(); // ヘッダー行をスキップ
-    
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    int csvCode = Integer.parseInt(parts[0].trim());
-                    if (csvCode == code) {
-                        String name = parts[1].trim();
-                        int status = Integer.parseInt(parts[2].trim());
-                        int repUserCode = Integer.parseInt(parts[3].trim());
-                        User repUser = userDataAccess.findByCode(repUserCode);
-                        return new Task(csvCode, name, status, repUser);
-                    }
+        long start = FIND_BY_CODE.start();
+        IntObjectMap<User> users = userDataAccess.findAllAsTable();
+        try {
+            if (journal != null) {
+                try {
+                    return journal.read(state -> readByCode(code, users, state));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return null;
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            return readByCode(code, users, null);
+        } finally {
+            FIND_BY_CODE.stop(start);
         }
-        return null;
     }
-    
-    
+
     /**
      * タスクデータを更新します。
+     * ジャーナルモードでは更新内容をジャーナルに1行追記するだけで、CSV全体は書き換えません。
+     * 通常モードでは担当ユーザーの解決に{@link #findAll()}の一括解決をそのまま利用します。
+     *
+     * @see #findAll()
      * @param updateTask 更新するタスク
+     * @throws UncheckedIOException 書き込みに失敗した場合。ファイルは変更されません
      */
     public void update(Task updateTask) {
-        List<Task> tasks = findAll();
-        
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("code,name,status,repUserCode\n");
-            for (Task t : tasks) {
-                if (t.getCode() == updateTask.getCode()) {
-                    writer.write(createLine(updateTask) + "\n");
-                } else {
-                    writer.write(createLine(t) + "\n");
+        long start = UPDATE.start();
+        try {
+            if (journal != null) {
+                String line = createLine(updateTask);
+                journal.appendUpdate(line);
+                UPDATE.addBytesWritten(line, 1);
+                return;
+            }
+            rewrite(updateTask);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            invalidate();
+            UPDATE.stop(start);
+        }
+    }
+
+    /**
+     * タスクの更新とその変更ログを1行の記録として、1回の同期で先行書き込みログに追記します。
+     *
+     * @see #sharesJournal(LogDataAccess)
+     * @param updateTask 更新するタスク
+     * @param log 変更ログ
+     * @param logDataAccess ジャーナルを共有しているログのデータアクセス
+     * @return 記録と同期が完了したハンドル。失敗した場合は例外で完了したハンドルで、タスクとログはどちらも記録されません
+     * @throws IllegalStateException ログのデータアクセスとジャーナルを共有していない場合
+     */
+    public CompletableFuture<Void> update(Task updateTask, Log log, LogDataAccess logDataAccess) {
+        requireSharedJournal(logDataAccess);
+        long start = UPDATE.start();
+        try {
+            String line = createLine(updateTask);
+            journal.appendUpdate(line, logDataAccess.createLine(log));
+            UPDATE.addBytesWritten(line, 1);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            invalidate();
+            UPDATE.stop(start);
+        }
+    }
+
+    /**
+     * ログのデータアクセスと先行書き込みログを共有しているかどうかを取得します。
+     *
+     * @see #TaskDataAccess(String, UserDataAccess, LogDataAccess)
+     * @param logDataAccess ログのデータアクセス
+     * @return 共有している場合はtrue
+     */
+    public boolean sharesJournal(LogDataAccess logDataAccess) {
+        return journal != null && logDataAccess.journal() == journal;
+    }
+
+    private void requireSharedJournal(LogDataAccess logDataAccess) {
+        if (!sharesJournal(logDataAccess)) {
+            throw new IllegalStateException("ログのデータアクセスと先行書き込みログを共有していません");
+        }
+    }
+
+    /**
+     * 更新するタスクを差し替えた内容でCSV全体を書き直します。
+     * @throws IOException 一時ファイルの書き出しまたは差し替えに失敗した場合
+     */
+    private void rewrite(Task updateTask) throws IOException {
+        synchronized (writeLock) {
+            List<Task> tasks = findAll();
+            if (tasks == null) {
+                return;
+            }
+
+            TaskFileRewriteEvent event = new TaskFileRewriteEvent();
+            event.begin();
+            // 読み込み中のセッションが書きかけのファイルを読まないよう、一時ファイルに書いてから差し替える
+            Path tmpPath = Paths.get(filePath + ".tmp");
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmpPath.toFile(), StandardCharsets.UTF_8))) {
+                writer.write("code,name,status,repUserCode\n");
+                for (Task t : tasks) {
+                    String line = createLine(t.getCode() == updateTask.getCode() ? updateTask : t);
+                    writer.write(line + "\n");
+                    UPDATE.addBytesWritten(line, 1);
                 }
+                UPDATE.addRows(tasks.size());
             }
+            long bytes = event.shouldCommit() ? Files.size(tmpPath) : 0;
+            Files.move(tmpPath, Paths.get(filePath), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+            if (event.shouldCommit()) {
+                event.set("update", filePath, tasks.size(), bytes);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * ジャーナルに溜まった変更をCSVへ畳み込みます。
+     * 通常はバックグラウンドで自動的に実行されるため、終了時などに明示的に呼び出す場合のみ利用します。
+     * ジャーナルモードでない場合は何もしません。
+     */
+    public void compact() {
+        if (journal != null) {
+            journal.compact();
+        }
+    }
+
+    /**
+     * 保存した担当ユーザー・ステータスごとのタスク数を読み込みます。
+     * 保存したときからタスクのファイルが変更されている場合は、内容が古いため読み込みません。
+     *
+     * @see #saveStatistics(Map)
+     * @return 担当ユーザーコードをキーとしたステータスごとのタスク数、保存されていないか古い場合はnull
+     */
+    public Map<Integer, int[]> loadStatistics() {
+        Path statsPath = Paths.get(filePath + ".stats");
+        if (!Files.exists(statsPath)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(statsPath, StandardCharsets.UTF_8)) {
+            if (!version().equals(reader.readLine())) {
+                return null;
+            }
+            reader.readLine(); // ヘッダー行をスキップ
+
+            Map<Integer, int[]> counts = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                int[] row = new int[values.length - 1];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = Integer.parseInt(values[i + 1]);
+                }
+                counts.put(Integer.parseInt(values[0]), row);
+            }
+            return counts;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 担当ユーザー・ステータスごとのタスク数を{@code <filePath>.stats}に保存します。
+     * 次回の起動時にタスクを全件読み込まずに集計を利用するためのもので、
+     * 保存時のタスクのファイルの大きさと更新日時を合わせて記録します。
+     *
+     * @param counts 担当ユーザーコードをキーとしたステータスごとのタスク数
+     */
+    public void saveStatistics(Map<Integer, int[]> counts) {
+        Path statsPath = Paths.get(filePath + ".stats");
+        Path tmpPath = Paths.get(filePath + ".stats.tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpPath, StandardCharsets.UTF_8)) {
+                writer.write(version() + "\n");
+                writer.write("repUserCode,notStarted,inProgress,done\n");
+                for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+                    writer.write(Integer.toString(entry.getKey()));
+                    for (int count : entry.getValue()) {
+                        writer.write("," + count);
+                    }
+                    writer.write("\n");
+                }
+            }
+            Files.move(tmpPath, statsPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * {@link #findAll()}で大きなファイルを並列に読み込む方法を設定します。
+     * 既定では共通の{@link java.util.concurrent.ForkJoinPool}を利用し、
+     * {@value ParallelCsvLoader#DEFAULT_THRESHOLD}バイト以上のファイルを並列に読み込みます。
+     *
+     * @param loader 並列の読み込み
+     */
+    public void setParallelLoader(ParallelCsvLoader loader) {
+        this.loader = loader;
+    }
+
+    String filePath() {
+        return filePath;
+    }
+
+    RowOffsetIndex rowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * タスクのファイルの監視を開始または終了します。
+     * 監視を始めるときは、復元した表がその時点のファイルと一致するかを一度だけ確認します。
+     *
+     * @see DataFileWatcher
+     * @param watched 監視している場合はtrue
+     */
+    void watch(boolean watched) {
+        RestoredTable restored = restoredTable;
+        if (watched && restored != null) {
+            try {
+                if (!restored.version.equals(version())) {
+                    restoredTable = null;
+                }
+            } catch (IOException e) {
+                restoredTable = null;
+            }
+        }
+        this.watched = watched;
+        rowIndex.watch(watched);
+    }
+
+    /**
+     * タスクのファイルが変更されたことを通知します。
+     * 行の位置の索引は次の参照でファイルの状態を確認し、復元した表は以降利用しません。
+     * 自身の書き込みの後にも呼び出し、監視の通知を待たずに反映します。
+     */
+    void invalidate() {
+        rowIndex.invalidate();
+        restoredTable = null;
+    }
+
+    /**
+     * スナップショットから読み込んだ表を、指定した版のファイルの内容として登録します。
+     *
+     * @param table 読み込んだ表
+     * @param version 書き出したときの{@link #version()}
+     */
+    void restoreTable(TaskTable table, String version) {
+        restoredTable = new RestoredTable(table, version, userDataAccess.findAllAsTable());
+    }
+
+    /**
+     * タスクのファイル（ジャーナルモードではジャーナルを含む）の大きさと更新日時を表す文字列を作成します。
+     * @return ファイルの版を表す文字列
+     * @throws IOException ファイルの属性を読めない場合
+     */
+    String version() throws IOException {
+        StringBuilder version = new StringBuilder();
+        Path[] paths = journal != null
+            ? new Path[] {Paths.get(filePath), Paths.get(filePath + ".journal")}
+            : new Path[] {Paths.get(filePath)};
+        for (Path path : paths) {
+            if (Files.exists(path)) {
+                version.append(Files.size(path)).append(':').append(Files.getLastModifiedTime(path).toMillis());
+            }
+            version.append(';');
+        }
+        return version.toString();
+    }
+
     /**
      * コードを基にタスクデータを削除します。
      * @param code 削除するタスクのコード
@@ -142,6 +657,246 @@ public class TaskDataAccess {
     //     }
     // }
 
+    /**
+     * CSVを開き、ジャーナルの変更を反映したタスクのストリームを作成します。
+     * ジャーナルモードではジャーナルの内容とCSVのファイルを同時点のものとして取得するため、
+     * 読み込み中にコンパクションでCSVが差し替えられても結果は変わりません。
+     *
+     * @param users コードをキーとしたユーザー表
+     * @return タスクのストリーム
+     * @throws IOException ファイルを開けない場合
+     */
+    private Stream<Task> openStream(IntObjectMap<User> users, String operation) throws IOException {
+        if (journal != null) {
+            return journal.read(state -> openStream(users, state, operation));
+        }
+        return openStream(users, null, operation);
+    }
+
+    private Stream<Task> openStream(IntObjectMap<User> users, TaskJournal.State state, String operation)
+            throws IOException {
+        MappedCsvReader reader = MappedCsvReader.open(filePath).traced(new TaskFileScanEvent(), operation);
+        try {
+            reader.next(); // ヘッダー行をスキップ
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return StreamSupport.stream(new TaskSpliterator(reader, users, state), false)
+            .onClose(() -> LogDataAccess.closeQuietly(reader));
+    }
+
+    /**
+     * CSVの行を並列に解析し、ジャーナルで追加されたタスクを続けます。
+     */
+    private List<Task> loadParallel(IntObjectMap<User> users, TaskJournal.State state) throws IOException {
+        TaskFileScanEvent event = new TaskFileScanEvent();
+        event.begin();
+        Path path = Paths.get(filePath);
+        List<Task> tasks = loader.load(path, reader -> {
+            if (reader.fieldCount() != 4) {
+                return null;
+            }
+            Task task = toTask(reader, users, state);
+            return task != null && task.getRepUser() != null ? task : null;
+        });
+        if (state != null) {
+            for (String[] inserted : state.inserts()) {
+                Task task = toTask(inserted, users);
+                if (task.getRepUser() != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        if (event.shouldCommit()) {
+            event.set("findAll", filePath, tasks.size(), Files.size(path));
+            event.commit();
+        }
+        return tasks;
+    }
+
+    /**
+     * CSVの行、ジャーナルで追加されたタスクの順に表へ読み込みます。
+     */
+    private TaskTable readTable(IntObjectMap<User> users, TaskJournal.State state) throws IOException {
+        TaskTable.Builder builder = new TaskTable.Builder(users);
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath).traced(new TaskFileScanEvent(), "loadTable")) {
+            reader.next(); // ヘッダー行をスキップ
+
+            while (reader.next()) {
+                if (reader.fieldCount() == 4) {
+                    String[] updated = state != null ? state.updateOf(reader.getInt(0)) : null;
+                    if (updated != null) {
+                        builder.add(updated);
+                    } else {
+                        builder.add(reader);
+                    }
+                }
+            }
+        }
+        if (state != null) {
+            for (String[] inserted : state.inserts()) {
+                builder.add(inserted);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * カーソルの位置から、CSVの行、ジャーナルで追加されたタスクの順に1ページ分を読み込みます。
+     * ジャーナルで追加されたタスクはCSVの行の続きの番号として数えます。
+     */
+    private TaskPage readPage(int cursor, int pageSize, IntObjectMap<User> users, TaskJournal.State state)
+            throws IOException {
+        List<Task> tasks = new ArrayList<>(pageSize);
+        int baseRows = rowIndex.rowCount();
+        int row = cursor;
+        try (MappedCsvReader reader = rowIndex.openAt(row)) {
+            if (reader != null) {
+                reader.traced(new TaskFileScanEvent(), "findPage");
+            }
+            while (reader != null && tasks.size() < pageSize && reader.next()) {
+                row++;
+                if (reader.fieldCount() == 4) {
+                    Task task = toTask(reader, users, state);
+                    if (task != null && task.getRepUser() != null) {
+                        tasks.add(task);
+                    }
+                }
+            }
+        }
+        List<String[]> inserts = state != null ? state.inserts() : Collections.emptyList();
+        if (tasks.size() < pageSize) {
+            row = Math.max(row, baseRows);
+        }
+        while (tasks.size() < pageSize && row - baseRows < inserts.size()) {
+            Task task = toTask(inserts.get(row - baseRows), users);
+            row++;
+            if (task.getRepUser() != null) {
+                tasks.add(task);
+            }
+        }
+        int rows = baseRows + inserts.size();
+        return new TaskPage(tasks, cursor, row < rows ? row : -1);
+    }
+
+    /**
+     * CSVからコードが一致する最初の行を探し、ジャーナルの変更を反映したタスクを作成します。
+     * 一致しない行はコードの列のみを解析します。
+     *
+     * @param code 取得するタスクのコード
+     * @param users コードをキーとしたユーザー表
+     * @param state ジャーナルの変更内容、通常モードではnull
+     * @return 取得したタスク
+     */
+    private Task readByCode(int code, IntObjectMap<User> users, TaskJournal.State state) {
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath).traced(new TaskFileScanEvent(), "findByCode")) {
+            reader.next(); // ヘッダー行をスキップ
+    
+            while (reader.next()) {
+                if (reader.fieldCount() == 4 && reader.getInt(0) == code) {
+                    String[] updated = state != null ? state.updateOf(code) : null;
+                    if (updated != null) {
+                        return toTask(updated, users);
+                    }
+                    User repUser = users.get(reader.getInt(3));
+                    return new Task(code, reader.getString(1), reader.getInt(2), repUser);
+                }
+            }
+            if (state != null) {
+                for (String[] inserted : state.inserts()) {
+                    if (Integer.parseInt(inserted[0].trim()) == code) {
+                        return toTask(inserted, users);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * リーダーの現在の行からタスクを作成します。ジャーナルに更新内容があればそちらを優先します。
+     * 担当ユーザーが存在しない行はタスク名の文字列を作らずにnullを返します。
+     *
+     * @param reader 行を指しているリーダー
+     * @param users コードをキーとしたユーザー表
+     * @param state ジャーナルの変更内容、通常モードではnull
+     * @return 作成したタスク、担当ユーザーが存在しない場合はnull
+     */
+    private Task toTask(MappedCsvReader reader, IntObjectMap<User> users, TaskJournal.State state) {
+        int code = reader.getInt(0);
+        String[] updated = state != null ? state.updateOf(code) : null;
+        if (updated != null) {
+            return toTask(updated, users);
+        }
+        User repUser = users.get(reader.getInt(3));
+        if (repUser == null) {
+            return null;
+        }
+        return new Task(code, reader.getString(1), reader.getInt(2), repUser);
+    }
+
+    /**
+     * CSVの行からタスクを作成します。担当ユーザーが存在しない場合はnullを設定します。
+     * @param parts CSVの行を分割した配列
+     * @param users コードをキーとしたユーザー表
+     * @return 作成したタスク
+     */
+    private Task toTask(String[] parts, IntObjectMap<User> users) {
+        int code = Integer.parseInt(parts[0].trim());
+        String name = parts[1].trim();
+        int status = Integer.parseInt(parts[2].trim());
+        int repUserCode = Integer.parseInt(parts[3].trim());
+        return new Task(code, name, status, users.get(repUserCode));
+    }
+
+    /**
+     * CSVの行を要求されるたびに1行ずつ解析し、最後にジャーナルで追加されたタスクを返します。
+     */
+    private final class TaskSpliterator extends Spliterators.AbstractSpliterator<Task> {
+        private final MappedCsvReader reader;
+        private final IntObjectMap<User> users;
+        private final TaskJournal.State state;
+        private Iterator<String[]> inserts;
+
+        private TaskSpliterator(MappedCsvReader reader, IntObjectMap<User> users, TaskJournal.State state) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.reader = reader;
+            this.users = users;
+            this.state = state;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (inserts == null) {
+                try {
+                    while (reader.next()) {
+                        if (reader.fieldCount() == 4) {
+                            Task task = toTask(reader, users, state);
+                            if (task != null && task.getRepUser() != null) {
+                                action.accept(task);
+                                return true;
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                inserts = state != null ? state.inserts().iterator() : Collections.emptyIterator();
+            }
+            while (inserts.hasNext()) {
+                Task task = toTask(inserts.next(), users);
+                if (task.getRepUser() != null) {
+                    action.accept(task);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     /**
      * タスクデータをCSVに書き込むためのフォーマットを作成します。
      * @param task フォーマットを作成するタスク
@@ -155,4 +910,27 @@ public class TaskDataAccess {
             .append(task.getRepUser().getCode());
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * 一括保存する行を作成し、件数と書き込むバイト数を記録します。
+     */
+    private String createCountedLine(Task task) {
+        String line = createLine(task);
+        SAVE_ALL.addRows(1);
+        SAVE_ALL.addBytesWritten(line, 1);
+        return line;
+    }
+
+    private static final class RestoredTable {
+        private final TaskTable table;
+        private final String version;
+        /** 表の担当ユーザーを解決したユーザー表。読み込み直された場合は表を利用しない */
+        private final IntObjectMap<User> users;
+
+        private RestoredTable(TaskTable table, String version, IntObjectMap<User> users) {
+            this.table = table;
+            this.version = version;
+            this.users = users;
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package com.taskapp.dataaccess;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.taskapp.util.IntIntMap;
+import com.taskapp.util.IntList;
+import com.taskapp.util.IntObjectMap;
+import com.taskapp.util.TaskFileRewriteEvent;
+
+/**
+ * tasks.csvへの変更を追記専用のジャーナルファイルに記録します。
+ * 読み込み時はベースのCSVとジャーナルを合成し、ジャーナルが一定件数を超えると
+ * バックグラウンドでベースのCSVへ畳み込み、アトミックなリネームで差し替えます。
+ *
+ * <p>ジャーナルの各行は先頭に操作種別を持ちます。</p>
+ * <ul>
+ *   <li>{@code I,code,name,status,repUserCode} タスクの追加</li>
+ *   <li>{@code U,code,name,status,repUserCode} タスクの更新</li>
+ *   <li>{@code I,code,name,status,repUserCode,taskCode,changeUserCode,status,changeDate}
+ *       タスクの追加とその変更ログ</li>
+ *   <li>{@code U,code,name,status,repUserCode,taskCode,changeUserCode,status,changeDate}
+ *       タスクの更新とその変更ログ</li>
+ *   <li>{@code L,taskCode,changeUserCode,status,changeDate} 変更ログのみ</li>
+ * </ul>
+ *
+ * <p>ログのファイルを指定した場合は、タスクとログの変更を1つの先行書き込みログとして扱います。
+ * タスクの変更とその変更ログは1行に記録するため、異常終了しても片方だけが残ることはありません。
+ * 追記のたびにファイルを同期し、ログのファイルへはコンパクション時にまとめて追記します。
+ * コンパクションはログのファイルに追記する前にその長さをチェックポイントとして保存するため、
+ * 途中で異常終了した場合は、次回の起動時にその長さまで切り詰めてから同じ内容を追記し直します。</p>
+ */
+class TaskJournal {
+    static final int DEFAULT_COMPACT_THRESHOLD = 1_000;
+
+    private static final String INSERT = "I";
+    private static final String UPDATE = "U";
+    private static final String LOG = "L";
+    private static final String LOG_HEADER = "Task_Code,Change_User_Code,Status,Change_Date";
+
+    private final Path basePath;
+    private final Path journalPath;
+    private final Path sealedPath;
+    private final Path tmpPath;
+    private final Path checkpointPath;
+    /** 変更ログを畳み込むファイル。nullの場合は変更ログを記録せず、追記時の同期も行わない */
+    private final Path logPath;
+    private final int compactThreshold;
+
+    /** ファイルの差し替え中に読み込み・追記が行われないようにするロック */
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+    private final Object compactLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** ジャーナルを追記用に開く処理 */
+    private volatile ChannelOpener opener = path -> FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    /** コンパクションでベースのCSVを差し替えた後に呼び出す処理 */
+    private volatile Runnable onBaseReplaced = () -> { };
+
+    private int entries;
+    /** ジャーナルの内容をメモリ上に再現したもの。appendLockで保護します */
+    private State live = new State();
+
+    TaskJournal(String baseFilePath, int compactThreshold) {
+        this(baseFilePath, compactThreshold, null);
+    }
+
+    /**
+     * @param baseFilePath タスクのCSVファイルのパス
+     * @param compactThreshold コンパクションを始めるジャーナルの行数
+     * @param logFilePath 変更ログを畳み込むCSVファイルのパス。nullの場合はタスクの変更のみを記録します
+     */
+    TaskJournal(String baseFilePath, int compactThreshold, String logFilePath) {
+        this.basePath = Paths.get(baseFilePath);
+        this.journalPath = Paths.get(baseFilePath + ".journal");
+        this.sealedPath = Paths.get(baseFilePath + ".journal.compacting");
+        this.tmpPath = Paths.get(baseFilePath + ".tmp");
+        this.checkpointPath = Paths.get(baseFilePath + ".journal.checkpoint");
+        this.logPath = logFilePath != null ? Paths.get(logFilePath) : null;
+        this.compactThreshold = compactThreshold;
+        recover();
+    }
+
+    /**
+     * コンパクションでベースのCSVを差し替えた後に呼び出す処理を設定します。
+     * 処理は書き込みロック内で呼び出すため、差し替え後の読み込みより先に完了します。
+     * @param listener 差し替え後に呼び出す処理
+     */
+    void onBaseReplaced(Runnable listener) {
+        this.onBaseReplaced = listener;
+    }
+
+    /**
+     * ジャーナルを追記用に開く処理を設定します。テストで書き込み・同期の失敗を再現するために利用します。
+     * @param opener ジャーナルのパスを受け取り、追記用のチャネルを返す処理
+     */
+    void openJournalWith(ChannelOpener opener) {
+        this.opener = opener;
+    }
+
+    /**
+     * タスクの追加をジャーナルに記録します。
+     * @param line タスクのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendInsert(String line) throws IOException {
+        append(INSERT, line);
+    }
+
+    /**
+     * 複数のタスクの追加を1回の書き込みでジャーナルに記録します。
+     * @param lines タスクのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendInserts(Iterable<String> lines) throws IOException {
+        append(INSERT, lines);
+    }
+
+    /**
+     * タスクの更新をジャーナルに記録します。
+     * @param line 更新後のタスクのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendUpdate(String line) throws IOException {
+        append(UPDATE, line);
+    }
+
+    /**
+     * タスクの追加とその変更ログを1行の記録として追記します。
+     * @param line タスクのCSV行
+     * @param logLine 変更ログのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendInsert(String line, String logLine) throws IOException {
+        append(INSERT, line + "," + logLine);
+    }
+
+    /**
+     * タスクの更新とその変更ログを1行の記録として追記します。
+     * @param line 更新後のタスクのCSV行
+     * @param logLine 変更ログのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendUpdate(String line, String logLine) throws IOException {
+        append(UPDATE, line + "," + logLine);
+    }
+
+    /**
+     * タスクの変更を伴わない変更ログを1回の書き込みで追記します。
+     * @param logLines 変更ログのCSV行
+     * @throws IOException 書き込みまたは同期に失敗した場合。記録は追加されません
+     */
+    void appendLogs(Iterable<String> logLines) throws IOException {
+        append(LOG, logLines);
+    }
+
+    /**
+     * 変更ログを記録するかどうかを取得します。
+     * @return ログのファイルを指定して作成した場合はtrue
+     */
+    boolean recordsLogs() {
+        return logPath != null;
+    }
+
+    /**
+     * ベースのCSVとジャーナルを一貫した状態で読み込みます。
+     * ジャーナルはファイルを読み直さず、メモリ上の内容の複製を渡します。
+     * 処理中はコンパクションによるファイルの差し替えが行われません。
+     *
+     * @param reader ジャーナルの内容を受け取り、ベースのCSVを読み込む処理
+     * @return 読み込み処理の結果
+     * @throws IOException 読み込み処理で発生した例外
+     */
+    <T> T read(Reader<T> reader) throws IOException {
+        swapLock.readLock().lock();
+        try {
+            State state;
+            synchronized (appendLock) {
+                state = live.copy();
+            }
+            return reader.read(state);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ジャーナルをベースのCSVへ畳み込みます。
+     * 新しいベースは一時ファイルに書き出し、同期した後にアトミックなリネームで差し替えます。
+     */
+    void compact() {
+        synchronized (compactLock) {
+            try {
+                swapLock.writeLock().lock();
+                try {
+                    if (!Files.exists(sealedPath) && Files.exists(journalPath)) {
+                        Files.move(journalPath, sealedPath, StandardCopyOption.ATOMIC_MOVE);
+                        synchronized (appendLock) {
+                            entries = 0;
+                        }
+                    }
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+                if (!Files.exists(sealedPath)) {
+                    return;
+                }
+
+                // 追記中のジャーナルには触れないため、書き出し中も読み込み・追記は継続できる
+                TaskFileRewriteEvent event = new TaskFileRewriteEvent();
+                event.begin();
+                State state = new State();
+                loadInto(state, sealedPath);
+                int rows = writeMerged(state);
+                long bytes = event.shouldCommit() ? Files.size(tmpPath) : 0;
+
+                swapLock.writeLock().lock();
+                try {
+                    // 変更ログの追記とベースの差し替えは、読み込み中のログと二重にならないよう書き込みロック内で行う
+                    if (!Files.exists(checkpointPath)) {
+                        writeCheckpoint();
+                    }
+                    appendLogs(state.logs, checkpointLength());
+                    Files.move(tmpPath, basePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    onBaseReplaced.run();
+                    if (event.shouldCommit()) {
+                        event.set("compact", basePath.toString(), rows, bytes);
+                        event.commit();
+                    }
+                    Files.delete(sealedPath);
+                    Files.delete(checkpointPath);
+                    // 畳み込んだ分を除き、ローテーション後に追記された内容のみを残す
+                    State remaining = new State();
+                    loadInto(remaining, journalPath);
+                    synchronized (appendLock) {
+                        live = remaining;
+                    }
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void append(String op, String line) throws IOException {
+        append(op, List.of(line));
+    }
+
+    /**
+     * 記録をジャーナルに追記し、書き込みと同期が成功した場合のみメモリ上の内容に反映します。
+     * 失敗した場合は追記前の長さに戻すため、失敗した記録が次回の起動時に読み込まれることもありません。
+     */
+    private void append(String op, Iterable<String> lines) throws IOException {
+        boolean full;
+        swapLock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                List<String[]> appended = new ArrayList<>();
+                try (FileChannel channel = opener.open(journalPath)) {
+                    long length = channel.size();
+                    try {
+                        BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+                        for (String line : lines) {
+                            writer.write(op + "," + line);
+                            writer.newLine();
+                            appended.add((op + "," + line).split(","));
+                        }
+                        writer.flush();
+                        // 先行書き込みログとして使う場合は、記録ごとに1回だけ同期する
+                        if (logPath != null) {
+                            channel.force(false);
+                        }
+                    } catch (IOException e) {
+                        try {
+                            channel.truncate(length);
+                        } catch (IOException suppressed) {
+                            e.addSuppressed(suppressed);
+                        }
+                        throw e;
+                    }
+                }
+                for (String[] parts : appended) {
+                    live.apply(parts);
+                }
+                entries += appended.size();
+                full = entries >= compactThreshold;
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        if (full && compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                compactionScheduled.set(false);
+                compact();
+            });
+        }
+    }
+
+    /**
+     * ベースのCSVにジャーナルの変更を反映した内容を一時ファイルに書き出します。
+     * @return 書き出したデータ行の数
+     */
+    private int writeMerged(State state) throws IOException {
+        int rows = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(basePath.toFile(), StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(new FileWriter(tmpPath.toFile(), StandardCharsets.UTF_8))) {
+            String header = br.readLine();
+            writer.write(header != null ? header : "code,name,status,repUserCode");
+            writer.newLine();
+
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 4) {
+                    String[] updated = state.updates.get(Integer.parseInt(parts[0].trim()));
+                    if (updated != null) {
+                        line = String.join(",", updated);
+                    }
+                }
+                writer.write(line);
+                writer.newLine();
+                rows++;
+            }
+            for (String[] inserted : state.inserts) {
+                writer.write(String.join(",", inserted));
+                writer.newLine();
+                rows++;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        return rows;
+    }
+
+    /**
+     * 変更ログを追記する前のログのファイルの長さを保存します。
+     * 一時ファイルの書き出しが終わった後に保存するため、チェックポイントがあれば一時ファイルは完全です。
+     */
+    private void writeCheckpoint() throws IOException {
+        long length = logPath != null && Files.exists(logPath) ? Files.size(logPath) : 0;
+        try (FileChannel channel = FileChannel.open(checkpointPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(length).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+    }
+
+    private long checkpointLength() throws IOException {
+        return Long.parseLong(Files.readString(checkpointPath).trim());
+    }
+
+    /**
+     * ログのファイルをチェックポイントの長さに切り詰め、変更ログを追記して同期します。
+     * 同じ内容で何度実行しても結果は変わりません。
+     */
+    private void appendLogs(List<String[]> logs, long length) throws IOException {
+        if (logPath == null || logs.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.position(length);
+            BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 64 * 1024);
+            if (length == 0) {
+                writer.write(LOG_HEADER);
+                writer.newLine();
+            }
+            for (String[] log : logs) {
+                writer.write(String.join(",", log));
+                writer.newLine();
+            }
+            writer.flush();
+            channel.force(false);
+        }
+    }
+
+    private void loadInto(State state, Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(path.toFile(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                state.apply(line.split(","));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 前回の異常終了で残った書きかけの行と一時ファイルを取り除きます。
+     */
+    private void recover() {
+        try {
+            if (Files.exists(checkpointPath)) {
+                // コンパクションの途中で終了している。ベースとログのファイルへの反映をやり直す
+                State sealed = new State();
+                loadInto(sealed, sealedPath);
+                appendLogs(sealed.logs, checkpointLength());
+                if (Files.exists(tmpPath)) {
+                    Files.move(tmpPath, basePath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.deleteIfExists(sealedPath);
+                Files.delete(checkpointPath);
+            }
+            Files.deleteIfExists(tmpPath);
+            if (Files.exists(journalPath)) {
+                try (RandomAccessFile file = new RandomAccessFile(journalPath.toFile(), "rw")) {
+                    long length = file.length();
+                    while (length > 0) {
+                        file.seek(length - 1);
+                        if (file.read() == '\n') {
+                            break;
+                        }
+                        length--;
+                    }
+                    file.setLength(length);
+                }
+                try (BufferedReader br = new BufferedReader(
+                        new FileReader(journalPath.toFile(), StandardCharsets.UTF_8))) {
+                    while (br.readLine() != null) {
+                        entries++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        loadInto(live, sealedPath);
+        loadInto(live, journalPath);
+    }
+
+    /**
+     * ジャーナルを追記用に開く処理です。
+     */
+    @FunctionalInterface
+    interface ChannelOpener {
+        FileChannel open(Path path) throws IOException;
+    }
+
+    /**
+     * ジャーナルの内容を受け取ってベースのCSVを読み込む処理です。
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(State state) throws IOException;
+    }
+
+    /**
+     * ジャーナルから読み込んだ変更内容です。
+     * 各行は{@code code,name,status,repUserCode}の順に、
+     * 変更ログは{@code taskCode,changeUserCode,status,changeDate}の順に分割した配列で保持します。
+     */
+    static final class State {
+        private IntObjectMap<String[]> updates = new IntObjectMap<>();
+        private final List<String[]> inserts = new ArrayList<>();
+        /** タスクコードごとの最後に追加された行の位置 */
+        private IntIntMap lastInsert = new IntIntMap();
+        /** 追加された行ごとの、同じタスクコードで1つ前に追加された行の位置（ない場合は-1） */
+        private IntList previousInsert = new IntList();
+        /** ログのファイルにまだ追記していない変更ログ */
+        private final List<String[]> logs = new ArrayList<>();
+
+        /**
+         * ベースのCSVの行に対する最新の更新内容を取得します。
+         * @param code タスクコード
+         * @return 更新後の行、更新がない場合はnull
+         */
+        String[] updateOf(int code) {
+            return updates.get(code);
+        }
+
+        /**
+         * ジャーナルで追加されたタスクの行を追加順に取得します。
+         * @return 追加されたタスクの行のリスト
+         */
+        List<String[]> inserts() {
+            return inserts;
+        }
+
+        /**
+         * ログのファイルにまだ追記していない変更ログを記録順に取得します。
+         * @return 変更ログの行のリスト
+         */
+        List<String[]> logs() {
+            return logs;
+        }
+
+        /**
+         * ジャーナルの1行を反映します。
+         * @param parts 操作種別とタスクの各項目に分割した行
+         */
+        private void apply(String[] parts) {
+            if (parts.length != 5 && parts.length != 9) {
+                return;
+            }
+            String[] row = { parts[1], parts[2], parts[3], parts[4] };
+            if (LOG.equals(parts[0])) {
+                logs.add(row);
+                return;
+            }
+            if (INSERT.equals(parts[0])) {
+                insert(row);
+            } else if (UPDATE.equals(parts[0])) {
+                update(row);
+            } else {
+                return;
+            }
+            if (parts.length == 9) {
+                logs.add(new String[] { parts[5], parts[6], parts[7], parts[8] });
+            }
+        }
+
+        private State copy() {
+            State copy = new State();
+            copy.updates = updates.copy();
+            copy.inserts.addAll(inserts);
+            copy.lastInsert = lastInsert.copy();
+            copy.previousInsert = previousInsert.copy();
+            copy.logs.addAll(logs);
+            return copy;
+        }
+
+        private void update(String[] row) {
+            int code = Integer.parseInt(row[0].trim());
+            updates.put(code, row);
+            // 更新より前に追加されていた行にも同じ更新を反映する
+            for (int i = lastInsert.get(code, -1); i >= 0; i = previousInsert.get(i)) {
+                inserts.set(i, row);
+            }
+        }
+
+        private void insert(String[] row) {
+            int code = Integer.parseInt(row[0].trim());
+            previousInsert.add(lastInsert.get(code, -1));
+            lastInsert.put(code, inserts.size());
+            inserts.add(row);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.taskapp.dataaccess;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+
+/**
+ * タスクを列ごとの配列で保持する読み取り専用の表です。
+ * 集計や絞り込みでは行ごとのオブジェクトをたどらず、連続した配列を先頭から順に走査します。
+ * {@link Task}は{@link #toTask(int)}などで要求された行に対してのみ作成します。
+ *
+ * <p>タスク名は辞書で符号化し、同じ名前は1つの文字列を共有します。
+ * 担当ユーザーが存在しないタスクは{@link TaskDataAccess#findAll()}と同様に含めません。</p>
+ *
+ * @see TaskDataAccess#loadTable()
+ */
+public class TaskTable {
+    private final int size;
+    private final int[] codes;
+    private final byte[] statuses;
+    private final int[] repUserCodes;
+    private final int[] nameIds;
+    private final Names names;
+    private final IntObjectMap<User> users;
+    private final int statusCount;
+
+    private TaskTable(Builder builder) {
+        this.size = builder.size;
+        this.codes = Arrays.copyOf(builder.codes, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+        this.repUserCodes = Arrays.copyOf(builder.repUserCodes, size);
+        this.nameIds = Arrays.copyOf(builder.nameIds, size);
+        this.names = builder.names;
+        this.users = builder.users;
+        this.statusCount = builder.maxStatus + 1;
+    }
+
+    private TaskTable(int size, int[] codes, byte[] statuses, int[] repUserCodes, int[] nameIds, Names names,
+            IntObjectMap<User> users, int statusCount) {
+        this.size = size;
+        this.codes = codes;
+        this.statuses = statuses;
+        this.repUserCodes = repUserCodes;
+        this.nameIds = nameIds;
+        this.names = names;
+        this.users = users;
+        this.statusCount = statusCount;
+    }
+
+    /**
+     * 行数を取得します。
+     * @return 行数
+     */
+    public int size() {
+        return size;
+    }
+
+    public int code(int row) {
+        return codes[row];
+    }
+
+    public int status(int row) {
+        return statuses[row];
+    }
+
+    public int repUserCode(int row) {
+        return repUserCodes[row];
+    }
+
+    public String name(int row) {
+        return names.get(nameIds[row]);
+    }
+
+    /**
+     * 異なるタスク名の数を取得します。
+     * @return 辞書に登録されたタスク名の数
+     */
+    public int distinctNames() {
+        return names.size();
+    }
+
+    /**
+     * 指定したステータスの行数を数えます。
+     * @param status ステータス
+     * @return 行数
+     */
+    public int countByStatus(int status) {
+        byte target = (byte) status;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (statuses[row] == target) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * ステータスごとの行数を数えます。
+     * @return ステータスを添字とした行数
+     */
+    public int[] countsByStatus() {
+        int[] counts = new int[statusCount];
+        for (int row = 0; row < size; row++) {
+            counts[statuses[row]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * 担当ユーザーごとにステータス別の行数を数えます。
+     * @return 担当ユーザーコードをキーとした、ステータスを添字とした行数
+     */
+    public IntObjectMap<int[]> countsByRepUserAndStatus() {
+        IntObjectMap<int[]> counts = new IntObjectMap<>(users.size());
+        for (int row = 0; row < size; row++) {
+            counts.computeIfAbsent(repUserCodes[row], code -> new int[statusCount])[statuses[row]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * 指定したユーザーが担当している行を絞り込みます。
+     * @param repUserCode 担当ユーザーコード
+     * @return 該当する行番号の配列（昇順）
+     */
+    public int[] filterByRepUser(int repUserCode) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (repUserCodes[row] == repUserCode) {
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        int next = 0;
+        for (int row = 0; next < count; row++) {
+            if (repUserCodes[row] == repUserCode) {
+                rows[next++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 指定したステータスの行を絞り込みます。
+     * @param status ステータス
+     * @return 該当する行番号の配列（昇順）
+     */
+    public int[] filterByStatus(int status) {
+        byte target = (byte) status;
+        int count = countByStatus(status);
+        int[] rows = new int[count];
+        int next = 0;
+        for (int row = 0; next < count; row++) {
+            if (statuses[row] == target) {
+                rows[next++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 指定した行をタスクとして作成します。担当ユーザーは読み込み時のユーザー表のインスタンスを共有します。
+     * @param row 行番号
+     * @return 作成したタスク
+     */
+    public Task toTask(int row) {
+        return new Task(codes[row], name(row), statuses[row], users.get(repUserCodes[row]));
+    }
+
+    /**
+     * 指定した行をタスクとして作成します。
+     * @param rows 行番号の配列
+     * @return 行番号の順に作成したタスクのリスト
+     */
+    public List<Task> toTasks(int[] rows) {
+        List<Task> tasks = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            tasks.add(toTask(row));
+        }
+        return tasks;
+    }
+
+    /**
+     * 表の列と名前の辞書をバイナリ形式で書き出します。
+     * 行数と各列の配列を順に書き、続けて名前の辞書をUTF-8のバイト列として書きます。
+     *
+     * @see #readFrom(ByteBuffer, IntObjectMap)
+     * @param out 書き出し先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(statusCount);
+        for (int row = 0; row < size; row++) {
+            out.writeInt(codes[row]);
+        }
+        out.write(statuses, 0, size);
+        for (int row = 0; row < size; row++) {
+            out.writeInt(repUserCodes[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeInt(nameIds[row]);
+        }
+        out.writeInt(names.size());
+        for (int id = 0; id < names.size(); id++) {
+            out.writeInt(names.bytes[id].length);
+            out.write(names.bytes[id]);
+        }
+    }
+
+    /**
+     * {@link #writeTo(DataOutputStream)}で書き出した表を読み込みます。
+     * 列は配列へまとめて複製し、名前の文字列は{@link #name(int)}で参照されたときに作成します。
+     *
+     * @param in 表の先頭を指しているバッファ。読み込んだ分だけ位置を進めます
+     * @param users 担当ユーザーの解決に利用するユーザー表
+     * @return 読み込んだ表
+     */
+    static TaskTable readFrom(ByteBuffer in, IntObjectMap<User> users) {
+        int size = in.getInt();
+        int statusCount = in.getInt();
+        int[] codes = readInts(in, size);
+        byte[] statuses = new byte[size];
+        in.get(statuses);
+        int[] repUserCodes = readInts(in, size);
+        int[] nameIds = readInts(in, size);
+        byte[][] entries = new byte[in.getInt()][];
+        for (int id = 0; id < entries.length; id++) {
+            entries[id] = new byte[in.getInt()];
+            in.get(entries[id]);
+        }
+        return new TaskTable(size, codes, statuses, repUserCodes, nameIds, new Names(entries), users, statusCount);
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * CSVとジャーナルの行から表を組み立てます。
+     */
+    static final class Builder {
+        private final IntObjectMap<User> users;
+        private final Names names = new Names();
+        private int size;
+        private int[] codes = new int[1024];
+        private byte[] statuses = new byte[1024];
+        private int[] repUserCodes = new int[1024];
+        private int[] nameIds = new int[1024];
+        private int maxStatus = 2;
+
+        Builder(IntObjectMap<User> users) {
+            this.users = users;
+        }
+
+        /**
+         * CSVの現在の行を追加します。タスク名は辞書に登録済みであれば文字列を作りません。
+         * @param reader 行を指しているリーダー
+         */
+        void add(MappedCsvReader reader) {
+            int repUserCode = reader.getInt(3);
+            if (users.containsKey(repUserCode)) {
+                add(reader.getInt(0), names.idOf(reader, 1), reader.getInt(2), repUserCode);
+            }
+        }
+
+        /**
+         * 分割済みの行を追加します。
+         * @param parts {@code code,name,status,repUserCode}の順に分割した行
+         */
+        void add(String[] parts) {
+            int repUserCode = Integer.parseInt(parts[3].trim());
+            if (users.containsKey(repUserCode)) {
+                add(Integer.parseInt(parts[0].trim()), names.idOf(parts[1].trim()), Integer.parseInt(parts[2].trim()),
+                    repUserCode);
+            }
+        }
+
+        private void add(int code, int nameId, int status, int repUserCode) {
+            if (status < 0 || status > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("ステータスが範囲外です: " + status);
+            }
+            if (size == codes.length) {
+                int capacity = size * 2;
+                codes = Arrays.copyOf(codes, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                repUserCodes = Arrays.copyOf(repUserCodes, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+            }
+            codes[size] = code;
+            statuses[size] = (byte) status;
+            repUserCodes[size] = repUserCode;
+            nameIds[size] = nameId;
+            maxStatus = Math.max(maxStatus, status);
+            size++;
+        }
+
+        TaskTable build() {
+            return new TaskTable(this);
+        }
+    }
+
+    /**
+     * タスク名の辞書です。UTF-8のバイト列で照合し、文字列は最初に参照されたときに作成します。
+     */
+    private static final class Names {
+        /** 辞書の番号+1を格納するオープンアドレス法の表（0は空き） */
+        private int[] slots = new int[1024];
+        private int[] hashes = new int[256];
+        private byte[][] bytes = new byte[256][];
+        private String[] strings = new String[256];
+        private int size;
+
+        Names() {
+        }
+
+        /**
+         * 読み込んだ辞書から作成します。追加は行わないため、照合用の表は作成しません。
+         */
+        Names(byte[][] entries) {
+            this.slots = null;
+            this.hashes = null;
+            this.bytes = entries;
+            this.strings = new String[entries.length];
+            this.size = entries.length;
+        }
+
+        int idOf(MappedCsvReader reader, int field) {
+            int hash = reader.hashField(field);
+            int mask = slots.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return insert(slot, hash, reader.getBytes(field), null);
+                }
+                int id = entry - 1;
+                if (hashes[id] == hash && reader.fieldEquals(field, bytes[id])) {
+                    return id;
+                }
+            }
+        }
+
+        int idOf(String name) {
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(encoded);
+            int mask = slots.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return insert(slot, hash, encoded, name);
+                }
+                int id = entry - 1;
+                if (hashes[id] == hash && Arrays.equals(bytes[id], encoded)) {
+                    return id;
+                }
+            }
+        }
+
+        String get(int id) {
+            String name = strings[id];
+            if (name == null) {
+                name = new String(bytes[id], StandardCharsets.UTF_8);
+                strings[id] = name;
+            }
+            return name;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int insert(int slot, int hash, byte[] encoded, String name) {
+            if (size == hashes.length) {
+                int capacity = size * 2;
+                hashes = Arrays.copyOf(hashes, capacity);
+                bytes = Arrays.copyOf(bytes, capacity);
+                strings = Arrays.copyOf(strings, capacity);
+            }
+            int id = size++;
+            hashes[id] = hash;
+            bytes[id] = encoded;
+            strings[id] = name;
+            slots[slot] = id + 1;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = spread(hashes[id]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
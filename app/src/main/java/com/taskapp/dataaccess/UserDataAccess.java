@@ -1,16 +1,22 @@
 package com.taskapp.dataaccess;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-
 import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
 
 public class UserDataAccess {
+    private static final OperationMetrics FIND_BY_EMAIL_AND_PASSWORD =
+        Metrics.operation("UserDataAccess.findByEmailAndPassword");
+    private static final OperationMetrics FIND_BY_CODE = Metrics.operation("UserDataAccess.findByCode");
+    private static final OperationMetrics FIND_ALL_AS_TABLE = Metrics.operation("UserDataAccess.findAllAsTable");
+
     private final String filePath;
+    private final UserDirectory directory;
 
     public UserDataAccess() {
         filePath = "app/src/main/resources/users.csv";
+        directory = new UserDirectory(filePath);
     }
 
     /**
@@ -19,61 +25,65 @@ public class UserDataAccess {
      */
     public UserDataAccess(String filePath) {
         this.filePath = filePath;
+        this.directory = new UserDirectory(filePath);
+    }
+
+    String filePath() {
+        return filePath;
+    }
+
+    UserDirectory directory() {
+        return directory;
     }
 
     /**
      * メールアドレスとパスワードを基にユーザーデータを探します。
+     * 同じメールアドレスのユーザーが複数ある場合は、パスワードも一致するユーザーを返します。
+     *
+     * @see com.taskapp.dataaccess.UserDirectory#findByEmailAndPassword(String, String)
      * @param email メールアドレス
      * @param password パスワード
      * @return 見つかったユーザー
      */
     public User findByEmailAndPassword(String email, String password) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            br.readLine(); // ヘッダー行をスキップ
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    String csvEmail = parts[2].trim();
-                    String csvPassword = parts[3].trim();
-                    if (csvEmail.equals(email) && csvPassword.equals(password)) {
-                        int code = Integer.parseInt(parts[0].trim());
-                        String name = parts[1].trim();
-                        return new User(code, name, csvEmail, csvPassword);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        long start = FIND_BY_EMAIL_AND_PASSWORD.start();
+        try {
+            return directory.findByEmailAndPassword(email, password);
+        } finally {
+            FIND_BY_EMAIL_AND_PASSWORD.stop(start);
         }
-        return null;
     }
 
     /**
      * コードを基にユーザーデータを取得します。
+     *
+     * @see com.taskapp.dataaccess.UserDirectory#findByCode(int)
      * @param code 取得するユーザーのコード
      * @return 見つかったユーザー
      */
     public User findByCode(int code) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            br.readLine(); // ヘッダー行をスキップ
-    
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    int csvCode = Integer.parseInt(parts[0].trim());
-                    if (csvCode == code) {
-                        String name = parts[1].trim();
-                        String email = parts[2].trim();
-                        String password = parts[3].trim();
-                        return new User(csvCode, name, email, password);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        long start = FIND_BY_CODE.start();
+        try {
+            return directory.findByCode(code);
+        } finally {
+            FIND_BY_CODE.stop(start);
+        }
+    }
+
+    /**
+     * 全ユーザーをコードをキーとした表として取得します。
+     * タスクの担当者を一括で解決する際に利用します。
+     * 表はキャッシュしている索引そのものであるため、変更しないでください。
+     *
+     * @see com.taskapp.dataaccess.UserDirectory#codeTable()
+     * @return コードをキーとしたユーザー表
+     */
+    public IntObjectMap<User> findAllAsTable() {
+        long start = FIND_ALL_AS_TABLE.start();
+        try {
+            return directory.codeTable();
+        } finally {
+            FIND_ALL_AS_TABLE.stop(start);
         }
-        return null;
     }
 }
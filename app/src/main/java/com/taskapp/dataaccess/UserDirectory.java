@@ -0,0 +1,272 @@
+package com.taskapp.dataaccess;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+import com.taskapp.util.UserLookupEvent;
+
+/**
+ * users.csvを一度だけ読み込み、コードとメールアドレスの索引としてメモリ上に保持します。
+ * ファイルのサイズまたは更新日時が変わった場合にのみ再読み込みします。
+ * {@link DataFileWatcher}で監視している間は参照のたびにファイルの属性を読まず、変更の通知を受けてから確認します。
+ * 1人のユーザーにつき1つの{@link User}インスタンスのみを作成し、タスクの担当ユーザーとして共有します。
+ */
+class UserDirectory {
+    private final String filePath;
+    private volatile Snapshot snapshot;
+    /** ファイルの監視が有効な間は、変更が通知されるまでファイルの属性を読まずに索引を返す */
+    private volatile boolean watched;
+    private volatile boolean stale = true;
+
+    UserDirectory(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * コードを基にユーザーを取得します。
+     * @param code ユーザーのコード
+     * @return 見つかったユーザー、存在しない場合はnull
+     */
+    User findByCode(int code) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Snapshot previous = snapshot;
+        Snapshot current = current();
+        User user = current == null ? null : current.byCode.get(code);
+        commit(event, "findByCode", previous, current);
+        return user;
+    }
+
+    /**
+     * メールアドレスとパスワードの両方が一致するユーザーを取得します。
+     * 同じメールアドレスの行が複数ある場合は、パスワードが一致する最初の行のユーザーを返します。
+     * @param email メールアドレス
+     * @param password パスワード
+     * @return 見つかったユーザー、存在しない場合はnull
+     */
+    User findByEmailAndPassword(String email, String password) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Snapshot previous = snapshot;
+        Snapshot current = current();
+        User found = null;
+        User[] users = current == null ? null : current.byEmail.get(email);
+        if (users != null) {
+            for (User user : users) {
+                if (user.getPassword().equals(password)) {
+                    found = user;
+                    break;
+                }
+            }
+        }
+        commit(event, "findByEmailAndPassword", previous, current);
+        return found;
+    }
+
+    /**
+     * 検索のイベントを記録します。検索中に読み込み直した場合のみ、読み込んだ行数とバイト数を含めます。
+     */
+    private void commit(UserLookupEvent event, String operation, Snapshot previous, Snapshot current) {
+        if (event.shouldCommit()) {
+            boolean reloaded = current != null && current != previous;
+            event.set(operation, filePath, reloaded ? current.rows : 0, reloaded ? current.size : 0);
+            event.commit();
+        }
+    }
+
+    /**
+     * コードをキーとした全ユーザーの表を取得します。
+     * 読み込んだ索引をそのまま返すため、呼び出し側で変更しないでください。
+     * @return ユーザー表
+     */
+    IntObjectMap<User> codeTable() {
+        Snapshot current = current();
+        return current == null ? new IntObjectMap<>(0) : current.byCode;
+    }
+
+    /**
+     * 現在の索引をバイナリ形式で書き出します。
+     * ユーザーをコードの表から書き、メールアドレスの索引は同じメールアドレスの全ての行を順に書きます。
+     * 索引の行のうちコードの表と同じ内容のものは、復元時にコードの表のインスタンスを共有します。
+     *
+     * @see #restore(ByteBuffer, long, long)
+     * @param out 書き出し先
+     * @throws IOException ファイルを読めない場合、または書き込みに失敗した場合
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        Snapshot current = current();
+        if (current == null) {
+            throw new IOException("ユーザーのファイルを読み込めません：" + filePath);
+        }
+        List<User> users = new ArrayList<>(current.byCode.size());
+        current.byCode.forEach((code, user) -> users.add(user));
+        out.writeInt(current.rows);
+        out.writeInt(users.size());
+        for (User user : users) {
+            out.writeInt(user.getCode());
+            DataSnapshot.writeString(out, user.getName());
+            DataSnapshot.writeString(out, user.getEmail());
+            DataSnapshot.writeString(out, user.getPassword());
+        }
+        out.writeInt(current.byEmail.size());
+        for (Map.Entry<String, User[]> entry : current.byEmail.entrySet()) {
+            DataSnapshot.writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().length);
+            for (User user : entry.getValue()) {
+                out.writeInt(user.getCode());
+                DataSnapshot.writeString(out, user.getName());
+                DataSnapshot.writeString(out, user.getPassword());
+            }
+        }
+    }
+
+    /**
+     * {@link #writeTo(DataOutputStream)}で書き出した索引を、指定したファイルの状態のものとして復元します。
+     * 以降の参照でファイルの状態が異なれば、通常どおりファイルから読み込み直します。
+     *
+     * @param in 索引の先頭を指しているバッファ。読み込んだ分だけ位置を進めます
+     * @param size 書き出したときのファイルのサイズ
+     * @param lastModified 書き出したときのファイルの更新日時
+     */
+    void restore(ByteBuffer in, long size, long lastModified) {
+        int rows = in.getInt();
+        int count = in.getInt();
+        IntObjectMap<User> byCode = new IntObjectMap<>(count);
+        for (int i = 0; i < count; i++) {
+            int code = in.getInt();
+            byCode.put(code, new User(code, DataSnapshot.readString(in), DataSnapshot.readString(in),
+                DataSnapshot.readString(in)));
+        }
+        int emails = in.getInt();
+        Map<String, User[]> byEmail = new HashMap<>(emails * 2);
+        for (int i = 0; i < emails; i++) {
+            String email = DataSnapshot.readString(in);
+            User[] users = new User[in.getInt()];
+            for (int j = 0; j < users.length; j++) {
+                int code = in.getInt();
+                String name = DataSnapshot.readString(in);
+                String password = DataSnapshot.readString(in);
+                User shared = byCode.get(code);
+                users[j] = shared != null && shared.getEmail().equals(email) && shared.getName().equals(name)
+                    && shared.getPassword().equals(password) ? shared : new User(code, name, email, password);
+            }
+            byEmail.put(email, users);
+        }
+        snapshot = new Snapshot(size, lastModified, rows, byCode, Collections.unmodifiableMap(byEmail));
+    }
+
+    /**
+     * ファイルの監視を開始または終了します。いずれの場合も、次の参照でファイルの状態を一度確認します。
+     * @param watched 監視している場合はtrue
+     */
+    void watch(boolean watched) {
+        this.watched = watched;
+        stale = true;
+    }
+
+    /**
+     * ファイルが変更されたことを通知し、次の参照でファイルの状態を確認させます。
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * ファイルの状態を確認し、変更されていれば読み込み直した索引を返します。
+     * 監視している間は、変更の通知がなければ確認せずに保持している索引を返します。
+     * @return 現在の索引、ファイルが読めない場合はnull
+     */
+    private Snapshot current() {
+        Snapshot cached = snapshot;
+        if (watched && !stale && cached != null) {
+            return cached;
+        }
+        // 確認中に届いた通知を取りこぼさないよう、属性を読む前に戻す
+        stale = false;
+        Path path = Paths.get(filePath);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attrs.size();
+            long lastModified = attrs.lastModifiedTime().toMillis();
+
+            Snapshot loaded = snapshot;
+            if (loaded != null && loaded.size == size && loaded.lastModified == lastModified) {
+                return loaded;
+            }
+            synchronized (this) {
+                loaded = snapshot;
+                if (loaded == null || loaded.size != size || loaded.lastModified != lastModified) {
+                    loaded = load(size, lastModified);
+                    snapshot = loaded;
+                }
+                return loaded;
+            }
+        } catch (IOException e) {
+            stale = true;
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private Snapshot load(long size, long lastModified) throws IOException {
+        IntObjectMap<User> byCode = new IntObjectMap<>();
+        Map<String, User[]> byEmail = new HashMap<>();
+        int rows;
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath)) {
+            reader.next(); // ヘッダー行をスキップ
+
+            while (reader.next()) {
+                if (reader.fieldCount() == 4) {
+                    int code = reader.getInt(0);
+                    String name = reader.getString(1);
+                    String email = reader.getString(2);
+                    String password = reader.getString(3);
+                    User user = new User(code, name, email, password);
+                    // コードが重複する場合は従来の線形探索と同じく先頭の行を優先する
+                    byCode.putIfAbsent(code, user);
+                    // メールアドレスが重複する場合は、パスワードでの照合のために全ての行を残す
+                    byEmail.merge(email, new User[] {user}, UserDirectory::concat);
+                }
+            }
+            rows = reader.rowsRead();
+        }
+        return new Snapshot(size, lastModified, rows, byCode, Collections.unmodifiableMap(byEmail));
+    }
+
+    private static User[] concat(User[] users, User[] added) {
+        User[] merged = Arrays.copyOf(users, users.length + added.length);
+        System.arraycopy(added, 0, merged, users.length, added.length);
+        return merged;
+    }
+
+    private static final class Snapshot {
+        private final long size;
+        private final long lastModified;
+        private final int rows;
+        private final IntObjectMap<User> byCode;
+        /** メールアドレスごとの、そのメールアドレスを持つ全ての行のユーザー（ファイル内の順） */
+        private final Map<String, User[]> byEmail;
+
+        private Snapshot(long size, long lastModified, int rows, IntObjectMap<User> byCode,
+                Map<String, User[]> byEmail) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.rows = rows;
+            this.byCode = byCode;
+            this.byEmail = byEmail;
+        }
+    }
+}
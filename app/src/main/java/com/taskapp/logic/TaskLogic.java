@@ -1,7 +1,24 @@
 package com.taskapp.logic;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import com.taskapp.dataaccess.LogDataAccess;
 import com.taskapp.dataaccess.TaskDataAccess;
@@ -9,14 +26,41 @@ import com.taskapp.dataaccess.UserDataAccess;
 import com.taskapp.exception.AppException;
 import com.taskapp.model.Log;
 import com.taskapp.model.Task;
+import com.taskapp.model.TaskPage;
+import com.taskapp.model.TaskSummary;
 import com.taskapp.model.User;
+import com.taskapp.util.IntIntMap;
+import com.taskapp.util.IntObjectMap;
+import com.taskapp.util.Metrics;
+import com.taskapp.util.OperationMetrics;
+import com.taskapp.util.StatusChangeEvent;
 
 
 
+/**
+ * タスクの表示・登録・ステータス変更を行います。
+ * 1つのインスタンスを複数のセッションから同時に利用できます。
+ * ステータス変更はタスクコードごとに分けたロックで直列化するため、
+ * 異なるタスクへの変更は並行して行われます。
+ */
 public class TaskLogic {
+    /** ステータス変更を直列化するロックの数 */
+    private static final int LOCK_STRIPES = 64;
+
+    private static final OperationMetrics SHOW_ALL = Metrics.operation("TaskLogic.showAll");
+    private static final OperationMetrics SHOW_PAGE = Metrics.operation("TaskLogic.showPage");
+    private static final OperationMetrics SAVE = Metrics.operation("TaskLogic.save");
+    private static final OperationMetrics SAVE_ALL = Metrics.operation("TaskLogic.saveAll");
+    private static final OperationMetrics IMPORT_CSV = Metrics.operation("TaskLogic.importCsv");
+    private static final OperationMetrics CHANGE_STATUS = Metrics.operation("TaskLogic.changeStatus");
+    private static final OperationMetrics SUMMARIZE = Metrics.operation("TaskLogic.summarize");
+
     private final TaskDataAccess taskDataAccess;
     private final LogDataAccess logDataAccess;
     private final UserDataAccess userDataAccess;
+    private final boolean awaitLogDurability;
+    private final Lock[] statusLocks = newStripes();
+    private final TaskStatistics statistics = new TaskStatistics();
 
     private User loginUser;
 
@@ -24,6 +68,7 @@ public class TaskLogic {
         this.taskDataAccess = new TaskDataAccess();
         this.logDataAccess = new LogDataAccess();
         this.userDataAccess = new UserDataAccess();
+        this.awaitLogDurability = false;
     }
 
     /**
@@ -32,37 +77,113 @@ public class TaskLogic {
      * @param logDataAccess
      * @param userDataAccess
      */
+    public TaskLogic(TaskDataAccess taskDataAccess, LogDataAccess logDataAccess, UserDataAccess userDataAccess) {
+        this(taskDataAccess, logDataAccess, userDataAccess, false);
+    }
+
+    /**
+     * ログの書き込み完了を待つかどうかを指定してインスタンスを作成します。
+     *
+     * @param taskDataAccess タスクのデータアクセス
+     * @param logDataAccess ログのデータアクセス
+     * @param userDataAccess ユーザーのデータアクセス
+     * @param awaitLogDurability 登録・ステータス変更のたびにログの書き込み完了を待つ場合はtrue
+     */
+    public TaskLogic(TaskDataAccess taskDataAccess, LogDataAccess logDataAccess, UserDataAccess userDataAccess,
+            boolean awaitLogDurability) {
+        this.taskDataAccess = taskDataAccess;
+        this.logDataAccess = logDataAccess;
+        this.userDataAccess = userDataAccess;
+        this.awaitLogDurability = awaitLogDurability;
+    }
 
     /**
      * 全てのタスクを表示します。
      *
-     * @see com.taskapp.dataaccess.TaskDataAccess#findAll()
+     * @see com.taskapp.dataaccess.TaskDataAccess#stream()
      * @param loginUser ログインユーザー
      */
 
 
     public void showAll(User loginUser) {
-        List<Task> tasks = taskDataAccess.findAll();
-        if (tasks == null || tasks.isEmpty()) {
-            return;
+        long start = SHOW_ALL.start();
+        try {
+            // 一覧全体を保持せず、読み込んだタスクから順にバッファへ書き出す
+            PrintWriter out = consoleWriter();
+            try (Stream<Task> tasks = taskDataAccess.stream()) {
+                Iterator<Task> iterator = tasks.iterator();
+                int index = 1;
+                while (iterator.hasNext()) {
+                    writeLine(out, index, iterator.next(), loginUser);
+                    index++;
+                }
+                SHOW_ALL.addRows(index - 1);
+            }
+            out.flush();
+        } finally {
+            SHOW_ALL.stop(start);
+        }
+    }
+
+    /**
+     * カーソルの位置から1ページ分のタスクを表示します。
+     * ページ全体を1つのバッファに書き出してから、まとめてコンソールへ出力します。
+     *
+     * @see com.taskapp.dataaccess.TaskDataAccess#findPage(int, int)
+     * @param loginUser ログインユーザー
+     * @param cursor 表示を始めるカーソル（最初のページは0）
+     * @param pageSize 1ページのタスク数
+     * @param firstIndex ページの先頭のタスクに付ける番号
+     * @return 表示したページ
+     */
+    public TaskPage showPage(User loginUser, int cursor, int pageSize, int firstIndex) {
+        long start = SHOW_PAGE.start();
+        try {
+            TaskPage page = taskDataAccess.findPage(cursor, pageSize);
+            PrintWriter out = consoleWriter();
+            int index = firstIndex;
+            for (Task task : page.getTasks()) {
+                writeLine(out, index, task, loginUser);
+                index++;
+            }
+            out.flush();
+            SHOW_PAGE.addRows(page.getTasks().size());
+            return page;
+        } finally {
+            SHOW_PAGE.stop(start);
         }
+    }
 
-        int index = 1;
-        for (Task task : tasks) {
-            String statusText = switch (task.getStatus()) {
-                case 0 -> "未着手";
-                case 1 -> "着手中";
-                case 2 -> "完了";
-                default -> "不明";
-            };
+    private static PrintWriter consoleWriter() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 64 * 1024));
+    }
 
-            String assigneeText = (task.getRepUser().getCode() == loginUser.getCode())
-            ? "あなたが担当しています"
-            : task.getRepUser().getName() + "が担当しています";
+    private static void writeLine(PrintWriter out, int index, Task task, User loginUser) {
+        String statusText = switch (task.getStatus()) {
+            case 0 -> "未着手";
+            case 1 -> "着手中";
+            case 2 -> "完了";
+            default -> "不明";
+        };
 
-        System.out.println(index + ". タスク名：" + task.getName() + ", 担当者名：" + assigneeText + ", ステータス：" + statusText);
-        index++;
-        }
+        String assigneeText = (task.getRepUser().getCode() == loginUser.getCode())
+        ? "あなたが担当しています"
+        : task.getRepUser().getName() + "が担当しています";
+
+        out.append(Integer.toString(index)).append(". タスク名：").append(task.getName())
+            .append(", 担当者名：").append(assigneeText)
+            .append(", ステータス：").append(statusText).println();
+    }
+
+    /**
+     * 全てのタスクを読み込むストリームを取得します。
+     * 表示形式を呼び出し側で決める場合に利用します。利用後は必ずストリームを閉じてください。
+     *
+     * @see com.taskapp.dataaccess.TaskDataAccess#stream()
+     * @return タスクのストリーム
+     */
+    public Stream<Task> stream() {
+        return taskDataAccess.stream();
     }
 
     /**
@@ -70,29 +191,199 @@ public class TaskLogic {
      *
      * @see com.taskapp.dataaccess.UserDataAccess#findByCode(int)
      * @see com.taskapp.dataaccess.TaskDataAccess#save(com.taskapp.model.Task)
+     * @see com.taskapp.dataaccess.TaskDataAccess#save(Task, Log, LogDataAccess)
      * @see com.taskapp.dataaccess.LogDataAccess#save(com.taskapp.model.Log)
      * @param code タスクコード
      * @param name タスク名
      * @param repUserCode 担当ユーザーコード
      * @param loginUser ログインユーザー
-     * @throws AppException ユーザーコードが存在しない場合にスローされます
+     * @throws AppException ユーザーコードが存在しない場合、タスクの書き込みに失敗した場合、
+     *         またはログの書き込みに失敗した場合にスローされます
      */
     public void save(int code, String name, int repUserCode, User loginUser) throws AppException {
-        // 1. タスクオブジェクトを作成
-        User assignedUser = userDataAccess.findByCode(repUserCode);
-        if (assignedUser == null) {
-            throw new AppException("存在するユーザーコードを入力してください");
+        long start = SAVE.start();
+        try {
+            // 1. タスクオブジェクトを作成
+            User assignedUser = userDataAccess.findByCode(repUserCode);
+            if (assignedUser == null) {
+                throw new AppException("存在するユーザーコードを入力してください");
+            }
+            Task newTask = new Task(code, name, 0, assignedUser);
+
+            // 2. ログオブジェクトを作成
+            Log newLog = new Log(code, loginUser.getCode(), 0, LocalDate.now());
+
+            // 3. タスクとログを保存し、集計に反映。先行書き込みログを共有している場合は1回の記録にまとめる
+            CompletableFuture<Void> written;
+            try {
+                written = statistics.record(() -> {
+                    if (taskDataAccess.sharesJournal(logDataAccess)) {
+                        return requireJournaled(taskDataAccess.save(newTask, newLog, logDataAccess));
+                    }
+                    taskDataAccess.save(newTask);
+                    return logDataAccess.save(newLog);
+                }, repUserCode, -1, 0);
+            } catch (CompletionException | UncheckedIOException e) {
+                throw new AppException("タスクの保存に失敗しました");
+            }
+            awaitLog(written);
+        } finally {
+            SAVE.stop(start);
+        }
+    }
+
+    /**
+     * 複数のタスクをまとめて保存します。
+     * 担当ユーザーは1回読み込んだユーザー表で確認し、タスクコードの重複を含めて
+     * 全件を確認してから保存するため、1件でも誤りがある場合は何も保存しません。
+     * タスクは1回の追記で、作成ログは1回のまとまった書き込みで保存します。
+     *
+     * @see com.taskapp.dataaccess.UserDataAccess#findAllAsTable()
+     * @see com.taskapp.dataaccess.TaskDataAccess#saveAll(Iterable)
+     * @see com.taskapp.dataaccess.LogDataAccess#saveAll(Iterable)
+     * @param tasks 保存するタスク（担当ユーザーはコードのみ参照します）
+     * @param loginUser ログインユーザー
+     * @throws AppException 担当ユーザーが存在しない、タスク名が10文字を超える、タスクコードが重複する、
+     *         タスクの書き込みに失敗した、またはログの書き込みに失敗した場合にスローされます
+     */
+    public void saveAll(Collection<Task> tasks, User loginUser) throws AppException {
+        long start = SAVE_ALL.start();
+        try {
+            IntObjectMap<User> users = userDataAccess.findAllAsTable();
+            IntIntMap codes = existingCodes();
+            List<Task> newTasks = new ArrayList<>(tasks.size());
+            IntIntMap createdPerUser = new IntIntMap();
+            int number = 1;
+            for (Task task : tasks) {
+                User assignedUser = validate(number, task.getCode(), task.getName(), task.getRepUser().getCode(),
+                    users, codes);
+                newTasks.add(new Task(task.getCode(), task.getName(), 0, assignedUser));
+                createdPerUser.addTo(assignedUser.getCode(), 1);
+                number++;
+            }
+
+            try {
+                statistics.recordCreated(() -> taskDataAccess.saveAll(newTasks), createdPerUser);
+            } catch (UncheckedIOException e) {
+                throw new AppException("タスクの保存に失敗しました");
+            }
+            LocalDate today = LocalDate.now();
+            awaitLog(logDataAccess.saveAll(() -> newTasks.stream()
+                .map(task -> new Log(task.getCode(), loginUser.getCode(), 0, today))
+                .iterator()));
+            SAVE_ALL.addRows(newTasks.size());
+        } finally {
+            SAVE_ALL.stop(start);
+        }
+    }
+
+    /**
+     * CSVファイルのタスクをまとめて取り込みます。
+     * ファイルは{@code code,name,repUserCode}のヘッダーを持つCSVです。
+     * 取り込むタスクをメモリに保持しないよう、ファイルを3回読み込みます。
+     * 1回目で全件を確認し、2回目でタスクを1回の追記で保存し、3回目で作成ログをまとめて保存します。
+     * 1件でも誤りがある場合は何も保存しません。
+     *
+     * @see com.taskapp.dataaccess.TaskDataAccess#openImport(String)
+     * @param filePath 取り込むCSVファイルのパス
+     * @param loginUser ログインユーザー
+     * @return 取り込んだタスクの数
+     * @throws AppException ファイルを読み込めない、内容に誤りがある、タスクの書き込みに失敗した、
+     *         またはログの書き込みに失敗した場合にスローされます
+     */
+    public int importCsv(String filePath, User loginUser) throws AppException {
+        long start = IMPORT_CSV.start();
+        try {
+            IntObjectMap<User> users = userDataAccess.findAllAsTable();
+            int count = 0;
+            try {
+                // 1. 全件を確認する
+                IntIntMap codes = existingCodes();
+                IntIntMap createdPerUser = new IntIntMap();
+                try (Stream<String[]> rows = taskDataAccess.openImport(filePath)) {
+                    Iterator<String[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        String[] row = iterator.next();
+                        count++;
+                        if (row.length != 3 || !isNumeric(row[0]) || !isNumeric(row[2])) {
+                            throw new AppException(count + "件目: タスクコード,タスク名,担当ユーザーコードの形式で入力してください");
+                        }
+                        User assignedUser = validate(count, Integer.parseInt(row[0]), row[1], Integer.parseInt(row[2]),
+                            users, codes);
+                        createdPerUser.addTo(assignedUser.getCode(), 1);
+                    }
+                }
+
+                // 2. タスクを保存する
+                try (Stream<String[]> rows = taskDataAccess.openImport(filePath)) {
+                    statistics.recordCreated(() -> taskDataAccess.saveAll(rows
+                        .map(row -> new Task(Integer.parseInt(row[0]), row[1], 0, users.get(Integer.parseInt(row[2]))))
+                        ::iterator), createdPerUser);
+                } catch (UncheckedIOException e) {
+                    throw new AppException("タスクの保存に失敗しました");
+                }
+
+                // 3. 作成ログを保存する
+                LocalDate today = LocalDate.now();
+                CompletableFuture<Void> written;
+                try (Stream<String[]> rows = taskDataAccess.openImport(filePath)) {
+                    written = logDataAccess.saveAll(rows
+                        .map(row -> new Log(Integer.parseInt(row[0]), loginUser.getCode(), 0, today))
+                        ::iterator);
+                }
+                awaitLog(written);
+            } catch (IOException | UncheckedIOException e) {
+                throw new AppException("ファイルを読み込めませんでした：" + filePath);
+            }
+            IMPORT_CSV.addRows(count);
+            return count;
+        } finally {
+            IMPORT_CSV.stop(start);
         }
-        Task newTask = new Task(code, name, 0, assignedUser);
+    }
 
-        // 2. タスクデータをCSVに保存
-        taskDataAccess.save(newTask);
+    private IntIntMap existingCodes() {
+        IntIntMap codes = new IntIntMap();
+        try (Stream<Task> tasks = taskDataAccess.stream()) {
+            tasks.forEach(task -> codes.put(task.getCode(), 0));
+        }
+        return codes;
+    }
 
-        // 3. ログオブジェクトを作成
-        Log newLog = new Log(code, loginUser.getCode(), 0, LocalDate.now());
+    /**
+     * まとめて保存する1件のタスクを確認し、確認済みのタスクコードに追加します。
+     *
+     * @param number 何件目のタスクか（メッセージに利用します）
+     * @param code タスクコード
+     * @param name タスク名
+     * @param repUserCode 担当ユーザーコード
+     * @param users ユーザーコードをキーとしたユーザー表
+     * @param codes 既存および確認済みのタスクコード（値は使用しません）
+     * @return 担当ユーザー
+     * @throws AppException 確認に失敗した場合にスローされます
+     */
+    private static User validate(int number, int code, String name, int repUserCode,
+            IntObjectMap<User> users, IntIntMap codes) throws AppException {
+        if (name.length() > 10) {
+            throw new AppException(number + "件目: タスク名は10文字以内で入力してください");
+        }
+        User assignedUser = users.get(repUserCode);
+        if (assignedUser == null) {
+            throw new AppException(number + "件目: 存在するユーザーコードを入力してください");
+        }
+        if (!codes.putIfAbsent(code, 0)) {
+            throw new AppException(number + "件目: タスクコード" + code + "は既に使われています");
+        }
+        return assignedUser;
+    }
 
-        // 4. ログデータをCSVに保存
-        logDataAccess.save(newLog);
+    private static boolean isNumeric(String inputText) {
+        try {
+            Integer.parseInt(inputText);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 
     /**
@@ -100,30 +391,184 @@ public class TaskLogic {
      *
      * @see com.taskapp.dataaccess.TaskDataAccess#findByCode(int)
      * @see com.taskapp.dataaccess.TaskDataAccess#update(com.taskapp.model.Task)
+     * @see com.taskapp.dataaccess.TaskDataAccess#update(Task, Log, LogDataAccess)
      * @see com.taskapp.dataaccess.LogDataAccess#save(com.taskapp.model.Log)
      * @param code タスクコード
      * @param status 新しいステータス
      * @param loginUser ログインユーザー
-     * @throws AppException タスクコードが存在しない、またはステータスが前のステータスより1つ先でない場合にスローされます
+     * @throws AppException タスクコードが存在しない、ステータスが1・2以外、タスクが完了済み、
+     *         ステータスが前のステータスより1つ先でない、タスクの書き込みに失敗した場合、
+     *         またはログの書き込みに失敗した場合にスローされます
      */
     public void changeStatus(int taskCode, int status, User loginUser) throws AppException {
-        Task task = taskDataAccess.findByCode(taskCode);
-        if (task == null) {
-            throw new AppException("存在するタスクコードを入力してください");
-        }
-    
-        // ステータス変更の条件確認
-        if ((task.getStatus() == 0 && status != 1) || (task.getStatus() == 1 && status != 2)) {
-            throw new AppException("ステータスは、前のステータスより1つ先のもののみを選択してください");
-        }
-    
-        // タスクのステータス更新
-        task.setStatus(status);
-        taskDataAccess.update(task);
-    
-        // ログの追加
-        Log newLog = new Log(taskCode, loginUser.getCode(), status, LocalDate.now());
-        logDataAccess.save(newLog);
+        long start = CHANGE_STATUS.start();
+        StatusChangeEvent event = new StatusChangeEvent();
+        event.begin();
+        int fromStatus = -1;
+        boolean succeeded = false;
+        try {
+            CompletableFuture<Void> written;
+            // 読み込みから更新までを同じタスクコードのロック内で行い、同時に変更されても遷移を飛ばさない
+            Lock lock = statusLocks[Math.floorMod(taskCode, LOCK_STRIPES)];
+            lock.lock();
+            try {
+                Task task = taskDataAccess.findByCode(taskCode);
+                if (task == null) {
+                    throw new AppException("存在するタスクコードを入力してください");
+                }
+                fromStatus = task.getStatus();
+
+                // ステータス変更の条件確認。完了済みのタスクや範囲外のステータスは集計にも書き込まない
+                if (status < 1 || status > 2) {
+                    throw new AppException("ステータスは1・2の中から選択してください");
+                }
+                if (task.getStatus() == 2) {
+                    throw new AppException("完了したタスクのステータスは変更できません");
+                }
+                if (status != task.getStatus() + 1) {
+                    throw new AppException("ステータスは、前のステータスより1つ先のもののみを選択してください");
+                }
+
+                // タスクのステータス更新とログの追加、集計への反映
+                int previous = task.getStatus();
+                task.setStatus(status);
+                Log newLog = new Log(taskCode, loginUser.getCode(), status, LocalDate.now());
+                try {
+                    written = statistics.record(() -> {
+                        if (taskDataAccess.sharesJournal(logDataAccess)) {
+                            return requireJournaled(taskDataAccess.update(task, newLog, logDataAccess));
+                        }
+                        taskDataAccess.update(task);
+                        return logDataAccess.save(newLog);
+                    }, task.getRepUser().getCode(), previous, status);
+                } catch (CompletionException | UncheckedIOException e) {
+                    task.setStatus(previous);
+                    throw new AppException("ステータスの変更に失敗しました");
+                }
+            } finally {
+                lock.unlock();
+            }
+            awaitLog(written);
+            succeeded = true;
+        } finally {
+            CHANGE_STATUS.stop(start);
+            if (event.shouldCommit()) {
+                event.set(taskCode, fromStatus, status, loginUser.getCode(), succeeded);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 担当ユーザー・ステータスごとのタスク数の集計を読み込みます。
+     * 保存された集計がタスクのファイルと一致する場合はそれを利用し、そうでない場合は全てのタスクを数えます。
+     * 読み込んだ後は登録・ステータス変更のたびに集計を更新します。
+     * 読み込んでいない場合は、集計を最初に参照したときに読み込みます。
+     *
+     * @see com.taskapp.dataaccess.TaskDataAccess#loadStatistics()
+     */
+    public void loadStatistics() {
+        statistics.load(() -> {
+            Map<Integer, int[]> saved = taskDataAccess.loadStatistics();
+            return saved != null ? saved : countAll();
+        });
+    }
+
+    /**
+     * 担当ユーザー・ステータスごとのタスク数の集計を保存し、次回の起動時に利用できるようにします。
+     * 集計を読み込んでいない場合は何もしません。
+     *
+     * @see com.taskapp.dataaccess.TaskDataAccess#saveStatistics(Map)
+     */
+    public void saveStatistics() {
+        statistics.withConsistentSnapshot(taskDataAccess::saveStatistics);
+    }
+
+    /**
+     * 指定した担当ユーザー・ステータスのタスク数を取得します。
+     *
+     * @param repUserCode 担当ユーザーコード
+     * @param status ステータス
+     * @return タスク数
+     */
+    public int countByStatus(int repUserCode, int status) {
+        loadStatistics();
+        return statistics.count(repUserCode, status);
+    }
+
+    /**
+     * 担当ユーザーごとのステータス別のタスク数を、担当ユーザーコードの順に取得します。
+     * タスクを担当していないユーザーは含めません。
+     *
+     * @see com.taskapp.dataaccess.UserDataAccess#findAllAsTable()
+     * @return 担当ユーザーごとのタスク数
+     */
+    public List<TaskSummary> summarize() {
+        long start = SUMMARIZE.start();
+        try {
+            loadStatistics();
+            IntObjectMap<User> users = userDataAccess.findAllAsTable();
+            List<TaskSummary> summaries = new ArrayList<>();
+            Map<Integer, int[]> counts = new TreeMap<>(statistics.snapshot());
+            for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+                User repUser = users.get(entry.getKey());
+                if (repUser != null && Arrays.stream(entry.getValue()).sum() > 0) {
+                    summaries.add(new TaskSummary(repUser, entry.getValue()));
+                }
+            }
+            SUMMARIZE.addRows(summaries.size());
+            return summaries;
+        } finally {
+            SUMMARIZE.stop(start);
+        }
+    }
+
+    private Map<Integer, int[]> countAll() {
+        Map<Integer, int[]> counts = new HashMap<>();
+        try (Stream<Task> tasks = taskDataAccess.stream()) {
+            tasks.forEach(task -> counts
+                .computeIfAbsent(task.getRepUser().getCode(), k -> new int[TaskStatistics.STATUSES])
+                [task.getStatus()]++);
+        }
+        return counts;
+    }
+
+    private static Lock[] newStripes() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * 先行書き込みログへの記録が成功したことを確認します。
+     * 記録は同期まで終えてから返るため、失敗していればここで例外となり、集計には反映されません。
+     *
+     * @param written 先行書き込みログへの記録のハンドル
+     * @return 同じハンドル
+     * @throws CompletionException 記録に失敗した場合
+     */
+    private static CompletableFuture<Void> requireJournaled(CompletableFuture<Void> written) {
+        written.join();
+        return written;
+    }
+
+    /**
+     * ログの書き込み完了を待つ設定の場合、書き込みが完了するまで待ちます。
+     *
+     * @param written ログの書き込みハンドル
+     * @throws AppException ログの書き込みに失敗した場合にスローされます
+     */
+    private void awaitLog(CompletableFuture<Void> written) throws AppException {
+        if (!awaitLogDurability) {
+            return;
+        }
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            throw new AppException("ログの保存に失敗しました");
+        }
     }
 
     /**
@@ -0,0 +1,148 @@
+package com.taskapp.logic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.taskapp.util.IntIntMap;
+
+/**
+ * 担当ユーザー・ステータスごとのタスク数を、登録・ステータス変更のたびに更新して保持します。
+ * 集計を読み込む前の変更は記録せず、読み込むときのファイルの内容に含まれるものとして扱います。
+ *
+ * <p>ファイルへの書き込みと集計の更新は読み込みロック内で行い、集計の読み込みは書き込みロック内で行います。
+ * これにより、読み込み中のファイルに反映済みの変更を二重に数えることはありません。</p>
+ */
+class TaskStatistics {
+    /** ステータスの種類の数（未着手・着手中・完了） */
+    static final int STATUSES = 3;
+
+    private final Map<Integer, AtomicIntegerArray> counts = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    /**
+     * ファイルへの書き込みを行い、集計を読み込み済みであれば1件分の変更を反映します。
+     * 書き込みが例外で終了した場合は反映しません。
+     *
+     * @param write ファイルへの書き込み
+     * @param repUserCode 担当ユーザーコード
+     * @param from 変更前のステータス、新規登録の場合は-1
+     * @param to 変更後のステータス
+     * @return 書き込みの結果
+     */
+    <T> T record(Supplier<T> write, int repUserCode, int from, int to) {
+        Lock shared = lock.readLock();
+        shared.lock();
+        try {
+            T result = write.get();
+            if (loaded) {
+                AtomicIntegerArray row = counts.computeIfAbsent(repUserCode, k -> new AtomicIntegerArray(STATUSES));
+                if (from >= 0) {
+                    row.decrementAndGet(from);
+                }
+                row.incrementAndGet(to);
+            }
+            return result;
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * まとめて登録するタスクのファイルへの書き込みを行い、集計を読み込み済みであれば登録した件数を反映します。
+     * 書き込みが例外で終了した場合は反映しません。
+     *
+     * @param write ファイルへの書き込み
+     * @param createdPerUser 担当ユーザーコードをキーとした登録するタスクの数
+     */
+    void recordCreated(Runnable write, IntIntMap createdPerUser) {
+        Lock shared = lock.readLock();
+        shared.lock();
+        try {
+            write.run();
+            if (loaded) {
+                createdPerUser.forEach((repUserCode, created) -> counts
+                    .computeIfAbsent(repUserCode, k -> new AtomicIntegerArray(STATUSES))
+                    .addAndGet(0, created));
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * 集計を読み込んでいない場合は読み込みます。
+     *
+     * @param loader 担当ユーザーコードをキーとしたステータスごとのタスク数を返す処理
+     */
+    void load(Supplier<Map<Integer, int[]>> loader) {
+        if (loaded) {
+            return;
+        }
+        Lock exclusive = lock.writeLock();
+        exclusive.lock();
+        try {
+            if (!loaded) {
+                for (Map.Entry<Integer, int[]> entry : loader.get().entrySet()) {
+                    counts.put(entry.getKey(), new AtomicIntegerArray(entry.getValue()));
+                }
+                loaded = true;
+            }
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * 指定した担当ユーザー・ステータスのタスク数を取得します。
+     *
+     * @param repUserCode 担当ユーザーコード
+     * @param status ステータス
+     * @return タスク数
+     */
+    int count(int repUserCode, int status) {
+        AtomicIntegerArray row = counts.get(repUserCode);
+        return row == null ? 0 : row.get(status);
+    }
+
+    /**
+     * 全ての担当ユーザーのタスク数の複製を取得します。
+     * @return 担当ユーザーコードをキーとしたステータスごとのタスク数
+     */
+    Map<Integer, int[]> snapshot() {
+        Map<Integer, int[]> copy = new HashMap<>();
+        for (Map.Entry<Integer, AtomicIntegerArray> entry : counts.entrySet()) {
+            AtomicIntegerArray row = entry.getValue();
+            int[] values = new int[STATUSES];
+            for (int i = 0; i < STATUSES; i++) {
+                values[i] = row.get(i);
+            }
+            copy.put(entry.getKey(), values);
+        }
+        return copy;
+    }
+
+    /**
+     * 書き込み中の変更がない状態で集計の複製を取得します。保存する集計をファイルの版と合わせる場合に利用します。
+     *
+     * @param action 複製を受け取る処理
+     */
+    void withConsistentSnapshot(Consumer<Map<Integer, int[]>> action) {
+        Lock exclusive = lock.writeLock();
+        exclusive.lock();
+        try {
+            if (loaded) {
+                action.accept(snapshot());
+            }
+        } finally {
+            exclusive.unlock();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskapp.model;
+
+import java.util.List;
+
+/**
+ * タスク一覧の1ページ分です。
+ * カーソルはヘッダーを除いたデータ行の番号で、次のページはこのページの続きの行から読み込みます。
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final int cursor;
+    private final int nextCursor;
+
+    public TaskPage(List<Task> tasks, int cursor, int nextCursor) {
+        this.tasks = tasks;
+        this.cursor = cursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return this.tasks;
+    }
+
+    public int getCursor() {
+        return this.cursor;
+    }
+
+    /**
+     * 次のページのカーソルを取得します。
+     * @return 次のページのカーソル、このページが最後の場合は-1
+     */
+    public int getNextCursor() {
+        return this.nextCursor;
+    }
+
+    public boolean hasNext() {
+        return this.nextCursor >= 0;
+    }
+}
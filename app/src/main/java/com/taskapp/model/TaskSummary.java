@@ -0,0 +1,31 @@
+package com.taskapp.model;
+
+/**
+ * 1人の担当ユーザーのステータスごとのタスク数です。
+ */
+public class TaskSummary {
+    private final User repUser;
+    private final int[] counts;
+
+    /**
+     * @param repUser 担当ユーザー
+     * @param counts ステータスを添字としたタスク数（未着手・着手中・完了の順）
+     */
+    public TaskSummary(User repUser, int[] counts) {
+        this.repUser = repUser;
+        this.counts = counts;
+    }
+
+    public User getRepUser() {
+        return this.repUser;
+    }
+
+    /**
+     * 指定したステータスのタスク数を取得します。
+     * @param status ステータス
+     * @return タスク数
+     */
+    public int getCount(int status) {
+        return this.counts[status];
+    }
+}
@@ -0,0 +1,251 @@
+package com.taskapp.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.taskapp.exception.AppException;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.logic.UserLogic;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+/**
+ * {@link TaskUI}と同じ操作をTCPで受け付けるサーバーです。
+ * 接続ごとに仮想スレッドを割り当て、ログインユーザーは接続ごとのセッションに保持します。
+ *
+ * <p>1行に1つのコマンドをUTF-8で送信し、応答は{@code OK}または{@code ERR <メッセージ>}で始まる1行です。</p>
+ * <ul>
+ *   <li>{@code LOGIN <email> <password>} ログインし、{@code OK <code> <name>}を返します</li>
+ *   <li>{@code LIST} タスクを{@code code,name,status,repUserCode,repUserName}の形式で1行ずつ返し、
+ *       最後に{@code END}を返します</li>
+ *   <li>{@code CREATE <code> <repUserCode> <name>} タスクを登録します</li>
+ *   <li>{@code STATUS <code> <status>} タスクのステータスを変更します</li>
+ *   <li>{@code LOGOUT} ログアウトし、接続を閉じます</li>
+ * </ul>
+ */
+public class TaskServer implements Closeable {
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocket serverSocket;
+    private final UserLogic userLogic;
+    private final TaskLogic taskLogic;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread acceptThread;
+
+    /**
+     * ローカルホストの指定したポートで接続を受け付けるサーバーを作成します。
+     *
+     * @param port 待ち受けるポート番号、0の場合は空いているポートを利用します
+     * @param userLogic ログインに利用するロジック
+     * @param taskLogic タスクの操作に利用するロジック（全セッションで共有します）
+     * @throws IOException ポートを開けない場合
+     */
+    public TaskServer(int port, UserLogic userLogic, TaskLogic taskLogic) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.userLogic = userLogic;
+        this.taskLogic = taskLogic;
+        this.acceptThread = Thread.ofPlatform().name("task-server-accept").unstarted(this::acceptLoop);
+    }
+
+    /**
+     * 接続の受け付けを開始します。
+     */
+    public void start() {
+        acceptThread.start();
+    }
+
+    /**
+     * 待ち受けているポート番号を取得します。
+     * @return ポート番号
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 接続の受け付けを止め、処理中のセッションが終わるのを待ちます。
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+            acceptThread.join();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // closeによって受け付けを終了した
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 1つの接続のコマンドを、切断されるかログアウトするまで処理します。
+     *
+     * @param socket 受け付けた接続
+     */
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            Session session = new Session(writer);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!session.handle(line)) {
+                    break;
+                }
+                writer.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // クライアントが応答を待たずに切断した場合は何もしない
+        }
+    }
+
+    /**
+     * 接続ごとの状態です。ログインユーザーを保持します。
+     */
+    private final class Session {
+        private final BufferedWriter writer;
+        private User loginUser;
+
+        private Session(BufferedWriter writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * 1行のコマンドを処理し、応答を書き込みます。
+         *
+         * @param line コマンド
+         * @return 接続を続ける場合はtrue
+         * @throws IOException 応答を書き込めない場合
+         */
+        private boolean handle(String line) throws IOException {
+            String[] parts = line.trim().split(" ", 4);
+            String command = parts[0];
+            try {
+                switch (command) {
+                    case "LOGIN" -> login(parts);
+                    case "LIST" -> list();
+                    case "CREATE" -> create(parts);
+                    case "STATUS" -> changeStatus(parts);
+                    case "LOGOUT" -> {
+                        loginUser = null;
+                        respond("OK");
+                        return false;
+                    }
+                    default -> throw new AppException("不明なコマンドです：" + command);
+                }
+            } catch (AppException e) {
+                respond("ERR " + e.getMessage());
+            }
+            return true;
+        }
+
+        private void login(String[] parts) throws AppException, IOException {
+            if (parts.length != 3) {
+                throw new AppException("LOGIN <メールアドレス> <パスワード>の形式で入力してください");
+            }
+            User user = userLogic.login(parts[1], parts[2]);
+            if (user == null) {
+                throw new AppException("既に登録されているメールアドレス、パスワードを入力してください");
+            }
+            loginUser = user;
+            respond("OK " + user.getCode() + " " + user.getName());
+        }
+
+        private void list() throws AppException, IOException {
+            requireLogin();
+            try (Stream<Task> tasks = taskLogic.stream()) {
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    Task task = iterator.next();
+                    writer.write(task.getCode() + "," + task.getName() + "," + task.getStatus() + ","
+                        + task.getRepUser().getCode() + "," + task.getRepUser().getName());
+                    writer.newLine();
+                }
+            }
+            respond("END");
+        }
+
+        private void create(String[] parts) throws AppException, IOException {
+            requireLogin();
+            if (parts.length != 4 || !isNumeric(parts[1]) || !isNumeric(parts[2])) {
+                throw new AppException("CREATE <タスクコード> <担当ユーザーコード> <タスク名>の形式で入力してください");
+            }
+            String name = parts[3];
+            if (name.length() > 10) {
+                throw new AppException("タスク名は10文字以内で入力してください");
+            }
+            taskLogic.save(Integer.parseInt(parts[1]), name, Integer.parseInt(parts[2]), loginUser);
+            respond("OK");
+        }
+
+        private void changeStatus(String[] parts) throws AppException, IOException {
+            requireLogin();
+            if (parts.length != 3 || !isNumeric(parts[1]) || !isNumeric(parts[2])) {
+                throw new AppException("STATUS <タスクコード> <ステータス>の形式で入力してください");
+            }
+            int status = Integer.parseInt(parts[2]);
+            if (status != 1 && status != 2) {
+                throw new AppException("ステータスは1・2の中から選択してください");
+            }
+            taskLogic.changeStatus(Integer.parseInt(parts[1]), status, loginUser);
+            respond("OK");
+        }
+
+        private void requireLogin() throws AppException {
+            if (loginUser == null) {
+                throw new AppException("ログインしてください");
+            }
+        }
+
+        private void respond(String response) throws IOException {
+            writer.write(response);
+            writer.newLine();
+        }
+
+        private boolean isNumeric(String inputText) {
+            try {
+                Integer.parseInt(inputText);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
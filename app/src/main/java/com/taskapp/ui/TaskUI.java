@@ -3,18 +3,30 @@ package com.taskapp.ui;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
 import com.taskapp.exception.AppException;
 import com.taskapp.logic.TaskLogic;
 import com.taskapp.logic.UserLogic;
+import com.taskapp.model.TaskPage;
+import com.taskapp.model.TaskSummary;
 import com.taskapp.model.User;
+import com.taskapp.util.Metrics;
 
 public class TaskUI {
     private  final BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-        private final UserLogic userLogic = new UserLogic();
-        private final TaskLogic taskLogic = new TaskLogic();
+        private final UserLogic userLogic;
+        private final TaskLogic taskLogic;
         private User loginUser;
 
+    /** タスク一覧の1ページに表示するタスク数 */
+    private static final int PAGE_SIZE = 20;
+    /** 表示中のページより前のページのカーソル */
+    private final Deque<Integer> previousCursors = new ArrayDeque<>();
+    private TaskPage currentPage;
+
     /**
      * 自動採点用に必要なコンストラクタのため、皆さんはこのコンストラクタを利用・削除はしないでください
      * @param reader
@@ -22,19 +34,33 @@ public class TaskUI {
      * @param taskLogic
      */
     public TaskUI(BufferedReader reader, UserLogic userLogic, TaskLogic taskLogic) {
+        this(userLogic, taskLogic);
     }
 
     public TaskUI() {
+        this(new UserLogic(), new TaskLogic());
+    }
 
+    /**
+     * 指定したロジックを利用して操作を受け付けます。
+     *
+     * @param userLogic ユーザーのロジック
+     * @param taskLogic タスクのロジック
+     */
+    public TaskUI(UserLogic userLogic, TaskLogic taskLogic) {
+        this.userLogic = userLogic;
+        this.taskLogic = taskLogic;
     }
 
     /**
      * メニューを表示し、ユーザーの入力に基づいてアクションを実行します。
      *
      * @see #inputLogin()
-     * @see com.taskapp.logic.TaskLogic#showAll(User)
+     * @see #showPage(int)
      * @see #selectSubMenu()
      * @see #inputNewInformation()
+     * @see #showSummary()
+     * @see com.taskapp.util.Metrics#report()
      */
     public void displayMenu() {
         System.out.println("タスク管理アプリケーションにようこそ!!");
@@ -43,8 +69,8 @@ public class TaskUI {
         // メインメニュー
         while (true) {
             try {
-                System.out.println("以下1~3のメニューから好きな選択肢を選んでください。");
-                System.out.println("1. タスク一覧, 2. タスク新規登録, 3. ログアウト");
+                System.out.println("以下1~5のメニューから好きな選択肢を選んでください。");
+                System.out.println("1. タスク一覧, 2. タスク新規登録, 3. ログアウト, 4. 担当者別の集計, 5. 処理の計測値");
                 System.out.print("選択肢：");
                 String selectMenu = reader.readLine();
 
@@ -52,14 +78,22 @@ public class TaskUI {
 
                 switch (selectMenu) {
                     case "1":
-                    taskLogic.showAll(loginUser);
+                    previousCursors.clear();
+                    showPage(0);
                     selectSubMenu();
                         break;
                     case "2":
                         inputNewInformation();
                         break;
                     case "3":
+                        taskLogic.saveStatistics();
                         return;
+                    case "4":
+                        showSummary();
+                        break;
+                    case "5":
+                        System.out.print(Metrics.report());
+                        break;
                     default:
                         break;
                 }
@@ -70,6 +104,26 @@ public class TaskUI {
         }
     }
 
+    /**
+     * 担当者ごとのステータス別のタスク数を表示します。
+     *
+     * @see com.taskapp.logic.TaskLogic#summarize()
+     */
+    private void showSummary() {
+        List<TaskSummary> summaries = taskLogic.summarize();
+        if (summaries.isEmpty()) {
+            System.out.println("タスクがありません");
+            return;
+        }
+        for (TaskSummary summary : summaries) {
+            String name = summary.getRepUser().getCode() == loginUser.getCode()
+                ? "あなた"
+                : summary.getRepUser().getName();
+            System.out.println(name + "：未着手 " + summary.getCount(0) + "件, 着手中 " + summary.getCount(1)
+                + "件, 完了 " + summary.getCount(2) + "件");
+        }
+    }
+
     /**
      * ユーザーからのログイン情報を受け取り、ログイン処理を行います。
      *
@@ -159,16 +213,17 @@ public class TaskUI {
     }
 
     /**
-     * タスクのステータス変更または削除を選択するサブメニューを表示します。
+     * タスクのステータス変更または削除、一覧のページ移動を選択するサブメニューを表示します。
      *
      * @see #inputChangeInformation()
      * @see #inputDeleteInformation()
+     * @see #showPage(int)
      */
     public void selectSubMenu() {
         while (true) {
             try {
-                System.out.println("以下1~2から好きな選択肢を選んでください。");
-                System.out.println("1. タスクのステータス変更, 2. メインメニューに戻る");
+                System.out.println("以下1~4から好きな選択肢を選んでください。");
+                System.out.println("1. タスクのステータス変更, 2. メインメニューに戻る, 3. 次のページ, 4. 前のページ");
                 System.out.print("選択肢：");
                 String selectMenu = reader.readLine();
     
@@ -179,6 +234,21 @@ public class TaskUI {
                     case "2":
                         System.out.println("ステータスは、前のステータスより1つ先のもののみを選択してください\n");
                         return; // メインメニューに戻る
+                    case "3":
+                        if (currentPage == null || !currentPage.hasNext()) {
+                            System.out.println("最後のページです\n");
+                            break;
+                        }
+                        previousCursors.push(currentPage.getCursor());
+                        showPage(currentPage.getNextCursor());
+                        break;
+                    case "4":
+                        if (previousCursors.isEmpty()) {
+                            System.out.println("最初のページです\n");
+                            break;
+                        }
+                        showPage(previousCursors.pop());
+                        break;
                     default:
                         break;
                 }
@@ -188,6 +258,19 @@ public class TaskUI {
         }
     }
 
+    /**
+     * 指定したカーソルから1ページ分のタスクを表示します。
+     * 番号は前のページまでに表示したタスクの続きから付けます。
+     *
+     * @see com.taskapp.logic.TaskLogic#showPage(User, int, int, int)
+     * @param cursor 表示を始めるカーソル
+     */
+    private void showPage(int cursor) {
+        int firstIndex = previousCursors.size() * PAGE_SIZE + 1;
+        currentPage = taskLogic.showPage(loginUser, cursor, PAGE_SIZE, firstIndex);
+        System.out.println();
+    }
+
     /**
      * ユーザーからのタスクステータス変更情報を受け取り、タスクのステータスを変更します。
      *
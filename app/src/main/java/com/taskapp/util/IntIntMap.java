@@ -0,0 +1,224 @@
+package com.taskapp.util;
+
+/**
+ * intをキー・値とするオープンアドレス法のハッシュ表です。
+ * キーと値を{@link Integer}に変換せず配列に直接格納します。
+ *
+ * <p>要素の削除には対応していません。スレッドセーフではありません。</p>
+ */
+public class IntIntMap {
+    static final float LOAD_FACTOR = 0.6f;
+    private static final int MIN_CAPACITY = 8;
+    /** 空きを表すキー。このキー自体は配列の外で保持します */
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public IntIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 格納する見込みの件数
+     */
+    public IntIntMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private IntIntMap(IntIntMap source) {
+        this.keys = source.keys.clone();
+        this.values = source.values.clone();
+        this.size = source.size;
+        this.mask = source.mask;
+        this.resizeAt = source.resizeAt;
+        this.hasFreeKey = source.hasFreeKey;
+        this.freeKeyValue = source.freeKeyValue;
+    }
+
+    /**
+     * キーに対応する値を取得します。
+     * @param key キー
+     * @param defaultValue キーが存在しない場合に返す値
+     * @return 値
+     */
+    public int get(int key, int defaultValue) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int slot = hash(key) & mask;
+        int k;
+        while ((k = keys[slot]) != FREE) {
+            if (k == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+        return keys[slotOf(key)] == key;
+    }
+
+    /**
+     * キーに値を対応付けます。
+     * @param key キー
+     * @param value 値
+     */
+    public void put(int key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return;
+        }
+        int slot = slotOf(key);
+        values[slot] = value;
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            grown();
+        }
+    }
+
+    /**
+     * キーが存在しない場合のみ値を対応付けます。
+     * @param key キー
+     * @param value 値
+     * @return 対応付けた場合はtrue、キーが既に存在した場合はfalse
+     */
+    public boolean putIfAbsent(int key, int value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * キーに対応する値に加算します。キーが存在しない場合は0に加算します。
+     * @param key キー
+     * @param delta 加算する値
+     * @return 加算後の値
+     */
+    public int addTo(int key, int delta) {
+        if (key == FREE) {
+            put(key, get(key, 0) + delta);
+            return freeKeyValue;
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            values[slot] = delta;
+            grown();
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * すべての要素を順不同で処理します。
+     * @param action 要素を受け取る処理
+     */
+    public void forEach(Visitor action) {
+        if (hasFreeKey) {
+            action.accept(FREE, freeKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * 同じ内容を持つ別の表を作成します。
+     * @return 複製した表
+     */
+    public IntIntMap copy() {
+        return new IntIntMap(this);
+    }
+
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        int k;
+        while ((k = keys[slot]) != FREE && k != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grown() {
+        if (++size > resizeAt) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(keys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (keys[slot] != FREE) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 連続したコードが隣り合う位置に集まらないよう、キーを散らします。
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 指定した件数を格納しても拡張しない、2のべき乗の容量を求めます。
+     */
+    static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1;
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        forEach((key, value) -> text.append(text.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return text.append('}').toString();
+    }
+
+    /**
+     * 要素を受け取る処理です。
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskapp.util;
+
+import java.util.Arrays;
+
+/**
+ * intの値を{@link Integer}に変換せず配列に直接格納する可変長のリストです。
+ * スレッドセーフではありません。
+ */
+public class IntList {
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(8);
+    }
+
+    /**
+     * @param initialCapacity 初期容量
+     */
+    public IntList(int initialCapacity) {
+        this.elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * 末尾に値を追加します。
+     * @param value 追加する値
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(size * 2, 8));
+        }
+        elements[size++] = value;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public void set(int index, int value) {
+        checkIndex(index);
+        elements[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 要素を格納した配列を作成します。
+     * @return 要素数と同じ長さの配列
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * 同じ内容を持つ別のリストを作成します。
+     * @return 複製したリスト
+     */
+    public IntList copy() {
+        IntList copy = new IntList(0);
+        copy.elements = toArray();
+        copy.size = size;
+        return copy;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
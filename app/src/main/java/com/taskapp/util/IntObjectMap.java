@@ -0,0 +1,207 @@
+package com.taskapp.util;
+
+import java.util.function.IntFunction;
+
+/**
+ * intをキーとしたオープンアドレス法のハッシュ表です。
+ * キーを{@link Integer}に変換せず配列に直接格納するため、{@code HashMap<Integer, V>}より
+ * 1件あたりのメモリが少なく、参照時にオブジェクトをたどりません。
+ *
+ * <p>値にnullは格納できません。要素の削除には対応していません。スレッドセーフではありません。</p>
+ *
+ * @param <V> 値の型
+ */
+public class IntObjectMap<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 格納する見込みの件数
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(IntIntMap.capacityFor(expectedSize));
+    }
+
+    private IntObjectMap(IntObjectMap<V> source) {
+        this.keys = source.keys.clone();
+        this.values = source.values.clone();
+        this.size = source.size;
+        this.mask = source.mask;
+        this.resizeAt = source.resizeAt;
+    }
+
+    /**
+     * キーに対応する値を取得します。
+     * @param key キー
+     * @return 値、存在しない場合はnull
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = IntIntMap.hash(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * キーに値を対応付けます。
+     * @param key キー
+     * @param value 値
+     * @return 以前の値、存在しなかった場合はnull
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int slot = slotOf(key);
+        Object previous = values[slot];
+        values[slot] = value;
+        if (previous == null) {
+            keys[slot] = key;
+            grown();
+        }
+        return (V) previous;
+    }
+
+    /**
+     * キーが存在しない場合のみ値を対応付けます。
+     * @param key キー
+     * @param value 値
+     * @return 既存の値、存在しなかった場合はnull
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int slot = slotOf(key);
+        Object existing = values[slot];
+        if (existing != null) {
+            return (V) existing;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        grown();
+        return null;
+    }
+
+    /**
+     * キーに対応する値を取得し、存在しない場合は作成して対応付けます。
+     * @param key キー
+     * @param factory 値を作成する処理
+     * @return 既存または作成した値
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+        int slot = slotOf(key);
+        Object existing = values[slot];
+        if (existing != null) {
+            return (V) existing;
+        }
+        V created = factory.apply(key);
+        keys[slot] = key;
+        values[slot] = created;
+        grown();
+        return created;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * すべての要素を順不同で処理します。
+     * @param action 要素を受け取る処理
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    /**
+     * 同じ内容を持つ別の表を作成します。値そのものは複製しません。
+     * @return 複製した表
+     */
+    public IntObjectMap<V> copy() {
+        return new IntObjectMap<>(this);
+    }
+
+    /**
+     * キーが格納されている、または格納すべき位置を探します。
+     */
+    private int slotOf(int key) {
+        int slot = IntIntMap.hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grown() {
+        if (++size > resizeAt) {
+            int[] oldKeys = keys;
+            Object[] oldValues = values;
+            allocate(keys.length * 2);
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = IntIntMap.hash(oldKeys[i]) & mask;
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * IntIntMap.LOAD_FACTOR);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        forEach((key, value) -> text.append(text.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return text.append('}').toString();
+    }
+
+    /**
+     * 要素を受け取る処理です。
+     * @param <V> 値の型
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+        void accept(int key, V value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.taskapp.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ログファイルへの追記を表すJFRイベントです。
+ * 書き込みサービスを利用する場合は、まとめて書き込んだ単位で記録します。
+ */
+@Name("com.taskapp.LogAppend")
+@Label("Log Append")
+@Category({ "TaskApp", "Storage" })
+@Description("Append to a log file")
+@StackTrace(false)
+public class LogAppendEvent extends StorageEvent {
+}
@@ -0,0 +1,75 @@
+package com.taskapp.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * 操作ごとの計測値を名前で管理します。
+ * 作成した計測値は{@code com.taskapp:type=Operation,name=<操作名>}としてJMXにも登録します。
+ * 計測する側のクラスでは、計測値を定数として一度だけ取得して利用してください。
+ */
+public final class Metrics {
+    static final String DOMAIN = "com.taskapp";
+
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * 指定した名前の計測値を取得します。存在しない場合は作成してJMXに登録します。
+     * @param name 操作名（{@code クラス名.メソッド名}の形式）
+     * @return 計測値
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, Metrics::register);
+    }
+
+    /**
+     * 作成済みの計測値を名前の順に取得します。
+     * @return 計測値のリスト
+     */
+    public static List<OperationMetrics> operations() {
+        List<OperationMetrics> operations = new ArrayList<>(OPERATIONS.values());
+        operations.sort(Comparator.comparing(OperationMetrics::getName));
+        return operations;
+    }
+
+    /**
+     * 1回以上呼び出された操作の計測値を表形式の文字列にします。
+     * @return 計測値の表
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder(String.format("%-36s %8s %10s %12s %12s %10s %10s %10s %10s%n",
+            "操作", "回数", "行数", "読込(B)", "書込(B)", "p50(us)", "p95(us)", "p99(us)", "max(us)"));
+        for (OperationMetrics operation : operations()) {
+            if (operation.getCalls() == 0) {
+                continue;
+            }
+            report.append(String.format("%-36s %8d %10d %12d %12d %10.1f %10.1f %10.1f %10.1f%n",
+                operation.getName(), operation.getCalls(), operation.getRows(), operation.getBytesRead(),
+                operation.getBytesWritten(), operation.getP50Micros(), operation.getP95Micros(),
+                operation.getP99Micros(), operation.getMaxMicros()));
+        }
+        return report.toString();
+    }
+
+    private static OperationMetrics register(String name) {
+        OperationMetrics operation = new OperationMetrics(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(operation, new ObjectName(DOMAIN + ":type=Operation,name=" + name));
+        } catch (JMException | SecurityException e) {
+            // JMXに登録できなくても計測は続ける
+            e.printStackTrace();
+        }
+        return operation;
+    }
+}
@@ -0,0 +1,34 @@
+package com.taskapp.util;
+
+/**
+ * 1つの操作の計測値をJMXで公開するためのインターフェースです。
+ * 時間はマイクロ秒で、パーセンタイルは計測値が含まれる区間の上限を返します。
+ *
+ * @see OperationMetrics
+ */
+public interface OperationMetricsMXBean {
+    String getName();
+
+    long getCalls();
+
+    long getRows();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP95Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    /**
+     * すべての計測値を0に戻します。
+     */
+    void reset();
+}
@@ -0,0 +1,50 @@
+package com.taskapp.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * タスクのステータス変更を表すJFRイベントです。
+ * 期間中のファイルの読み書きは、同じスレッドの{@link TaskFileScanEvent}などとして記録されます。
+ */
+@Name("com.taskapp.StatusChange")
+@Label("Status Change")
+@Category({ "TaskApp", "Logic" })
+@Description("Status change of a task, including the lookup, update and log append")
+@StackTrace(false)
+public class StatusChangeEvent extends Event {
+    @Label("Task Code")
+    int taskCode;
+
+    @Label("From Status")
+    int fromStatus;
+
+    @Label("To Status")
+    int toStatus;
+
+    @Label("User Code")
+    int userCode;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * 記録する項目を設定します。
+     * @param taskCode タスクコード
+     * @param fromStatus 変更前のステータス、タスクが見つからない場合は-1
+     * @param toStatus 変更後のステータス
+     * @param userCode 変更したユーザーのコード
+     * @param succeeded 変更できた場合はtrue
+     */
+    public void set(int taskCode, int fromStatus, int toStatus, int userCode, boolean succeeded) {
+        this.taskCode = taskCode;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.userCode = userCode;
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskapp.util;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * ファイルを読み書きする操作のJFRイベントに共通する項目です。
+ * 記録が無効な場合は{@link #shouldCommit()}がfalseを返すため、項目の設定は省略できます。
+ *
+ * <pre>{@code
+ * TaskFileScanEvent event = new TaskFileScanEvent();
+ * event.begin();
+ * ...
+ * if (event.shouldCommit()) {
+ *     event.set("findAll", filePath, rows, bytes);
+ *     event.commit();
+ * }
+ * }</pre>
+ */
+public abstract class StorageEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("File Path")
+    String path;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * 記録する項目を設定します。
+     * @param operation 操作名（メソッド名）
+     * @param path 読み書きしたファイルのパス
+     * @param rows 読み込んだ、または書き込んだ行数
+     * @param bytes 読み込んだ、または書き込んだバイト数
+     */
+    public void set(String operation, String path, long rows, long bytes) {
+        this.operation = operation;
+        this.path = path;
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,19 @@
+package com.taskapp.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * タスクのCSV全体を書き直した操作を表すJFRイベントです。
+ * 通常モードの更新と、ジャーナルの畳み込みで発生します。
+ */
+@Name("com.taskapp.TaskFileRewrite")
+@Label("Task File Rewrite")
+@Category({ "TaskApp", "Storage" })
+@Description("Rewrite of the whole task CSV file")
+@StackTrace(false)
+public class TaskFileRewriteEvent extends StorageEvent {
+}
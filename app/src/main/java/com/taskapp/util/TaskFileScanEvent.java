@@ -0,0 +1,18 @@
+package com.taskapp.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * タスクのCSVを読み込んだ操作を表すJFRイベントです。
+ */
+@Name("com.taskapp.TaskFileScan")
+@Label("Task File Scan")
+@Category({ "TaskApp", "Storage" })
+@Description("Scan of the task CSV file")
+@StackTrace(false)
+public class TaskFileScanEvent extends StorageEvent {
+}
@@ -0,0 +1,19 @@
+package com.taskapp.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ユーザーの検索を表すJFRイベントです。
+ * 検索時にusers.csvを読み込み直した場合のみ、読み込んだ行数とバイト数を記録します。
+ */
+@Name("com.taskapp.UserLookup")
+@Label("User Lookup")
+@Category({ "TaskApp", "Storage" })
+@Description("Lookup of a user by code or email; rows and bytes are non-zero when users.csv was reloaded")
+@StackTrace(false)
+public class UserLookupEvent extends StorageEvent {
+}
@@ -0,0 +1,100 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+
+public class BinaryLogDataAccessTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSaveAndFindAll() throws IOException {
+        Path binary = tempDir.resolve("logs.bin");
+        BinaryLogDataAccess logDataAccess = new BinaryLogDataAccess(binary.toString());
+
+        logDataAccess.save(new Log(1, 2, 0, LocalDate.of(2024, 1, 10)));
+        logDataAccess.save(new Log(300000, 7, 2, LocalDate.of(2025, 12, 31)));
+
+        List<Log> logs = logDataAccess.findAll();
+
+        assertThat(Files.size(binary)).isEqualTo(BinaryLogDataAccess.HEADER_SIZE + 2 * BinaryLogDataAccess.RECORD_SIZE);
+        assertThat(logs).hasSize(2);
+        assertThat(logs.get(1)).isEqualToComparingFieldByField(new Log(300000, 7, 2, LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    public void testCsvRoundTrip() throws IOException {
+        Path csv = tempDir.resolve("logs.csv");
+        Path binary = tempDir.resolve("logs.bin");
+        Path exported = tempDir.resolve("exported.csv");
+        Files.writeString(csv, "Task_Code,Change_User_Code,Status,Change_Date\n"
+            + "1,1,0,2024-01-10\n"
+            + "3,2,1,2024-01-11\n"
+            + "3,2,2,2024-01-12\n");
+
+        BinaryLogDataAccess.importCsv(csv.toString(), binary.toString());
+        BinaryLogDataAccess.exportCsv(binary.toString(), exported.toString());
+
+        assertThat(Files.readAllLines(exported)).isEqualTo(Files.readAllLines(csv));
+        assertThat(new BinaryLogDataAccess(binary.toString()).findAll())
+            .usingFieldByFieldElementComparator()
+            .isEqualTo(new LogDataAccess(csv.toString()).findAll());
+        assertThat(Files.size(binary)).isLessThan(Files.size(csv));
+    }
+
+    @Test
+    public void testRejectsCsvFile() throws IOException {
+        Path csv = tempDir.resolve("logs.csv");
+        Files.writeString(csv, "Task_Code,Change_User_Code,Status,Change_Date\n1,1,0,2024-01-10\n");
+
+        assertThat(new BinaryLogDataAccess(csv.toString()).findAll()).isEmpty();
+    }
+
+    @Test
+    public void testCannotShareWriteAheadJournal() throws IOException {
+        Path users = tempDir.resolve("users.csv");
+        Path tasks = tempDir.resolve("tasks.csv");
+        Files.writeString(users, "Code,Name,Email,Password\n");
+        Files.writeString(tasks, "code,name,status,repUserCode\n");
+        BinaryLogDataAccess logDataAccess = new BinaryLogDataAccess(tempDir.resolve("logs.bin").toString());
+
+        assertThatThrownBy(() -> new TaskDataAccess(tasks.toString(), new UserDataAccess(users.toString()),
+            logDataAccess)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testStreamReadsAcrossBatchesAndStopsEarly() throws IOException {
+        Path csv = tempDir.resolve("logs.csv");
+        Path binary = tempDir.resolve("logs.bin");
+        StringBuilder content = new StringBuilder("Task_Code,Change_User_Code,Status,Change_Date\n");
+        for (int i = 0; i < 20_000; i++) {
+            content.append(i).append(",1,").append(i % 3).append(",2024-01-10\n");
+        }
+        Files.writeString(csv, content);
+        BinaryLogDataAccess.importCsv(csv.toString(), binary.toString());
+        BinaryLogDataAccess logDataAccess = new BinaryLogDataAccess(binary.toString());
+
+        try (Stream<Log> logs = logDataAccess.stream()) {
+            assertThat(logs.mapToInt(Log::getTaskCode).sum()).isEqualTo(20_000 * 19_999 / 2);
+        }
+        Optional<Log> found;
+        try (Stream<Log> logs = logDataAccess.stream()) {
+            found = logs.filter(log -> log.getTaskCode() == 10_000).findFirst();
+        }
+
+        assertThat(found).get().extracting(Log::getStatus).isEqualTo(1);
+        assertThat(TaskDataAccessJoinTest.openDescriptorsOf(binary.toString())).isZero();
+    }
+}
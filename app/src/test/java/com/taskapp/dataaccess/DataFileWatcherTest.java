@@ -0,0 +1,83 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+public class DataFileWatcherTest {
+    private static final String USERS_HEADER = "Code,Name,Email,Password\n";
+    private static final String TASKS_HEADER = "code,name,status,repUserCode\n";
+
+    @TempDir
+    Path tempDir;
+
+    private Path usersFile;
+    private Path tasksFile;
+    private UserDataAccess userDataAccess;
+    private TaskDataAccess taskDataAccess;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        usersFile = tempDir.resolve("users.csv");
+        tasksFile = tempDir.resolve("tasks.csv");
+        Files.writeString(usersFile, USERS_HEADER + "1,鈴木,suzuki@example.com,password1\n");
+        Files.writeString(tasksFile, TASKS_HEADER + "1,タスク1,0,1\n" + "2,タスク2,0,1\n");
+        userDataAccess = new UserDataAccess(usersFile.toString());
+        taskDataAccess = new TaskDataAccess(tasksFile.toString(), userDataAccess);
+    }
+
+    @Test
+    public void testExternalEditIsReflectedAfterDebounce() throws Exception {
+        try (DataFileWatcher watcher = new DataFileWatcher(userDataAccess, taskDataAccess, 50)) {
+            watcher.start();
+            assertThat(userDataAccess.findByCode(1).getName()).isEqualTo("鈴木");
+
+            Files.writeString(usersFile, USERS_HEADER + "1,佐藤花子,sato@example.com,password1\n");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!"佐藤花子".equals(userDataAccess.findByCode(1).getName())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(userDataAccess.findByCode(1).getName()).isEqualTo("佐藤花子");
+        }
+    }
+
+    @Test
+    public void testReadsSkipFileCheckUntilNotified() throws IOException {
+        DataFileWatcher watcher = new DataFileWatcher(userDataAccess, taskDataAccess, 60_000);
+        watcher.start();
+        User before = userDataAccess.findByCode(1);
+
+        Files.writeString(usersFile, USERS_HEADER + "1,佐藤花子,sato@example.com,password1\n");
+        // 通知の待ち時間が過ぎるまでは、ファイルを確認せずに保持している索引を返す
+        assertThat(userDataAccess.findByCode(1)).isSameAs(before);
+
+        watcher.close();
+        assertThat(userDataAccess.findByCode(1).getName()).isEqualTo("佐藤花子");
+    }
+
+    @Test
+    public void testOwnWritesAreVisibleWithoutNotification() throws IOException {
+        try (DataFileWatcher watcher = new DataFileWatcher(userDataAccess, taskDataAccess, 60_000)) {
+            watcher.start();
+            assertThat(taskDataAccess.findPage(0, 10).getTasks()).hasSize(2);
+
+            taskDataAccess.save(new Task(3, "タスク3", 0, userDataAccess.findByCode(1)));
+            taskDataAccess.update(new Task(1, "タスク1", 1, userDataAccess.findByCode(1)));
+
+            assertThat(taskDataAccess.findPage(0, 10).getTasks())
+                .extracting(Task::getCode, Task::getStatus)
+                .containsExactly(tuple(1, 1), tuple(2, 0), tuple(3, 0));
+        }
+    }
+}
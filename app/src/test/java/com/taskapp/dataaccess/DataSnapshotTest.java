@@ -0,0 +1,126 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+public class DataSnapshotTest {
+    private static final int USER_COUNT = 50;
+    private static final int TASK_COUNT = 2_000;
+
+    @TempDir
+    Path tempDir;
+
+    private String usersPath;
+    private String tasksPath;
+    private String snapshotPath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        usersPath = tempDir.resolve("users.csv").toString();
+        tasksPath = tempDir.resolve("tasks.csv").toString();
+        snapshotPath = tempDir.resolve("taskapp.snapshot").toString();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersPath))) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= USER_COUNT; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tasksPath))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                writer.write(i + ",タスク" + (i % 7) + "," + (i % 3) + "," + (1 + i % USER_COUNT) + "\n");
+            }
+        }
+    }
+
+    @Test
+    public void testRestoreMatchesCsv() {
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        TaskTable expected = taskDataAccess.loadTable();
+        assertThat(new DataSnapshot(snapshotPath, userDataAccess, taskDataAccess).write()).isEqualTo(DataSnapshot.Result.WRITTEN);
+
+        UserDataAccess restoredUsers = new UserDataAccess(usersPath);
+        TaskDataAccess restoredTasks = new TaskDataAccess(tasksPath, restoredUsers);
+        assertThat(new DataSnapshot(snapshotPath, restoredUsers, restoredTasks).restore())
+            .isEqualTo(DataSnapshot.Result.RESTORED);
+
+        TaskTable table = restoredTasks.loadTable();
+        assertThat(table.size()).isEqualTo(expected.size());
+        for (int row = 0; row < table.size(); row++) {
+            assertThat(table.toTask(row)).isEqualToComparingFieldByField(expected.toTask(row));
+        }
+        assertThat(table.distinctNames()).isEqualTo(expected.distinctNames());
+        User user = restoredUsers.findByEmailAndPassword("user7@example.com", "password7");
+        assertThat(user).isSameAs(restoredUsers.findByCode(7));
+        assertThat(table.toTask(table.filterByRepUser(7)[0]).getRepUser()).isSameAs(user);
+        assertThat(restoredTasks.findByCode(TASK_COUNT)).isEqualToComparingFieldByField(
+            taskDataAccess.findByCode(TASK_COUNT));
+    }
+
+    @Test
+    public void testRestoreRejectsChangedSource() throws IOException {
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        assertThat(new DataSnapshot(snapshotPath, userDataAccess, taskDataAccess).write()).isEqualTo(DataSnapshot.Result.WRITTEN);
+        taskDataAccess.save(new Task(TASK_COUNT + 1, "追加", 0, userDataAccess.findByCode(1)));
+        Path tasks = Path.of(tasksPath);
+        Files.setLastModifiedTime(tasks, FileTime.fromMillis(Files.getLastModifiedTime(tasks).toMillis() + 2000));
+
+        UserDataAccess restoredUsers = new UserDataAccess(usersPath);
+        TaskDataAccess restoredTasks = new TaskDataAccess(tasksPath, restoredUsers);
+        assertThat(new DataSnapshot(snapshotPath, restoredUsers, restoredTasks).restore())
+            .isEqualTo(DataSnapshot.Result.STALE);
+        assertThat(restoredTasks.loadTable().size()).isEqualTo(TASK_COUNT + 1);
+    }
+
+    @Test
+    public void testRestoreRejectsCorruptedFile() throws IOException {
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        DataSnapshot snapshot = new DataSnapshot(snapshotPath, userDataAccess, taskDataAccess);
+        assertThat(snapshot.write()).isEqualTo(DataSnapshot.Result.WRITTEN);
+        try (RandomAccessFile file = new RandomAccessFile(snapshotPath, "rw")) {
+            long position = file.length() / 2;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+
+        assertThat(new DataSnapshot(snapshotPath, new UserDataAccess(usersPath), taskDataAccess).restore())
+            .isEqualTo(DataSnapshot.Result.INVALID);
+        assertThat(new DataSnapshot(tempDir.resolve("missing").toString(), userDataAccess, taskDataAccess).restore())
+            .isEqualTo(DataSnapshot.Result.MISSING);
+    }
+
+    @Test
+    public void testRestoreReportsTruncatedFile() throws IOException {
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        assertThat(new DataSnapshot(snapshotPath, userDataAccess, taskDataAccess).write())
+            .isEqualTo(DataSnapshot.Result.WRITTEN);
+        try (RandomAccessFile file = new RandomAccessFile(snapshotPath, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+
+        TaskDataAccess restoredTasks = new TaskDataAccess(tasksPath, new UserDataAccess(usersPath));
+        assertThat(new DataSnapshot(snapshotPath, new UserDataAccess(usersPath), restoredTasks).restore())
+            .isEqualTo(DataSnapshot.Result.INVALID);
+        assertThat(restoredTasks.loadTable().size()).isEqualTo(TASK_COUNT);
+    }
+}
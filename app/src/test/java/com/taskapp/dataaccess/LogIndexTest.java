@@ -0,0 +1,96 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+
+public class LogIndexTest {
+    private static final int LOG_COUNT = 5_000;
+    private static final int TASK_COUNT = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private Path logsFile;
+    private Path indexFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        logsFile = tempDir.resolve("logs.csv");
+        indexFile = tempDir.resolve("logs.csv.idx");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logsFile.toFile()))) {
+            writer.write("Task_Code,Change_User_Code,Status,Change_Date\n");
+            for (int i = 0; i < LOG_COUNT; i++) {
+                writer.write((i % TASK_COUNT) + "," + (i % 7) + "," + (i % 3) + ",2024-01-10\n");
+            }
+        }
+    }
+
+    @Test
+    public void testFindByTaskCodeMatchesFullScan() {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        List<Log> all = logDataAccess.findAll();
+
+        for (int taskCode = 0; taskCode < TASK_COUNT; taskCode += 37) {
+            int code = taskCode;
+            assertThat(logDataAccess.findByTaskCode(code))
+                .usingFieldByFieldElementComparator()
+                .isEqualTo(all.stream().filter(log -> log.getTaskCode() == code).collect(Collectors.toList()));
+        }
+        assertThat(logDataAccess.findByTaskCode(TASK_COUNT)).isEmpty();
+        assertThat(indexFile).exists();
+    }
+
+    @Test
+    public void testSaveExtendsIndexIncrementally() throws IOException {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        assertThat(logDataAccess.findByTaskCode(5)).hasSize(LOG_COUNT / TASK_COUNT);
+
+        logDataAccess.save(new Log(5, 1, 2, LocalDate.of(2024, 2, 1)));
+
+        assertThat(Files.size(indexFile)).isEqualTo(LogIndex.HEADER_SIZE + (LOG_COUNT + 1L) * LogIndex.ENTRY_SIZE);
+        List<Log> history = new LogDataAccess(logsFile.toString()).findByTaskCode(5);
+        assertThat(history).hasSize(LOG_COUNT / TASK_COUNT + 1);
+        assertThat(history.get(history.size() - 1))
+            .isEqualToComparingFieldByField(new Log(5, 1, 2, LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    public void testRebuildsWhenLogFileIsRewritten() throws IOException {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        assertThat(logDataAccess.findByTaskCode(1)).isNotEmpty();
+
+        Files.writeString(logsFile, "Task_Code,Change_User_Code,Status,Change_Date\n"
+            + "1,1,0,2024-01-10\n"
+            + "2,1,1,2024-01-11\n");
+
+        assertThat(logDataAccess.findByTaskCode(1)).hasSize(1);
+        assertThat(new LogDataAccess(logsFile.toString()).findByTaskCode(2)).hasSize(1);
+    }
+
+    @Test
+    public void testReadsLastLineWithoutNewline() throws IOException {
+        Files.writeString(logsFile, "Task_Code,Change_User_Code,Status,Change_Date\n"
+            + "1,1,0,2024-01-10\n"
+            + "1,2,2,2024-01-12");
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+
+        List<Log> history = logDataAccess.findByTaskCode(1);
+
+        assertThat(history).hasSize(2);
+        assertThat(history.get(1).getChangeUserCode()).isEqualTo(2);
+    }
+}
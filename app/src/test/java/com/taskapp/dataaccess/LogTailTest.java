@@ -0,0 +1,82 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+
+public class LogTailTest {
+    private static final String HEADER = "Task_Code,Change_User_Code,Status,Change_Date\n";
+
+    @TempDir
+    Path tempDir;
+
+    private Path logsFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        logsFile = tempDir.resolve("logs.csv");
+        Files.writeString(logsFile, HEADER + "1,1,0,2024-01-10\n" + "2,1,1,2024-01-11\n");
+    }
+
+    @Test
+    public void testFindAllParsesOnlyAppendedRows() throws IOException {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        List<Log> before = logDataAccess.findAll();
+        assertThat(before).extracting(Log::getTaskCode).containsExactly(1, 2);
+
+        logDataAccess.save(new Log(3, 2, 2, LocalDate.of(2024, 1, 12)));
+        Files.writeString(logsFile, "4,2,0,2024-01-13\n", StandardOpenOption.APPEND);
+        List<Log> after = logDataAccess.findAll();
+
+        assertThat(after).extracting(Log::getTaskCode).containsExactly(1, 2, 3, 4);
+        // 読み込み済みの行は解析し直さず、同じインスタンスを返す
+        assertThat(after.get(0)).isSameAs(before.get(0));
+        assertThat(after.get(1)).isSameAs(before.get(1));
+        assertThat(before).hasSize(2);
+        assertThatThrownBy(() -> after.add(before.get(0))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testUnterminatedLastRowIsReadUntilCompleted() throws IOException {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        logDataAccess.findAll();
+
+        Files.writeString(logsFile, "3,2,2,2024-01-12", StandardOpenOption.APPEND);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(1, 2, 3);
+
+        Files.writeString(logsFile, "\n4,2,0,2024-01-13\n", StandardOpenOption.APPEND);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void testReloadsWhenFileShrinksOrIsReplaced() throws IOException {
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        logDataAccess.findAll();
+
+        Files.writeString(logsFile, HEADER + "5,1,0,2024-01-10\n");
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(5);
+
+        // 同じ長さで内容を書き換えた場合も読み直す
+        Files.writeString(logsFile, HEADER + "6,1,0,2024-01-10\n");
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(6);
+
+        Path replacement = tempDir.resolve("logs.csv.new");
+        Files.writeString(replacement, HEADER + "7,1,0,2024-01-10\n" + "8,1,0,2024-01-10\n" + "9,1,0,2024-01-10\n");
+        Files.move(replacement, logsFile, StandardCopyOption.REPLACE_EXISTING);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(7, 8, 9);
+        assertThat(logDataAccess.findByDateRange(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 10)))
+            .hasSize(3);
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+
+public class LogWriterTest {
+    @TempDir
+    Path tempDir;
+
+    private Path logsFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        logsFile = tempDir.resolve("logs.csv");
+        Files.writeString(logsFile, "Task_Code,Change_User_Code,Status,Change_Date\n");
+    }
+
+    @Test
+    public void testConcurrentSavesAreBatchedAndDurable() throws Exception {
+        LogWriter logWriter = new LogWriter(logsFile.toString(), LogWriter.Durability.PER_BATCH, 0, 256);
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString(), logWriter);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            int base = thread * 1000;
+            executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    CompletableFuture<Void> written = logDataAccess.save(new Log(base + i, 1, 1, LocalDate.of(2024, 1, 10)));
+                    synchronized (futures) {
+                        futures.add(written);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assertThat(logDataAccess.findAll()).hasSize(4000);
+        logDataAccess.close();
+    }
+
+    @Test
+    public void testIntervalDurabilityCompletesAfterSync() throws Exception {
+        LogWriter logWriter = new LogWriter(logsFile.toString(), LogWriter.Durability.INTERVAL, 20, 16);
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString(), logWriter);
+
+        CompletableFuture<Void> written = logDataAccess.save(new Log(1, 1, 0, LocalDate.of(2024, 1, 10)));
+
+        written.get(5, TimeUnit.SECONDS);
+        assertThat(logDataAccess.findAll()).hasSize(1);
+        logDataAccess.close();
+    }
+
+    @Test
+    public void testCloseDrainsQueueAndRejectsLaterSaves() throws Exception {
+        LogWriter logWriter = new LogWriter(logsFile.toString(), LogWriter.Durability.NONE, 0, 1024);
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString(), logWriter);
+        for (int i = 0; i < 100; i++) {
+            logDataAccess.save(new Log(i, 1, 0, LocalDate.of(2024, 1, 10)));
+        }
+
+        logDataAccess.close();
+
+        assertThat(Files.readAllLines(logsFile)).hasSize(101);
+        assertThat(logDataAccess.save(new Log(1, 1, 0, LocalDate.of(2024, 1, 10)))).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testCloseRacingWithSavesCompletesEveryFuture() throws Exception {
+        LogWriter logWriter = new LogWriter(logsFile.toString(), LogWriter.Durability.PER_BATCH, 0, 4);
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString(), logWriter);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    CompletableFuture<Void> written = logDataAccess.save(new Log(i, 1, 1, LocalDate.of(2024, 1, 10)));
+                    synchronized (futures) {
+                        futures.add(written);
+                    }
+                }
+            });
+        }
+        Thread.sleep(20);
+        logDataAccess.close();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        long succeeded = 0;
+        for (CompletableFuture<Void> future : futures) {
+            // 停止と重なった要求も、書き込まれるか例外で完了する
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IOException.class);
+            }
+        }
+        assertThat(futures).hasSize(16000);
+        assertThat(Files.readAllLines(logsFile)).hasSize((int) succeeded + 1);
+    }
+}
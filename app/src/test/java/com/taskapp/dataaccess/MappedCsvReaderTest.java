@@ -0,0 +1,132 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Task;
+
+public class MappedCsvReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParsesFieldsLikeSplitAndTrim() throws IOException {
+        Path file = tempDir.resolve("rows.csv");
+        Files.writeString(file, "Code,Name\r\n 1 , 鈴木一郎 ,-7,2024-01-10\r\n2,x,,\n\n3,last");
+
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.getString(0)).isEqualTo("Code");
+            assertThat(reader.getString(1)).isEqualTo("Name");
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.fieldCount()).isEqualTo(4);
+            assertThat(reader.getInt(0)).isEqualTo(1);
+            assertThat(reader.getString(1)).isEqualTo("鈴木一郎");
+            assertThat(reader.getInt(2)).isEqualTo(-7);
+            assertThat(reader.getDate(3)).isEqualTo(LocalDate.of(2024, 1, 10));
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.fieldCount()).isEqualTo("2,x,,".split(",").length);
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.fieldCount()).isZero();
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.getString(1)).isEqualTo("last");
+            assertThat(reader.nextRowOffset()).isEqualTo(Files.size(file));
+
+            assertThat(reader.next()).isFalse();
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidIntegers() throws IOException {
+        Path file = tempDir.resolve("invalid.csv");
+        Files.writeString(file, "abc,2147483648,-2147483648\n");
+
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            reader.next();
+            assertThatThrownBy(() -> reader.getInt(0)).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> reader.getInt(1)).isInstanceOf(NumberFormatException.class);
+            assertThat(reader.getInt(2)).isEqualTo(Integer.MIN_VALUE);
+        }
+    }
+
+    @Test
+    public void testReadsMappedFilesAndRanges() throws IOException {
+        Path file = tempDir.resolve("large.csv");
+        int rows = 200_000;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file.toFile()))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",task" + i + "," + (i % 3) + "," + (i % 10) + "\n");
+            }
+        }
+
+        long middle;
+        int count = 0;
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            reader.next();
+            while (reader.next()) {
+                assertThat(reader.getInt(0)).isEqualTo(count);
+                count++;
+                if (count == rows / 2) {
+                    break;
+                }
+            }
+            middle = reader.nextRowOffset();
+        }
+        try (MappedCsvReader reader = MappedCsvReader.open(file, middle, Files.size(file))) {
+            while (reader.next()) {
+                assertThat(reader.getString(1)).isEqualTo("task" + count);
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(rows);
+    }
+
+    @Test
+    public void testLineLongerThanWindowThrows() throws IOException {
+        Path file = tempDir.resolve("long.csv");
+        Files.writeString(file, "code,name\n1," + "x".repeat(100) + "\n2,short\n");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                MappedCsvReader reader = MappedCsvReader.open(channel, file.toString(), 0, channel.size(), 32)) {
+            assertThat(reader.next()).isTrue();
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("32");
+        }
+    }
+
+    @Test
+    public void testDataAccessWritesUtf8() throws IOException {
+        Path users = tempDir.resolve("users.csv");
+        Path tasks = tempDir.resolve("tasks.csv");
+        Files.writeString(users, "Code,Name,Email,Password\n1,鈴木一郎,test1@example.com,password1\n",
+            StandardCharsets.UTF_8);
+        Files.writeString(tasks, "code,name,status,repUserCode\n", StandardCharsets.UTF_8);
+        UserDataAccess userDataAccess = new UserDataAccess(users.toString());
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasks.toString(), userDataAccess);
+
+        taskDataAccess.save(new Task(1, "資料作成", 0, userDataAccess.findByCode(1)));
+
+        assertThat(Files.readAllLines(tasks, StandardCharsets.UTF_8)).contains("1,資料作成,0,1");
+        try (MappedCsvReader reader = MappedCsvReader.open(tasks.toString())) {
+            reader.next();
+            reader.next();
+            assertThat(reader.getString(1)).isEqualTo("資料作成");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+public class ParallelCsvLoaderTest {
+    @TempDir
+    Path tempDir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testChunksFollowLineBoundariesAndKeepFileOrder() throws IOException {
+        Path file = tempDir.resolve("rows.csv");
+        StringBuilder content = new StringBuilder("Code,Name\n");
+        for (int i = 1; i <= 1_000; i++) {
+            content.append(i).append(",name").append(i).append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        content.append("1001,last");
+        Files.writeString(file, content);
+
+        for (long chunkSize : new long[] { 1, 7, 100, 1 << 20 }) {
+            ParallelCsvLoader loader = new ParallelCsvLoader(pool, 0, chunkSize);
+            List<String> names = loader.load(file, reader -> reader.getString(1));
+
+            assertThat(names).hasSize(1_001);
+            assertThat(names.get(0)).isEqualTo("name1");
+            assertThat(names.get(699)).isEqualTo("name700");
+            assertThat(names.get(1_000)).isEqualTo("last");
+        }
+        assertThat(new ParallelCsvLoader(pool, 0, 10).load(file, 10, reader -> reader.getString(0))).isEmpty();
+    }
+
+    @Test
+    public void testFindAllMatchesSequentialRead() throws IOException {
+        Path usersFile = tempDir.resolve("users.csv");
+        Path tasksFile = tempDir.resolve("tasks.csv");
+        Path logsFile = tempDir.resolve("logs.csv");
+        Files.writeString(usersFile, "Code,Name,Email,Password\n"
+            + "1,鈴木一郎,test1@example.com,password1\n"
+            + "2,鈴木二郎,test2@example.com,password2\n");
+        try (BufferedWriter tasks = new BufferedWriter(new FileWriter(tasksFile.toFile()));
+                BufferedWriter logs = new BufferedWriter(new FileWriter(logsFile.toFile()))) {
+            tasks.write("code,name,status,repUserCode\n");
+            logs.write("Task_Code,Change_User_Code,Status,Change_Date\n");
+            for (int i = 1; i <= 5_000; i++) {
+                // 存在しないユーザーのタスクも含める
+                tasks.write(i + ",タスク" + i + "," + (i % 3) + "," + (1 + i % 3) + "\n");
+                logs.write(i + "," + (1 + i % 2) + "," + (i % 3) + "," + LocalDate.of(2024, 1, 1).plusDays(i % 365)
+                    + "\n");
+            }
+        }
+        UserDataAccess userDataAccess = new UserDataAccess(usersFile.toString());
+        TaskDataAccess sequentialTasks = new TaskDataAccess(tasksFile.toString(), userDataAccess);
+        LogDataAccess sequentialLogs = new LogDataAccess(logsFile.toString());
+        TaskDataAccess parallelTasks = new TaskDataAccess(tasksFile.toString(), userDataAccess, true);
+        LogDataAccess parallelLogs = new LogDataAccess(logsFile.toString());
+        ParallelCsvLoader loader = new ParallelCsvLoader(pool, 0, 1_000);
+        parallelTasks.setParallelLoader(loader);
+        parallelLogs.setParallelLoader(loader);
+        User repUser = userDataAccess.findByCode(1);
+        parallelTasks.update(new Task(3, "更新済み", 2, repUser));
+        parallelTasks.save(new Task(5_001, "追加", 0, repUser));
+
+        List<Task> tasks = parallelTasks.findAll();
+        List<Task> expected = sequentialTasks.findAll();
+
+        assertThat(tasks).hasSize(expected.size() + 1);
+        assertThat(tasks.subList(0, expected.size())).extracting(Task::getCode)
+            .containsExactlyElementsOf(expected.stream().map(Task::getCode)::iterator);
+        assertThat(tasks.get(tasks.size() - 1).getCode()).isEqualTo(5_001);
+        assertThat(tasks).filteredOn(task -> task.getCode() == 3).extracting(Task::getName).containsExactly("更新済み");
+        assertThat(parallelLogs.findAll()).usingFieldByFieldElementComparator()
+            .containsExactlyElementsOf(sequentialLogs.findAll());
+    }
+}
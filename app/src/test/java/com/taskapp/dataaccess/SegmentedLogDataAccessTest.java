@@ -0,0 +1,90 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+
+public class SegmentedLogDataAccessTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSaveWritesMonthlySegments() throws IOException {
+        Path directory = tempDir.resolve("logs");
+        SegmentedLogDataAccess logDataAccess = new SegmentedLogDataAccess(directory.toString());
+
+        logDataAccess.save(new Log(1, 1, 0, LocalDate.of(2024, 1, 31)));
+        logDataAccess.saveAll(List.of(new Log(2, 1, 0, LocalDate.of(2024, 2, 1)),
+            new Log(1, 2, 1, LocalDate.of(2024, 2, 3))));
+
+        assertThat(Files.readAllLines(directory.resolve("logs-2024-01.csv")))
+            .containsExactly("Task_Code,Change_User_Code,Status,Change_Date", "1,1,0,2024-01-31");
+        assertThat(Files.readAllLines(directory.resolve("logs-2024-02.csv"))).hasSize(3);
+        assertThat(logDataAccess.findAll()).extracting(Log::getChangeDate)
+            .containsExactly(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 3));
+        assertThat(logDataAccess.findByTaskCode(1)).extracting(Log::getStatus).containsExactly(0, 1);
+    }
+
+    @Test
+    public void testFindByDateRangeOpensOnlyOverlappingSegments() throws IOException {
+        Path directory = tempDir.resolve("logs");
+        SegmentedLogDataAccess logDataAccess = new SegmentedLogDataAccess(directory.toString());
+        logDataAccess.saveAll(List.of(new Log(1, 1, 0, LocalDate.of(2024, 3, 5)),
+            new Log(2, 1, 0, LocalDate.of(2024, 3, 20)),
+            new Log(3, 1, 0, LocalDate.of(2024, 4, 2))));
+        // 期間外のセグメントは開かれないため、解析できない内容でも検索は失敗しない
+        Files.writeString(directory.resolve("logs-2024-01.csv"),
+            "Task_Code,Change_User_Code,Status,Change_Date\nbroken,row,x,y\n");
+
+        List<Log> logs = logDataAccess.findByDateRange(LocalDate.of(2024, 3, 10), LocalDate.of(2024, 4, 30));
+
+        assertThat(logs).extracting(Log::getTaskCode).containsExactly(2, 3);
+    }
+
+    @Test
+    public void testRetentionMovesOrDropsWholeSegments() throws IOException {
+        Path directory = tempDir.resolve("logs");
+        Path archive = tempDir.resolve("archive");
+        SegmentedLogDataAccess logDataAccess = new SegmentedLogDataAccess(directory.toString());
+        logDataAccess.saveAll(List.of(new Log(1, 1, 0, LocalDate.of(2023, 11, 1)),
+            new Log(1, 1, 1, LocalDate.of(2023, 12, 1)),
+            new Log(1, 1, 2, LocalDate.of(2024, 1, 1))));
+        assertThat(logDataAccess.findByTaskCode(1)).hasSize(3);
+        long modified = Files.getLastModifiedTime(directory.resolve("logs-2024-01.csv")).toMillis();
+
+        assertThat(logDataAccess.archiveBefore(YearMonth.of(2023, 12), archive.toString())).isEqualTo(1);
+        assertThat(logDataAccess.dropBefore(YearMonth.of(2024, 1))).isEqualTo(1);
+
+        assertThat(archive.resolve("logs-2023-11.csv")).exists();
+        assertThat(directory.resolve("logs-2023-12.csv")).doesNotExist();
+        assertThat(Files.getLastModifiedTime(directory.resolve("logs-2024-01.csv")).toMillis()).isEqualTo(modified);
+        assertThat(logDataAccess.findByTaskCode(1)).extracting(Log::getStatus).containsExactly(2);
+    }
+
+    @Test
+    public void testImportCsvSplitsByMonth() throws IOException {
+        Path csv = tempDir.resolve("logs.csv");
+        Path directory = tempDir.resolve("logs");
+        Files.writeString(csv, "Task_Code,Change_User_Code,Status,Change_Date\n"
+            + "1,1,0,2024-01-10\n"
+            + "3,2,1,2024-02-11\n"
+            + "3,2,2,2024-02-12\n");
+
+        SegmentedLogDataAccess.importCsv(csv.toString(), directory.toString());
+
+        assertThat(new SegmentedLogDataAccess(directory.toString()).findAll())
+            .usingFieldByFieldElementComparator()
+            .isEqualTo(new LogDataAccess(csv.toString()).findAll());
+        assertThat(directory.resolve("logs-2024-02.csv")).exists();
+    }
+}
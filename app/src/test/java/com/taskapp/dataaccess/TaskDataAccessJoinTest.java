@@ -0,0 +1,221 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Task;
+import com.taskapp.model.TaskPage;
+import com.taskapp.model.User;
+
+/**
+ * 一括解決による{@link TaskDataAccess}の読み込み結果が、
+ * 1行ごとにユーザーファイルを走査していた従来の結果と一致することを大きな生成データで確認します。
+ */
+public class TaskDataAccessJoinTest {
+    private static final int USER_COUNT = 1_000;
+    private static final int TASK_COUNT = 20_000;
+
+    @TempDir
+    Path tempDir;
+
+    private String usersPath;
+    private String tasksPath;
+    private UserDataAccess userDataAccess;
+    private TaskDataAccess taskDataAccess;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        usersPath = tempDir.resolve("users.csv").toString();
+        tasksPath = tempDir.resolve("tasks.csv").toString();
+        Random random = new Random(42);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersPath))) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= USER_COUNT; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tasksPath))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                // 一部のタスクには存在しないユーザーを割り当てる
+                int repUserCode = 1 + random.nextInt(USER_COUNT + USER_COUNT / 10);
+                writer.write(i + ",task" + i + "," + random.nextInt(3) + "," + repUserCode + "\n");
+            }
+        }
+        userDataAccess = new UserDataAccess(usersPath);
+        taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+    }
+
+    @Test
+    public void testFindAllMatchesPerRowLookup() throws IOException {
+        List<Task> expected = readWithPerRowLookup();
+
+        List<Task> actual = taskDataAccess.findAll();
+
+        assertThat(actual).hasSize(expected.size());
+        assertThat(expected.size()).isLessThan(TASK_COUNT);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTask(actual.get(i), expected.get(i));
+        }
+    }
+
+    @Test
+    public void testFindByCodeMatchesPerRowLookup() throws IOException {
+        List<Task> expected = readWithPerRowLookup();
+
+        for (int i = 0; i < expected.size(); i += 997) {
+            Task task = expected.get(i);
+            assertSameTask(taskDataAccess.findByCode(task.getCode()), task);
+        }
+    }
+
+    @Test
+    public void testAssigneesShareOneInstancePerUser() throws IOException {
+        List<Task> tasks = taskDataAccess.findAll();
+        TaskDataAccess journaled = new TaskDataAccess(tasksPath, userDataAccess, true);
+        journaled.save(new Task(TASK_COUNT + 1, "追加", 0, new User(1, "", "", "")));
+
+        Map<Integer, User> shared = new HashMap<>();
+        Set<User> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task task : tasks) {
+            assertThat(shared.computeIfAbsent(task.getRepUser().getCode(), code -> task.getRepUser()))
+                .isSameAs(task.getRepUser());
+            distinct.add(task.getRepUser());
+        }
+        try (Stream<Task> stream = taskDataAccess.stream()) {
+            stream.forEach(task -> assertThat(task.getRepUser()).isSameAs(shared.get(task.getRepUser().getCode())));
+        }
+        // ジャーナルから読み込んだ行も、ベースのCSVの行と同じインスタンスを参照する
+        assertThat(journaled.findByCode(TASK_COUNT + 1).getRepUser()).isSameAs(shared.get(1));
+        assertThat(distinct.size()).isLessThanOrEqualTo(USER_COUNT);
+    }
+
+    @Test
+    public void testUpdateKeepsJoinedRows() throws IOException {
+        List<Task> before = readWithPerRowLookup();
+        Task target = before.get(before.size() / 2);
+
+        taskDataAccess.update(new Task(target.getCode(), target.getName(), 2, target.getRepUser()));
+
+        List<Task> after = readWithPerRowLookup();
+        assertThat(after).hasSize(before.size());
+        assertThat(after.get(before.size() / 2).getStatus()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPagesMatchFindAll() throws IOException {
+        List<Task> expected = readWithPerRowLookup();
+
+        List<Task> paged = new ArrayList<>();
+        TaskPage page = taskDataAccess.findPage(0, 97);
+        paged.addAll(page.getTasks());
+        while (page.hasNext()) {
+            assertThat(page.getTasks()).hasSize(97);
+            page = taskDataAccess.findPage(page.getNextCursor(), 97);
+            paged.addAll(page.getTasks());
+        }
+
+        assertThat(paged).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTask(paged.get(i), expected.get(i));
+        }
+        assertThat(taskDataAccess.findPage(TASK_COUNT, 10).getTasks()).isEmpty();
+    }
+
+    @Test
+    public void testStreamStopsEarlyAndReleasesFile() throws IOException {
+        List<Task> expected = readWithPerRowLookup();
+
+        List<Task> firstTen;
+        try (Stream<Task> tasks = taskDataAccess.stream()) {
+            firstTen = tasks.limit(10).collect(Collectors.toList());
+        }
+
+        assertThat(firstTen).hasSize(10);
+        for (int i = 0; i < firstTen.size(); i++) {
+            assertSameTask(firstTen.get(i), expected.get(i));
+        }
+        assertThat(openDescriptorsOf(tasksPath)).isZero();
+    }
+
+    private void assertSameTask(Task actual, Task expected) {
+        assertThat(actual.getCode()).isEqualTo(expected.getCode());
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+        assertThat(actual.getRepUser()).isEqualToComparingFieldByField(expected.getRepUser());
+    }
+
+    /**
+     * 指定したファイルを開いているファイル記述子の数を数えます。
+     */
+    static long openDescriptorsOf(String path) throws IOException {
+        Path descriptors = Paths.get("/proc/self/fd");
+        assumeTrue(Files.isDirectory(descriptors));
+        Path target = Paths.get(path).toRealPath();
+        try (Stream<Path> fds = Files.list(descriptors)) {
+            return fds.filter(fd -> {
+                try {
+                    return Files.readSymbolicLink(fd).equals(target);
+                } catch (IOException e) {
+                    return false;
+                }
+            }).count();
+        }
+    }
+
+    /**
+     * 従来と同じく、タスク1行ごとにユーザー行を先頭から探して担当者を解決します。
+     */
+    private List<Task> readWithPerRowLookup() throws IOException {
+        List<String[]> userRows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(usersPath))) {
+            String line;
+            reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                userRows.add(line.split(","));
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(tasksPath))) {
+            String line;
+            reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                int repUserCode = Integer.parseInt(values[3]);
+                for (String[] user : userRows) {
+                    if (Integer.parseInt(user[0]) == repUserCode) {
+                        User repUser = new User(repUserCode, user[1], user[2], user[3]);
+                        tasks.add(new Task(Integer.parseInt(values[0]), values[1], Integer.parseInt(values[2]), repUser));
+                        break;
+                    }
+                }
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,375 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+import com.taskapp.model.TaskPage;
+import com.taskapp.model.User;
+
+public class TaskDataAccessJournalTest {
+    @TempDir
+    Path tempDir;
+
+    private Path tasksFile;
+    private Path journalFile;
+    private UserDataAccess userDataAccess;
+    private TaskDataAccess taskDataAccess;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path usersFile = tempDir.resolve("users.csv");
+        Files.writeString(usersFile, "Code,Name,Email,Password\n"
+            + "1,鈴木一郎,test1@example.com,password1\n"
+            + "2,鈴木二郎,test2@example.com,password2\n");
+        tasksFile = tempDir.resolve("tasks.csv");
+        journalFile = tempDir.resolve("tasks.csv.journal");
+        Files.writeString(tasksFile, "code,name,status,repUserCode\n"
+            + "1,taskA,0,1\n"
+            + "2,taskB,0,2\n"
+            + "3,taskC,1,2\n");
+        userDataAccess = new UserDataAccess(usersFile.toString());
+        taskDataAccess = new TaskDataAccess(tasksFile.toString(), userDataAccess, true);
+    }
+
+    @Test
+    public void testUpdateAppendsToJournalOnly() throws IOException {
+        String before = Files.readString(tasksFile);
+
+        taskDataAccess.update(new Task(2, "taskB", 1, userDataAccess.findByCode(2)));
+
+        assertThat(Files.readString(tasksFile)).isEqualTo(before);
+        assertThat(Files.readAllLines(journalFile)).containsExactly("U,2,taskB,1,2");
+        assertThat(taskDataAccess.findByCode(2).getStatus()).isEqualTo(1);
+        assertThat(statuses(taskDataAccess.findAll())).containsExactly(0, 1, 1);
+    }
+
+    @Test
+    public void testSavedTasksAreMergedInOrder() {
+        User repUser = userDataAccess.findByCode(1);
+        taskDataAccess.save(new Task(4, "taskD", 0, repUser));
+        taskDataAccess.update(new Task(4, "taskD", 1, repUser));
+        taskDataAccess.save(new Task(5, "taskE", 0, repUser));
+
+        List<Task> tasks = taskDataAccess.findAll();
+
+        assertThat(tasks).extracting(Task::getCode).containsExactly(1, 2, 3, 4, 5);
+        assertThat(statuses(tasks)).containsExactly(0, 0, 1, 1, 0);
+        assertThat(taskDataAccess.findByCode(4).getStatus()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompactFoldsJournalIntoBaseFile() throws IOException {
+        User repUser = userDataAccess.findByCode(2);
+        taskDataAccess.update(new Task(3, "taskC", 2, repUser));
+        taskDataAccess.save(new Task(4, "taskD", 0, repUser));
+
+        taskDataAccess.compact();
+
+        assertThat(Files.readAllLines(tasksFile)).containsExactly(
+            "code,name,status,repUserCode",
+            "1,taskA,0,1",
+            "2,taskB,0,2",
+            "3,taskC,2,2",
+            "4,taskD,0,2");
+        assertThat(journalFile).doesNotExist();
+        assertThat(statuses(taskDataAccess.findAll())).containsExactly(0, 0, 2, 0);
+    }
+
+    @Test
+    public void testCompactionRunsInBackgroundAtThreshold() throws Exception {
+        TaskJournal journal = new TaskJournal(tasksFile.toString(), 2);
+        journal.appendUpdate("1,taskA,1,1");
+        journal.appendUpdate("2,taskB,1,2");
+
+        Path sealedFile = tempDir.resolve("tasks.csv.journal.compacting");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((Files.exists(journalFile) || Files.exists(sealedFile)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(journalFile).doesNotExist();
+        assertThat(sealedFile).doesNotExist();
+        assertThat(Files.readAllLines(tasksFile)).contains("1,taskA,1,1", "2,taskB,1,2");
+    }
+
+    @Test
+    public void testTornJournalLineIsDiscardedOnOpen() throws IOException {
+        Files.writeString(journalFile, "U,1,taskA,1,1\nU,2,tas", StandardOpenOption.CREATE);
+
+        TaskDataAccess reopened = new TaskDataAccess(tasksFile.toString(), userDataAccess, true);
+        reopened.update(new Task(3, "taskC", 2, userDataAccess.findByCode(2)));
+
+        assertThat(Files.readAllLines(journalFile)).containsExactly("U,1,taskA,1,1", "U,3,taskC,2,2");
+        assertThat(statuses(reopened.findAll())).containsExactly(1, 0, 2);
+    }
+
+    @Test
+    public void testPagesContinueIntoJournalInserts() {
+        User repUser = userDataAccess.findByCode(1);
+        taskDataAccess.update(new Task(2, "taskB", 1, userDataAccess.findByCode(2)));
+        taskDataAccess.save(new Task(4, "taskD", 0, repUser));
+        taskDataAccess.save(new Task(5, "taskE", 0, repUser));
+
+        TaskPage first = taskDataAccess.findPage(0, 2);
+        TaskPage second = taskDataAccess.findPage(first.getNextCursor(), 2);
+        TaskPage third = taskDataAccess.findPage(second.getNextCursor(), 2);
+
+        assertThat(first.getTasks()).extracting(Task::getCode).containsExactly(1, 2);
+        assertThat(first.getTasks().get(1).getStatus()).isEqualTo(1);
+        assertThat(second.getTasks()).extracting(Task::getCode).containsExactly(3, 4);
+        assertThat(third.getTasks()).extracting(Task::getCode).containsExactly(5);
+        assertThat(third.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testWriteAheadRecordsTaskAndLogTogether() throws IOException {
+        Path logsFile = tempDir.resolve("logs.csv");
+        String logsBefore = "Task_Code,Change_User_Code,Status,Change_Date\n1,1,0,2024-01-01\n";
+        Files.writeString(logsFile, logsBefore);
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        TaskDataAccess writeAhead = new TaskDataAccess(tasksFile.toString(), userDataAccess, logDataAccess);
+        User repUser = userDataAccess.findByCode(1);
+
+        assertThat(writeAhead.sharesJournal(logDataAccess)).isTrue();
+        assertThat(taskDataAccess.sharesJournal(logDataAccess)).isFalse();
+        writeAhead.save(new Task(4, "taskD", 0, repUser), new Log(4, 1, 0, LocalDate.of(2024, 2, 1)), logDataAccess);
+        writeAhead.update(new Task(1, "taskA", 1, repUser), new Log(1, 1, 1, LocalDate.of(2024, 2, 2)), logDataAccess);
+
+        assertThat(Files.readAllLines(journalFile)).containsExactly(
+            "I,4,taskD,0,1,4,1,0,2024-02-01",
+            "U,1,taskA,1,1,1,1,1,2024-02-02");
+        assertThat(Files.readString(logsFile)).isEqualTo(logsBefore);
+        assertThat(statuses(writeAhead.findAll())).containsExactly(1, 0, 1, 0);
+        assertThat(logDataAccess.findByTaskCode(1)).extracting(Log::getStatus).containsExactly(0, 1);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(1, 4, 1);
+
+        writeAhead.compact();
+
+        assertThat(journalFile).doesNotExist();
+        assertThat(Files.readAllLines(logsFile)).containsExactly(
+            "Task_Code,Change_User_Code,Status,Change_Date",
+            "1,1,0,2024-01-01",
+            "4,1,0,2024-02-01",
+            "1,1,1,2024-02-02");
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(1, 4, 1);
+        assertThat(statuses(writeAhead.findAll())).containsExactly(1, 0, 1, 0);
+    }
+
+    @Test
+    public void testWriteAheadRecordsAreReplayedOnOpen() throws IOException {
+        Path logsFile = tempDir.resolve("logs.csv");
+        Files.writeString(journalFile, "U,2,taskB,1,2,2,2,1,2024-03-01\nL,3,1,2,2024-03-02\nU,3,tas");
+
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        TaskDataAccess reopened = new TaskDataAccess(tasksFile.toString(), userDataAccess, logDataAccess);
+
+        assertThat(statuses(reopened.findAll())).containsExactly(0, 1, 1);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(2, 3);
+        reopened.compact();
+        assertThat(Files.readAllLines(logsFile)).containsExactly(
+            "Task_Code,Change_User_Code,Status,Change_Date", "2,2,1,2024-03-01", "3,1,2,2024-03-02");
+    }
+
+    @Test
+    public void testInterruptedCompactionIsCompletedOnOpen() throws IOException {
+        Path logsFile = tempDir.resolve("logs.csv");
+        String logsBefore = "Task_Code,Change_User_Code,Status,Change_Date\n1,1,0,2024-01-01\n";
+        // 変更ログの追記の途中で終了した状態を再現する
+        Files.writeString(logsFile, logsBefore + "2,2,1,2024-03-01\n3,");
+        Files.writeString(tempDir.resolve("tasks.csv.journal.compacting"), "U,2,taskB,1,2,2,2,1,2024-03-01\n"
+            + "I,4,taskD,0,1,4,1,0,2024-03-02\n");
+        Files.writeString(tempDir.resolve("tasks.csv.tmp"), "code,name,status,repUserCode\n"
+            + "1,taskA,0,1\n2,taskB,1,2\n3,taskC,1,2\n4,taskD,0,1\n");
+        Files.writeString(tempDir.resolve("tasks.csv.journal.checkpoint"), Long.toString(logsBefore.length()));
+
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        TaskDataAccess reopened = new TaskDataAccess(tasksFile.toString(), userDataAccess, logDataAccess);
+
+        assertThat(Files.readAllLines(logsFile)).containsExactly(
+            "Task_Code,Change_User_Code,Status,Change_Date",
+            "1,1,0,2024-01-01",
+            "2,2,1,2024-03-01",
+            "4,1,0,2024-03-02");
+        assertThat(reopened.findAll()).extracting(Task::getCode).containsExactly(1, 2, 3, 4);
+        assertThat(logDataAccess.findAll()).hasSize(3);
+        assertThat(tempDir.resolve("tasks.csv.journal.checkpoint")).doesNotExist();
+        assertThat(tempDir.resolve("tasks.csv.journal.compacting")).doesNotExist();
+    }
+
+    @Test
+    public void testWriteAheadSyncFailureIsReportedAndNotApplied() throws Exception {
+        Path logsFile = tempDir.resolve("logs.csv");
+        Files.writeString(logsFile, "Task_Code,Change_User_Code,Status,Change_Date\n");
+        LogDataAccess logDataAccess = new LogDataAccess(logsFile.toString());
+        TaskDataAccess writeAhead = new TaskDataAccess(tasksFile.toString(), userDataAccess, logDataAccess);
+        User repUser = userDataAccess.findByCode(1);
+        writeAhead.update(new Task(1, "taskA", 1, repUser), new Log(1, 1, 1, LocalDate.of(2024, 2, 1)), logDataAccess);
+        long journalLength = Files.size(journalFile);
+
+        logDataAccess.journal().openJournalWith(path -> new FailingSyncChannel(FileChannel.open(path,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+        CompletableFuture<Void> saved = writeAhead.save(new Task(4, "taskD", 0, repUser),
+            new Log(4, 1, 0, LocalDate.of(2024, 2, 2)), logDataAccess);
+        CompletableFuture<Void> updated = writeAhead.update(new Task(2, "taskB", 1, repUser),
+            new Log(2, 1, 1, LocalDate.of(2024, 2, 3)), logDataAccess);
+
+        assertThat(saved).isCompletedExceptionally();
+        assertThat(updated).isCompletedExceptionally();
+        assertThatThrownBy(updated::join).hasRootCauseInstanceOf(IOException.class);
+        // 同期に失敗した記録はメモリ上にもファイルにも残らない
+        assertThat(statuses(writeAhead.findAll())).containsExactly(1, 0, 1);
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(1);
+        assertThat(Files.size(journalFile)).isEqualTo(journalLength);
+
+        TaskDataAccess reopened = new TaskDataAccess(tasksFile.toString(), userDataAccess,
+            new LogDataAccess(logsFile.toString()));
+        assertThat(statuses(reopened.findAll())).containsExactly(1, 0, 1);
+    }
+
+    @Test
+    public void testRejectedLogDataAccessLeavesFilesUntouched() throws IOException {
+        Path logsFile = tempDir.resolve("logs.csv");
+        String logsBefore = "Task_Code,Change_User_Code,Status,Change_Date\n1,1,0,2024-01-01\n";
+        Files.writeString(logsFile, logsBefore);
+        Path sealed = tempDir.resolve("tasks.csv.journal.compacting");
+        Path checkpoint = tempDir.resolve("tasks.csv.journal.checkpoint");
+        Files.writeString(sealed, "U,2,taskB,1,2,2,2,1,2024-03-01\n");
+        Files.writeString(checkpoint, Long.toString(logsBefore.length()));
+        Files.writeString(journalFile, "U,1,taskA,1,1,1,1,1,2024-03-02\nU,3,tas");
+        LogWriter logWriter = new LogWriter(logsFile.toString(), LogWriter.Durability.PER_BATCH, 0, 16);
+        LogDataAccess buffered = new LogDataAccess(logsFile.toString(), logWriter);
+
+        try {
+            assertThatThrownBy(() -> new TaskDataAccess(tasksFile.toString(), userDataAccess, buffered))
+                .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            buffered.close();
+        }
+        // 先行書き込みログを作成しないため、途中のコンパクションのやり直しや書きかけの行の切り詰めも行わない
+        assertThat(Files.readString(logsFile)).isEqualTo(logsBefore);
+        assertThat(sealed).exists();
+        assertThat(checkpoint).exists();
+        assertThat(Files.readString(journalFile)).isEqualTo("U,1,taskA,1,1,1,1,1,2024-03-02\nU,3,tas");
+    }
+
+    private List<Integer> statuses(List<Task> tasks) {
+        return tasks.stream().map(Task::getStatus).toList();
+    }
+
+    /**
+     * 書き込みは行い、同期のみ失敗するチャネルです。
+     */
+    private static final class FailingSyncChannel extends FileChannel {
+        private final FileChannel delegate;
+
+        private FailingSyncChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            throw new IOException("同期に失敗しました");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
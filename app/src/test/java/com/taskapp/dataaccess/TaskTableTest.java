@@ -0,0 +1,109 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+import com.taskapp.util.IntObjectMap;
+
+public class TaskTableTest {
+    private static final int USER_COUNT = 100;
+    private static final int TASK_COUNT = 10_000;
+    private static final String[] NAMES = { "資料作成", "会議準備", "レビュー", "見積もり", "テスト" };
+
+    @TempDir
+    Path tempDir;
+
+    private String tasksPath;
+    private UserDataAccess userDataAccess;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        String usersPath = tempDir.resolve("users.csv").toString();
+        tasksPath = tempDir.resolve("tasks.csv").toString();
+        Random random = new Random(3);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersPath))) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= USER_COUNT; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tasksPath))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                // 一部のタスクには存在しないユーザーを割り当てる
+                int repUserCode = 1 + random.nextInt(USER_COUNT + USER_COUNT / 10);
+                writer.write(i + "," + NAMES[random.nextInt(NAMES.length)] + "," + random.nextInt(3) + ","
+                    + repUserCode + "\n");
+            }
+        }
+        userDataAccess = new UserDataAccess(usersPath);
+    }
+
+    @Test
+    public void testTableMatchesFindAll() {
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        List<Task> expected = taskDataAccess.findAll();
+
+        TaskTable table = taskDataAccess.loadTable();
+
+        assertThat(table.size()).isEqualTo(expected.size());
+        for (int row = 0; row < table.size(); row++) {
+            Task task = table.toTask(row);
+            assertThat(task).isEqualToComparingFieldByField(expected.get(row));
+            assertThat(task.getRepUser()).isSameAs(expected.get(row).getRepUser());
+        }
+        assertThat(table.distinctNames()).isEqualTo(NAMES.length);
+        assertThat(table.name(0)).isSameAs(table.name(table.filterByStatus(table.status(0))[0]));
+    }
+
+    @Test
+    public void testScansMatchStreamAggregates() {
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess);
+        List<Task> expected = taskDataAccess.findAll();
+
+        TaskTable table = taskDataAccess.loadTable();
+
+        int[] counts = table.countsByStatus();
+        for (int status = 0; status < 3; status++) {
+            int s = status;
+            long expectedCount = expected.stream().filter(task -> task.getStatus() == s).count();
+            assertThat(counts[status]).isEqualTo(expectedCount);
+            assertThat(table.countByStatus(status)).isEqualTo(expectedCount);
+        }
+        int[] rows = table.filterByRepUser(7);
+        assertThat(table.toTasks(rows)).extracting(Task::getCode)
+            .containsExactlyElementsOf(expected.stream()
+                .filter(task -> task.getRepUser().getCode() == 7).map(Task::getCode)::iterator);
+        IntObjectMap<int[]> byUser = table.countsByRepUserAndStatus();
+        assertThat(IntStream.of(byUser.get(7)).sum()).isEqualTo(rows.length);
+    }
+
+    @Test
+    public void testJournalChangesAreApplied() {
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess, true);
+        User user = userDataAccess.findByCode(1);
+        Task first = taskDataAccess.findAll().get(0);
+        taskDataAccess.update(new Task(first.getCode(), "更新済み", 2, user));
+        taskDataAccess.save(new Task(TASK_COUNT + 1, "追加", 0, user));
+
+        TaskTable table = taskDataAccess.loadTable();
+
+        assertThat(table.toTask(0)).isEqualToComparingFieldByField(new Task(first.getCode(), "更新済み", 2, user));
+        assertThat(table.toTask(table.size() - 1))
+            .isEqualToComparingFieldByField(new Task(TASK_COUNT + 1, "追加", 0, user));
+        assertThat(table.size()).isEqualTo(taskDataAccess.findAll().size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskapp.dataaccess;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.model.User;
+
+public class UserDirectoryTest {
+    @TempDir
+    Path tempDir;
+
+    private Path usersFile;
+    private UserDirectory userDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        usersFile = tempDir.resolve("users.csv");
+        Files.writeString(usersFile, "Code,Name,Email,Password\n"
+            + "1,鈴木一郎,test1@example.com,password1\n"
+            + "2,鈴木二郎,test2@example.com,password2\n");
+        userDirectory = new UserDirectory(usersFile.toString());
+    }
+
+    @Test
+    public void testLookupsShareLoadedInstances() {
+        User byCode = userDirectory.findByCode(2);
+        User byEmail = userDirectory.findByEmailAndPassword("test2@example.com", "password2");
+
+        assertThat(byCode).isEqualToComparingFieldByField(new User(2, "鈴木二郎", "test2@example.com", "password2"));
+        assertThat(byEmail).isSameAs(byCode);
+        assertThat(userDirectory.findByCode(3)).isNull();
+        assertThat(userDirectory.codeTable().size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReloadsWhenFileChanges() throws IOException {
+        User before = userDirectory.findByCode(1);
+
+        Files.writeString(usersFile, "3,鈴木三郎,test3@example.com,password3\n",
+            StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(usersFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        assertThat(userDirectory.findByCode(3)).isNotNull();
+        assertThat(userDirectory.findByCode(1)).isNotSameAs(before).isEqualTo(before);
+    }
+
+    @Test
+    public void testMissingFileReturnsNull() {
+        UserDirectory missing = new UserDirectory(tempDir.resolve("none.csv").toString());
+
+        assertThat(missing.findByCode(1)).isNull();
+        assertThat(missing.codeTable().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testDuplicateEmailMatchesAnyRowWithPassword() throws IOException {
+        Files.writeString(usersFile, "Code,Name,Email,Password\n"
+            + "1,鈴木一郎,shared@example.com,password1\n"
+            + "2,鈴木二郎,shared@example.com,password2\n");
+
+        assertThat(userDirectory.findByEmailAndPassword("shared@example.com", "password2"))
+            .isSameAs(userDirectory.findByCode(2));
+        assertThat(userDirectory.findByEmailAndPassword("shared@example.com", "password3")).isNull();
+        assertThat(userDirectory.findByEmailAndPassword("shared@example.com", "password1"))
+            .isSameAs(userDirectory.findByCode(1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        userDirectory.writeTo(new DataOutputStream(bytes));
+        UserDirectory restored = new UserDirectory(usersFile.toString());
+        restored.restore(ByteBuffer.wrap(bytes.toByteArray()), Files.size(usersFile),
+            Files.getLastModifiedTime(usersFile).toMillis());
+        assertThat(restored.findByEmailAndPassword("shared@example.com", "password2"))
+            .isSameAs(restored.findByCode(2));
+    }
+}
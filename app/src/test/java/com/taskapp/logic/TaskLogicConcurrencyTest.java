@@ -0,0 +1,218 @@
+package com.taskapp.logic;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.exception.AppException;
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+/**
+ * 複数のセッションが1つの{@link TaskLogic}を同時に利用した場合のステータス変更を確認します。
+ */
+public class TaskLogicConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int TASK_COUNT = 100;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConcurrentTransitionsAreNotLost() throws Exception {
+        assertNoLostTransitions(false);
+    }
+
+    @Test
+    public void testConcurrentTransitionsAreNotLostInJournalMode() throws Exception {
+        assertNoLostTransitions(true);
+    }
+
+    @Test
+    public void testDifferentTasksDoNotWaitForEachOther() throws Exception {
+        TaskDataAccess taskDataAccess = mock(TaskDataAccess.class);
+        LogDataAccess logDataAccess = mock(LogDataAccess.class);
+        TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, mock(UserDataAccess.class));
+        User loginUser = new User(1, "John", "", "");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(taskDataAccess.findByCode(1)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Task(1, "Task 1", 0, loginUser);
+        });
+        when(taskDataAccess.findByCode(2)).thenReturn(new Task(2, "Task 2", 0, loginUser));
+        when(logDataAccess.save(any(Log.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> blocked = executor.submit(() -> {
+            taskLogic.changeStatus(1, 1, loginUser);
+            return null;
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // タスク1の変更が止まっている間も、タスク2の変更は完了する
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> taskLogic.changeStatus(2, 1, loginUser));
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    /**
+     * {@link TaskLogic}のロックが、異なるタスクへの変更を互いに待たせないことを確認します。
+     *
+     * <p>データアクセスはモックのため、ファイルへの書き込みの待ち合わせは含みません。
+     * ジャーナルを使わない場合、{@link TaskDataAccess#update(Task)}はファイル全体を書き直すため、
+     * 異なるタスクへの変更もデータアクセスの中で直列化されます。</p>
+     */
+    @Test
+    public void testDistinctTasksDoNotShareLock() throws Exception {
+        long sameTask = elapsedWithSlowStorage(code -> 1);
+        long distinctTasks = elapsedWithSlowStorage(code -> code);
+
+        // 同じタスクへの変更はロックで直列化され、異なるタスクへの変更はロックを待たずに並行する
+        assertThat(sameTask).isGreaterThan(distinctTasks * 3);
+    }
+
+    private void assertNoLostTransitions(boolean journaled) throws Exception {
+        String usersPath = tempDir.resolve("users.csv").toString();
+        String tasksPath = tempDir.resolve("tasks.csv").toString();
+        String logsPath = tempDir.resolve("logs.csv").toString();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersPath))) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= THREADS; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tasksPath))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                writer.write(i + ",task" + i + ",0," + (1 + i % THREADS) + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logsPath))) {
+            writer.write("Task_Code,Change_User_Code,Status,Change_Date\n");
+        }
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        TaskDataAccess taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess, journaled);
+        LogDataAccess logDataAccess = new LogDataAccess(logsPath);
+        TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess);
+
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int thread = 1; thread <= THREADS; thread++) {
+            User loginUser = userDataAccess.findByCode(thread);
+            int offset = thread * 13;
+            sessions.add(executor.submit(() -> {
+                for (int i = 0; i < TASK_COUNT; i++) {
+                    int code = 1 + (offset + i) % TASK_COUNT;
+                    if (tryChangeStatus(taskLogic, code, 1, loginUser)) {
+                        started.incrementAndGet();
+                    }
+                    if (tryChangeStatus(taskLogic, code, 2, loginUser)) {
+                        completed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> session : sessions) {
+            session.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(started.get()).isEqualTo(TASK_COUNT);
+        assertThat(completed.get()).isEqualTo(TASK_COUNT);
+        assertThat(taskDataAccess.findAll()).hasSize(TASK_COUNT).allMatch(task -> task.getStatus() == 2);
+        assertThat(logDataAccess.findAll()).hasSize(TASK_COUNT * 2);
+    }
+
+    private static boolean tryChangeStatus(TaskLogic taskLogic, int code, int status, User loginUser) {
+        try {
+            taskLogic.changeStatus(code, status, loginUser);
+            return true;
+        } catch (AppException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 読み込みに時間のかかるモックのデータアクセスを使い、各スレッドがタスクのステータスを
+     * 2回変更し終えるまでの時間を計測します。
+     *
+     * @param taskOf スレッド番号から変更するタスクコードを決める関数
+     * @return 経過時間（ミリ秒）
+     */
+    private long elapsedWithSlowStorage(IntUnaryOperator taskOf) throws Exception {
+        TaskDataAccess taskDataAccess = mock(TaskDataAccess.class);
+        LogDataAccess logDataAccess = mock(LogDataAccess.class);
+        TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, mock(UserDataAccess.class));
+        User loginUser = new User(1, "John", "", "");
+        int[] statuses = new int[THREADS + 1];
+
+        when(taskDataAccess.findByCode(anyInt())).thenAnswer(invocation -> {
+            int code = invocation.getArgument(0);
+            Thread.sleep(20);
+            synchronized (statuses) {
+                return new Task(code, "Task " + code, statuses[code], loginUser);
+            }
+        });
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            synchronized (statuses) {
+                statuses[task.getCode()] = task.getStatus();
+            }
+            return null;
+        }).when(taskDataAccess).update(any(Task.class));
+        when(logDataAccess.save(any(Log.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int thread = 1; thread <= THREADS; thread++) {
+            int code = taskOf.applyAsInt(thread);
+            sessions.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2; i++) {
+                    tryChangeStatus(taskLogic, code, statuses[code] + 1, loginUser);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> session : sessions) {
+            session.get(30, TimeUnit.SECONDS);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        executor.shutdown();
+        return elapsed;
+    }
+}
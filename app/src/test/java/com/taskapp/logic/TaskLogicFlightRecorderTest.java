@@ -0,0 +1,99 @@
+package com.taskapp.logic;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.User;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * ステータス変更の間にJFRのイベントが記録されることを確認します。
+ */
+public class TaskLogicFlightRecorderTest {
+    private static final String LOG_HEADER = "Task_Code,Change_User_Code,Status,Change_Date";
+    private static final String[] EVENTS = { "com.taskapp.TaskFileScan", "com.taskapp.TaskFileRewrite",
+        "com.taskapp.LogAppend", "com.taskapp.UserLookup", "com.taskapp.StatusChange" };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testChangeStatusEmitsEvents() throws Exception {
+        Path usersPath = tempDir.resolve("users.csv");
+        Path tasksPath = tempDir.resolve("tasks.csv");
+        Path logsPath = tempDir.resolve("logs.csv");
+        write(usersPath, "Code,Name,Email,Password", "1,鈴木太郎,suzuki@example.com,password1",
+            "2,田中花子,tanaka@example.com,password2");
+        write(tasksPath, "code,name,status,repUserCode", "1,資料作成,0,1", "2,会議準備,0,2");
+        write(logsPath, LOG_HEADER);
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath.toString());
+        TaskLogic taskLogic = new TaskLogic(new TaskDataAccess(tasksPath.toString(), userDataAccess),
+            new LogDataAccess(logsPath.toString()), userDataAccess);
+
+        Path dump = tempDir.resolve("session.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            User loginUser = userDataAccess.findByEmailAndPassword("tanaka@example.com", "password2");
+            taskLogic.changeStatus(1, 1, loginUser);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+            .filter(event -> event.getEventType().getName().startsWith("com.taskapp."))
+            .collect(Collectors.toList());
+        assertThat(events).extracting(event -> event.getEventType().getName()).contains(EVENTS);
+
+        RecordedEvent lookup = find(events, "com.taskapp.UserLookup");
+        assertThat(lookup.getString("path")).isEqualTo(usersPath.toString());
+        assertThat(lookup.getLong("rows")).isEqualTo(3);
+        RecordedEvent scan = find(events, "com.taskapp.TaskFileScan");
+        assertThat(scan.getString("operation")).isEqualTo("findByCode");
+        assertThat(scan.getLong("rows")).isPositive();
+        assertThat(scan.getLong("bytes")).isPositive();
+        RecordedEvent rewrite = find(events, "com.taskapp.TaskFileRewrite");
+        assertThat(rewrite.getLong("rows")).isEqualTo(2);
+        assertThat(rewrite.getLong("bytes")).isEqualTo(tasksPath.toFile().length());
+        RecordedEvent append = find(events, "com.taskapp.LogAppend");
+        assertThat(append.getString("path")).isEqualTo(logsPath.toString());
+        assertThat(append.getLong("bytes")).isEqualTo(logsPath.toFile().length() - LOG_HEADER.length() - 1);
+        RecordedEvent change = find(events, "com.taskapp.StatusChange");
+        assertThat(change.getInt("taskCode")).isEqualTo(1);
+        assertThat(change.getInt("fromStatus")).isEqualTo(0);
+        assertThat(change.getInt("toStatus")).isEqualTo(1);
+        assertThat(change.getBoolean("succeeded")).isTrue();
+        assertThat(change.getDuration()).isGreaterThanOrEqualTo(scan.getDuration());
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).findFirst().get();
+    }
+
+    private static void write(Path path, String... lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
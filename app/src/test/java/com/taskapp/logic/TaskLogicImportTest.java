@@ -0,0 +1,112 @@
+package com.taskapp.logic;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.exception.AppException;
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+import com.taskapp.model.User;
+
+/**
+ * {@link TaskLogic#saveAll}と{@link TaskLogic#importCsv}によるまとめての登録を確認します。
+ */
+public class TaskLogicImportTest {
+    @TempDir
+    Path tempDir;
+
+    private Path tasksPath;
+    private Path logsPath;
+    private TaskDataAccess taskDataAccess;
+    private LogDataAccess logDataAccess;
+    private TaskLogic taskLogic;
+    private User loginUser;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        String usersPath = tempDir.resolve("users.csv").toString();
+        tasksPath = tempDir.resolve("tasks.csv");
+        logsPath = tempDir.resolve("logs.csv");
+        write(usersPath, "Code,Name,Email,Password", "1,鈴木太郎,suzuki@example.com,password1",
+            "2,田中花子,tanaka@example.com,password2");
+        write(tasksPath.toString(), "code,name,status,repUserCode", "1,既存のタスク,0,1");
+        write(logsPath.toString(), "Task_Code,Change_User_Code,Status,Change_Date");
+
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        taskDataAccess = new TaskDataAccess(tasksPath.toString(), userDataAccess);
+        logDataAccess = new LogDataAccess(logsPath.toString());
+        taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess);
+        loginUser = new User(2, "田中花子", "tanaka@example.com", "password2");
+    }
+
+    @Test
+    public void testImportCsvSavesTasksAndLogs() throws Exception {
+        String importPath = tempDir.resolve("import.csv").toString();
+        write(importPath, "code,name,repUserCode", "10,資料作成,1", "", "11,会議準備,2");
+
+        int count = taskLogic.importCsv(importPath, loginUser);
+
+        assertEquals(2, count);
+        assertThat(taskDataAccess.findAll()).extracting(Task::getCode).containsExactly(1, 10, 11);
+        assertThat(taskDataAccess.findByCode(11).getRepUser().getName()).isEqualTo("田中花子");
+        assertThat(logDataAccess.findAll()).extracting(Log::getTaskCode).containsExactly(10, 11);
+        assertThat(logDataAccess.findByTaskCode(10)).extracting(Log::getChangeUserCode).containsExactly(2);
+    }
+
+    @Test
+    public void testImportCsvRejectsWholeFileOnDuplicateCode() throws Exception {
+        String importPath = tempDir.resolve("import.csv").toString();
+        write(importPath, "code,name,repUserCode", "10,資料作成,1", "1,重複,2");
+        List<String> tasksBefore = Files.readAllLines(tasksPath);
+
+        AppException e = assertThrows(AppException.class, () -> taskLogic.importCsv(importPath, loginUser));
+
+        assertEquals("2件目: タスクコード1は既に使われています", e.getMessage());
+        assertEquals(tasksBefore, Files.readAllLines(tasksPath));
+        assertThat(logDataAccess.findAll()).isEmpty();
+    }
+
+    @Test
+    public void testSaveAllRejectsUnknownUser() {
+        User unknown = new User(9, "", "", "");
+        List<Task> tasks = List.of(new Task(10, "資料作成", 0, loginUser), new Task(11, "会議準備", 0, unknown));
+
+        AppException e = assertThrows(AppException.class, () -> taskLogic.saveAll(tasks, loginUser));
+
+        assertEquals("2件目: 存在するユーザーコードを入力してください", e.getMessage());
+        assertThat(taskDataAccess.findAll()).extracting(Task::getCode).containsExactly(1);
+    }
+
+    @Test
+    public void testSaveAllRejectsDuplicatesWithinBatch() {
+        List<Task> tasks = List.of(new Task(10, "資料作成", 0, loginUser), new Task(10, "会議準備", 0, loginUser));
+
+        AppException e = assertThrows(AppException.class, () -> taskLogic.saveAll(tasks, loginUser));
+
+        assertEquals("2件目: タスクコード10は既に使われています", e.getMessage());
+        assertThat(logDataAccess.findAll()).isEmpty();
+    }
+
+    private static void write(String path, String... lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -4,8 +4,14 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -19,6 +25,7 @@ import com.taskapp.dataaccess.UserDataAccess;
 import com.taskapp.exception.AppException;
 import com.taskapp.model.Log;
 import com.taskapp.model.Task;
+import com.taskapp.model.TaskPage;
 import com.taskapp.model.User;
 
 public class TaskLogicTest {
@@ -48,17 +55,41 @@ public class TaskLogicTest {
         tasks.add(new Task(1, "Task 1", 0, new User(2, "Alice", "", "")));
         tasks.add(new Task(2, "Task 2", 1, new User(1, "John", "", "")));
 
-        // Mock the findAll method of taskDataAccess to return the mock tasks
-        when(taskDataAccess.findAll()).thenReturn(tasks);
+        // Mock the stream method of taskDataAccess to return the mock tasks
+        when(taskDataAccess.stream()).thenReturn(tasks.stream());
 
         // Call the showAll method
         taskLogic.showAll(loginUser);
 
         // Verify that the expected output is printed
-        verify(taskDataAccess).findAll();
+        verify(taskDataAccess).stream();
         assertThat(tasks).hasSize(2);
     }
 
+    @Test
+    public void testShowPagePrintsNumberedPage() {
+        User loginUser = new User(1, "John", "", "");
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task(21, "Task 21", 0, new User(2, "Alice", "", "")));
+        tasks.add(new Task(22, "Task 22", 2, new User(1, "John", "", "")));
+        when(taskDataAccess.findPage(20, 2)).thenReturn(new TaskPage(tasks, 20, 22));
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent, true, StandardCharsets.UTF_8));
+
+        TaskPage page;
+        try {
+            page = taskLogic.showPage(loginUser, 20, 2, 21);
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertThat(page.getNextCursor()).isEqualTo(22);
+        assertThat(outContent.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "21. タスク名：Task 21, 担当者名：Aliceが担当しています, ステータス：未着手" + System.lineSeparator()
+            + "22. タスク名：Task 22, 担当者名：あなたが担当しています, ステータス：完了" + System.lineSeparator());
+    }
+
     @Tag("Q3")
     @Test
     public void testSave() throws AppException {
@@ -104,6 +135,74 @@ public class TaskLogicTest {
         verify(logDataAccess).save(any(Log.class));
     }
 
+    @Test
+    public void testChangeStatusWaitsForLogDurability() {
+        TaskLogic durableTaskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess, true);
+        User loginUser = new User(1, "John", "", "");
+        Task task = new Task(1, "Task 1", 0, new User(2, "Alice", "", ""));
+
+        when(taskDataAccess.findByCode(1)).thenReturn(task);
+        when(logDataAccess.save(any(Log.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("disk full")));
+
+        assertThatThrownBy(() -> durableTaskLogic.changeStatus(1, 1, loginUser))
+            .isInstanceOf(AppException.class)
+            .hasMessage("ログの保存に失敗しました");
+    }
+
+    @Test
+    public void testChangeStatusFailsWhenWriteAheadRecordFails() throws AppException {
+        User loginUser = new User(1, "John", "", "");
+        Task task = new Task(1, "Task 1", 0, new User(2, "Alice", "", ""));
+
+        when(taskDataAccess.findByCode(1)).thenReturn(task);
+        when(taskDataAccess.sharesJournal(logDataAccess)).thenReturn(true);
+        when(taskDataAccess.update(any(Task.class), any(Log.class), eq(logDataAccess)))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("fsync failed")));
+        taskLogic.loadStatistics();
+
+        assertThatThrownBy(() -> taskLogic.changeStatus(1, 1, loginUser))
+            .isInstanceOf(AppException.class)
+            .hasMessage("ステータスの変更に失敗しました");
+        // 記録されなかった変更は集計に反映しない
+        assertThat(taskLogic.countByStatus(2, 1)).isZero();
+        assertThat(task.getStatus()).isEqualTo(0);
+    }
+
+    @Test
+    public void testChangeStatusFailsWhenTaskFileRewriteFails() throws AppException {
+        User loginUser = new User(1, "John", "", "");
+        Task task = new Task(1, "Task 1", 0, new User(2, "Alice", "", ""));
+
+        when(taskDataAccess.findByCode(1)).thenReturn(task);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(taskDataAccess).update(any(Task.class));
+        taskLogic.loadStatistics();
+
+        assertThatThrownBy(() -> taskLogic.changeStatus(1, 1, loginUser))
+            .isInstanceOf(AppException.class)
+            .hasMessage("ステータスの変更に失敗しました");
+        assertThat(taskLogic.countByStatus(2, 1)).isZero();
+        verify(logDataAccess, never()).save(any(Log.class));
+    }
+
+    @Test
+    public void testChangeStatusRejectsCompletedTask() {
+        User loginUser = new User(1, "John", "", "");
+        Task task = new Task(1, "Task 1", 2, new User(2, "Alice", "", ""));
+
+        when(taskDataAccess.findByCode(1)).thenReturn(task);
+
+        assertThatThrownBy(() -> taskLogic.changeStatus(1, 3, loginUser))
+            .isInstanceOf(AppException.class)
+            .hasMessage("ステータスは1・2の中から選択してください");
+        assertThatThrownBy(() -> taskLogic.changeStatus(1, 2, loginUser))
+            .isInstanceOf(AppException.class)
+            .hasMessage("完了したタスクのステータスは変更できません");
+        assertThat(task.getStatus()).isEqualTo(2);
+        verify(taskDataAccess, never()).update(any(Task.class));
+        verify(logDataAccess, never()).save(any(Log.class));
+    }
+
     @Tag("Q5")
     @Test
     public void testDelete() throws AppException {
@@ -0,0 +1,147 @@
+package com.taskapp.logic;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.model.Task;
+import com.taskapp.model.TaskSummary;
+import com.taskapp.model.User;
+
+/**
+ * 担当ユーザー・ステータスごとのタスク数の集計を確認します。
+ */
+public class TaskStatisticsTest {
+    @TempDir
+    Path tempDir;
+
+    private String usersPath;
+    private String tasksPath;
+    private String logsPath;
+    private UserDataAccess userDataAccess;
+    private User loginUser;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        usersPath = tempDir.resolve("users.csv").toString();
+        tasksPath = tempDir.resolve("tasks.csv").toString();
+        logsPath = tempDir.resolve("logs.csv").toString();
+        write(usersPath, "Code,Name,Email,Password", "1,鈴木太郎,suzuki@example.com,password1",
+            "2,田中花子,tanaka@example.com,password2");
+        write(tasksPath, "code,name,status,repUserCode", "1,資料作成,0,1", "2,会議準備,1,1", "3,見積もり,2,2");
+        write(logsPath, "Task_Code,Change_User_Code,Status,Change_Date");
+        userDataAccess = new UserDataAccess(usersPath);
+        loginUser = new User(1, "鈴木太郎", "suzuki@example.com", "password1");
+    }
+
+    @Test
+    public void testCountsFollowSaveAndChangeStatus() throws Exception {
+        TaskLogic taskLogic = newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess));
+        taskLogic.loadStatistics();
+
+        taskLogic.save(4, "レビュー", 2, loginUser);
+        taskLogic.changeStatus(1, 1, loginUser);
+        taskLogic.saveAll(List.of(new Task(5, "テスト", 0, loginUser), new Task(6, "リリース", 0, loginUser)),
+            loginUser);
+
+        assertEquals(2, taskLogic.countByStatus(1, 0));
+        assertEquals(2, taskLogic.countByStatus(1, 1));
+        assertEquals(1, taskLogic.countByStatus(2, 0));
+        assertEquals(1, taskLogic.countByStatus(2, 2));
+        List<TaskSummary> summaries = taskLogic.summarize();
+        assertThat(summaries).extracting(summary -> summary.getRepUser().getName())
+            .containsExactly("鈴木太郎", "田中花子");
+    }
+
+    @Test
+    public void testSavedSnapshotIsUsedWhileTasksAreUnchanged() throws Exception {
+        TaskLogic first = newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess));
+        first.changeStatus(1, 1, loginUser);
+        first.loadStatistics();
+        first.saveStatistics();
+
+        TaskDataAccess taskDataAccess = spy(new TaskDataAccess(tasksPath, userDataAccess));
+        TaskLogic second = newTaskLogic(taskDataAccess);
+        second.loadStatistics();
+
+        assertEquals(2, second.countByStatus(1, 1));
+        verify(taskDataAccess, never()).stream();
+    }
+
+    @Test
+    public void testStaleSnapshotIsRebuilt() throws Exception {
+        TaskLogic first = newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess));
+        first.loadStatistics();
+        first.saveStatistics();
+        // 集計を保存した後に、集計を持たない別のインスタンスが変更する
+        newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess)).save(4, "レビュー", 2, loginUser);
+
+        TaskLogic second = newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess));
+
+        assertEquals(1, second.countByStatus(2, 0));
+    }
+
+    @Test
+    public void testConcurrentChangesAreCountedOnce() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("code,name,status,repUserCode");
+        for (int i = 1; i <= 200; i++) {
+            lines.add(i + ",task" + i + ",0," + (1 + i % 2));
+        }
+        write(tasksPath, lines.toArray(new String[0]));
+        TaskLogic taskLogic = newTaskLogic(new TaskDataAccess(tasksPath, userDataAccess, true));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            int code = i;
+            futures.add(executor.submit(() -> {
+                if (code == 100) {
+                    // 変更の途中で集計を読み込んでも、二重に数えない
+                    taskLogic.loadStatistics();
+                }
+                taskLogic.changeStatus(code, 1, loginUser);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(0, taskLogic.countByStatus(1, 0) + taskLogic.countByStatus(2, 0));
+        assertEquals(100, taskLogic.countByStatus(1, 1));
+        assertEquals(100, taskLogic.countByStatus(2, 1));
+    }
+
+    private TaskLogic newTaskLogic(TaskDataAccess taskDataAccess) {
+        return new TaskLogic(taskDataAccess, new LogDataAccess(logsPath), userDataAccess);
+    }
+
+    private static void write(String path, String... lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.taskapp.ui;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskapp.dataaccess.LogDataAccess;
+import com.taskapp.dataaccess.LogWriter;
+import com.taskapp.dataaccess.TaskDataAccess;
+import com.taskapp.dataaccess.UserDataAccess;
+import com.taskapp.logic.TaskLogic;
+import com.taskapp.logic.UserLogic;
+import com.taskapp.model.Log;
+import com.taskapp.model.Task;
+
+public class TaskServerTest {
+    private static final int USER_COUNT = 50;
+    private static final int TASK_COUNT = 2_000;
+
+    @TempDir
+    Path tempDir;
+
+    private TaskDataAccess taskDataAccess;
+    private LogDataAccess logDataAccess;
+    private TaskServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        String usersPath = tempDir.resolve("users.csv").toString();
+        String tasksPath = tempDir.resolve("tasks.csv").toString();
+        String logsPath = tempDir.resolve("logs.csv").toString();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersPath))) {
+            writer.write("Code,Name,Email,Password\n");
+            for (int i = 1; i <= USER_COUNT; i++) {
+                writer.write(i + ",ユーザー" + i + ",user" + i + "@example.com,password" + i + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tasksPath))) {
+            writer.write("code,name,status,repUserCode\n");
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                writer.write(i + ",task" + i + ",0," + (1 + i % USER_COUNT) + "\n");
+            }
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logsPath))) {
+            writer.write("Task_Code,Change_User_Code,Status,Change_Date\n");
+        }
+
+        UserDataAccess userDataAccess = new UserDataAccess(usersPath);
+        taskDataAccess = new TaskDataAccess(tasksPath, userDataAccess, true);
+        logDataAccess = new LogDataAccess(logsPath, new LogWriter(logsPath, LogWriter.Durability.PER_BATCH, 0, 4096));
+        TaskLogic taskLogic = new TaskLogic(taskDataAccess, logDataAccess, userDataAccess, true);
+        server = new TaskServer(0, new UserLogic(userDataAccess), taskLogic);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+        logDataAccess.close();
+    }
+
+    @Test
+    public void testSessionsKeepTheirOwnLoginUser() throws IOException {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            assertThat(first.send("STATUS 1 1")).isEqualTo("ERR ログインしてください");
+            assertThat(first.send("LOGIN user1@example.com wrong"))
+                .isEqualTo("ERR 既に登録されているメールアドレス、パスワードを入力してください");
+
+            assertThat(first.send("LOGIN user1@example.com password1")).isEqualTo("OK 1 ユーザー1");
+            assertThat(second.send("LOGIN user2@example.com password2")).isEqualTo("OK 2 ユーザー2");
+            assertThat(first.send("STATUS 1 1")).isEqualTo("OK");
+            assertThat(second.send("STATUS 1 1"))
+                .isEqualTo("ERR ステータスは、前のステータスより1つ先のもののみを選択してください");
+            assertThat(second.send("CREATE 9001 3 新しいタスク")).isEqualTo("OK");
+            assertThat(second.send("CREATE 9002 3 とても長いタスクの名前です"))
+                .isEqualTo("ERR タスク名は10文字以内で入力してください");
+            assertThat(first.send("LOGOUT")).isEqualTo("OK");
+        }
+
+        assertThat(taskDataAccess.findByCode(1).getStatus()).isEqualTo(1);
+        assertThat(taskDataAccess.findByCode(9001).getRepUser().getCode()).isEqualTo(3);
+        assertThat(logDataAccess.findByTaskCode(1)).extracting(Log::getChangeUserCode).containsExactly(1);
+        assertThat(logDataAccess.findByTaskCode(9001)).extracting(Log::getChangeUserCode).containsExactly(2);
+    }
+
+    @Test
+    public void testListStreamsAllTasks() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("LOGIN user1@example.com password1");
+            client.out.println("LIST");
+            List<String> lines = new ArrayList<>();
+            String line;
+            while (!(line = client.in.readLine()).equals("END")) {
+                lines.add(line);
+            }
+
+            assertThat(lines).hasSize(TASK_COUNT);
+            assertThat(lines.get(0)).isEqualTo("1,task1,0,2,ユーザー2");
+        }
+    }
+
+    /**
+     * 多数のクライアントを同時に接続し、各クライアントが自分のタスクのステータスを2回変更します。
+     * 全てのタスクが完了になることを確認します。スループットと応答時間は{@code TaskServerBenchmark}で計測します。
+     */
+    @Test
+    public void testThousandsOfConcurrentClients() throws Exception {
+        List<Future<?>> sessions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                int code = i + 1;
+                int user = 1 + i % USER_COUNT;
+                sessions.add(executor.submit(() -> {
+                    try (Client client = new Client(server.getPort())) {
+                        assertThat(client.send("LOGIN user" + user + "@example.com password" + user)).startsWith("OK");
+                        assertThat(client.send("STATUS " + code + " 1")).isEqualTo("OK");
+                        assertThat(client.send("STATUS " + code + " 2")).isEqualTo("OK");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> session : sessions) {
+                session.get(120, TimeUnit.SECONDS);
+            }
+        }
+
+        try (var tasks = taskDataAccess.stream()) {
+            assertThat(tasks.mapToInt(Task::getStatus)).containsOnly(2);
+        }
+    }
+
+    /**
+     * 1行ずつコマンドを送信して応答を受け取るテスト用のクライアントです。
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final PrintWriter out;
+        private final BufferedReader in;
+
+        private Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        private String send(String command) throws IOException {
+            out.println(command);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskapp.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntIntMapTest {
+    @Test
+    public void testMatchesHashMapIncludingZeroKey() {
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(1_000) - 500;
+            map.addTo(key, i);
+            expected.merge(key, i, Integer::sum);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.containsKey(0)).isTrue();
+        for (int key = -600; key < 600; key++) {
+            assertThat(map.get(key, -1)).isEqualTo(expected.getOrDefault(key, -1));
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        IntIntMap map = new IntIntMap(0);
+
+        assertThat(map.putIfAbsent(0, 1)).isTrue();
+        assertThat(map.putIfAbsent(0, 2)).isFalse();
+        assertThat(map.putIfAbsent(5, 3)).isTrue();
+        assertThat(map.get(0, -1)).isEqualTo(1);
+        assertThat(map.get(5, -1)).isEqualTo(3);
+        assertThat(map.copy().get(5, -1)).isEqualTo(3);
+    }
+
+    @Test
+    public void testIntList() {
+        IntList list = new IntList(0);
+        for (int i = 0; i < 1_000; i++) {
+            list.add(i * 2);
+        }
+        list.set(10, -1);
+
+        assertThat(list.size()).isEqualTo(1_000);
+        assertThat(list.get(10)).isEqualTo(-1);
+        assertThat(list.copy().toArray()).hasSize(1_000).startsWith(0, 2, 4);
+        assertThatThrownBy(() -> list.get(1_000)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskapp.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntObjectMapTest {
+    @Test
+    public void testMatchesHashMapAcrossResizes() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(50_000) - 25_000;
+            String value = "v" + i;
+            assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (int key = -25_000; key < 25_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+        Map<Integer, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    public void testPutIfAbsentAndComputeIfAbsent() {
+        IntObjectMap<String> map = new IntObjectMap<>(0);
+
+        assertThat(map.putIfAbsent(0, "zero")).isNull();
+        assertThat(map.putIfAbsent(0, "other")).isEqualTo("zero");
+        assertThat(map.computeIfAbsent(7, key -> "seven" + key)).isEqualTo("seven7");
+        assertThat(map.computeIfAbsent(7, key -> "other")).isEqualTo("seven7");
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.containsKey(1)).isFalse();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "one");
+
+        IntObjectMap<String> copy = map.copy();
+        copy.put(2, "two");
+        map.put(1, "uno");
+
+        assertThat(map.get(2)).isNull();
+        assertThat(copy.get(1)).isEqualTo("one");
+    }
+
+    @Test
+    public void testRejectsNullValue() {
+        assertThatThrownBy(() -> new IntObjectMap<String>().put(1, null))
+            .isInstanceOf(NullPointerException.class);
+    }
+}
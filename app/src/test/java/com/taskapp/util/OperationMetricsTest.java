@@ -0,0 +1,68 @@
+package com.taskapp.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+public class OperationMetricsTest {
+    @Test
+    public void testBucketsCoverEveryValueWithinBounds() {
+        long[] samples = { 0, 1, 3, 4, 5, 7, 8, 9, 15, 16, 1_000, 123_456_789, Long.MAX_VALUE };
+        for (long nanos : samples) {
+            int bucket = OperationMetrics.bucketOf(nanos);
+            assertThat(OperationMetrics.upperBoundOf(bucket)).isGreaterThanOrEqualTo(nanos);
+            if (bucket > 0) {
+                assertThat(OperationMetrics.upperBoundOf(bucket - 1)).isLessThan(nanos);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentilesAreWithinBucketPrecision() {
+        OperationMetrics metrics = new OperationMetrics("test");
+        for (int i = 1; i <= 1000; i++) {
+            metrics.record(i * 1000L);
+        }
+
+        assertThat(metrics.getCalls()).isEqualTo(1000);
+        assertThat(metrics.percentileNanos(0.50)).isBetween(500_000L, 625_000L);
+        assertThat(metrics.percentileNanos(0.99)).isBetween(990_000L, 1_000_000L);
+        assertThat(metrics.getMaxMicros()).isEqualTo(1000.0);
+        assertThat(metrics.getMeanMicros()).isEqualTo(500.5);
+
+        metrics.reset();
+        assertThat(metrics.getCalls()).isZero();
+        assertThat(metrics.getP95Micros()).isZero();
+    }
+
+    @Test
+    public void testBytesWrittenCountsUtf8WithoutEncoding() {
+        OperationMetrics metrics = new OperationMetrics("test");
+        String line = "1,資料作成😀é,0,1";
+
+        metrics.addBytesWritten(line, 1);
+
+        assertThat(metrics.getBytesWritten()).isEqualTo(line.getBytes(StandardCharsets.UTF_8).length + 1);
+    }
+
+    @Test
+    public void testOperationsAreRegisteredOnceWithJmx() throws Exception {
+        OperationMetrics metrics = Metrics.operation("OperationMetricsTest.jmx");
+        metrics.record(2_000);
+        metrics.addRows(3);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.taskapp:type=Operation,name=OperationMetricsTest.jmx");
+
+        assertThat(Metrics.operation("OperationMetricsTest.jmx")).isSameAs(metrics);
+        assertThat(server.getAttribute(name, "Calls")).isEqualTo(1L);
+        assertThat(server.getAttribute(name, "Rows")).isEqualTo(3L);
+        assertThat(Metrics.report()).contains("OperationMetricsTest.jmx");
+    }
+}